@@ -1,7 +1,9 @@
 package com.jirainsight;
 
 import com.jirainsight.controller.MainController;
+import com.jirainsight.util.MetricsRegistry;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -10,6 +12,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main JavaFX Application class for JiraInsight Desktop
@@ -24,14 +28,22 @@ public class JiraInsightApplication extends Application {
     private static final int DEFAULT_WIDTH = 1400;
     private static final int DEFAULT_HEIGHT = 900;
     
+    /**
+     * System property that exits the application after its first frame, used for the
+     * class-data-sharing training run and for scripted startup measurements
+     */
+    public static final String EXIT_AFTER_FIRST_FRAME = "jirainsight.exitAfterFirstFrame";
+    
     @Override
     public void start(Stage primaryStage) {
         try {
             logger.info("Starting JiraInsight Desktop Application");
             
             // Load FXML
+            long loadStart = System.nanoTime();
             FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/main.fxml"));
             Scene scene = new Scene(fxmlLoader.load(), DEFAULT_WIDTH, DEFAULT_HEIGHT);
+            MetricsRegistry.getInstance().timer("startup.mainFxmlLoad").recordSince(loadStart);
             
             // Get controller and set stage reference
             MainController controller = fxmlLoader.getController();
@@ -61,6 +73,7 @@ public class JiraInsightApplication extends Application {
             });
             
             // Show the stage
+            reportFirstFrame(scene);
             primaryStage.show();
             
             logger.info("JiraInsight Desktop Application started successfully");
@@ -71,6 +84,35 @@ public class JiraInsightApplication extends Application {
         }
     }
     
+    /**
+     * Record the time from JVM start to the first laid-out frame of the main scene
+     */
+    private void reportFirstFrame(Scene scene) {
+        Runnable listener = new Runnable() {
+            private boolean reported;
+            
+            @Override
+            public void run() {
+                if (reported) {
+                    return;
+                }
+                reported = true;
+                
+                long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                MetricsRegistry.getInstance().timer("startup.firstFrame")
+                        .record(TimeUnit.MILLISECONDS.toNanos(uptimeMillis));
+                logger.info("First frame {} ms after JVM start", uptimeMillis);
+                
+                // Listeners must not be removed while the pulse iterates them
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+                if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME)) {
+                    Platform.runLater(Platform::exit);
+                }
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
+    }
+    
     @Override
     public void stop() throws Exception {
         logger.info("JiraInsight Desktop Application stopped");
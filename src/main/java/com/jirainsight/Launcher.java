@@ -0,0 +1,13 @@
+package com.jirainsight;
+
+/**
+ * Entry point for the shaded jar. The JVM refuses to start a main class that extends
+ * Application when JavaFX is on the class path rather than the module path, so the
+ * shaded jar launches through this class instead.
+ */
+public class Launcher {
+    
+    public static void main(String[] args) {
+        JiraInsightApplication.main(args);
+    }
+}
@@ -2,7 +2,11 @@ package com.jirainsight.controller;
 
 import com.jirainsight.model.JiraIssue;
 import com.jirainsight.model.IssueComments.IssueComment;
+import com.jirainsight.model.IssuePriority;
+import com.jirainsight.model.IssueStatus;
 import com.jirainsight.model.IssueSubtask;
+import com.jirainsight.util.Histogram;
+import com.jirainsight.util.MetricsRegistry;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -15,9 +19,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 
 /**
  * Controller for displaying detailed issue information
@@ -39,7 +40,9 @@ public class IssueDetailsController {
     @FXML private Label updatedLabel;
     
     @FXML private VBox descriptionContainer;
-    @FXML private WebView descriptionWebView;
+    
+    // Created on the first issue with a description; WebView startup loads WebKit
+    private WebView descriptionWebView;
     
     @FXML private VBox subtasksContainer;
     @FXML private VBox subtasksList;
@@ -49,6 +52,8 @@ public class IssueDetailsController {
     
     private JiraIssue currentIssue;
     
+    private final Histogram renderTimer = MetricsRegistry.getInstance().timer("details.render");
+    
     /**
      * Create and load the issue details view
      */
@@ -69,10 +74,12 @@ public class IssueDetailsController {
             return;
         }
         
+        long startNanos = System.nanoTime();
         updateBasicInfo(issue);
         updateDescription(issue);
         updateSubtasks(issue);
         updateComments(issue);
+        renderTimer.recordSince(startNanos);
     }
     
     /**
@@ -90,7 +97,9 @@ public class IssueDetailsController {
         createdLabel.setText("");
         updatedLabel.setText("");
         
-        descriptionWebView.getEngine().loadContent("");
+        if (descriptionWebView != null) {
+            descriptionWebView.getEngine().loadContent("");
+        }
         subtasksList.getChildren().clear();
         commentsList.getChildren().clear();
         
@@ -108,7 +117,7 @@ public class IssueDetailsController {
         
         // Status with styling
         statusLabel.setText(issue.getStatus().getName());
-        updateStatusStyle(statusLabel, issue.getStatus().getStatusCategoryKey());
+        updateStatusStyle(statusLabel, issue.getStatus().getCategoryType());
         
         // Priority with styling
         priorityLabel.setText(issue.getPriority().getName());
@@ -119,9 +128,9 @@ public class IssueDetailsController {
         sprintLabel.setText(issue.getSprintName());
         issueTypeLabel.setText(issue.getIssueType().getName());
         
-        // Format dates
-        createdLabel.setText(formatDate(issue.getCreated()));
-        updatedLabel.setText(formatDate(issue.getUpdated()));
+        // Dates are parsed at decode time and formatted once
+        createdLabel.setText(issue.getCreatedDisplay());
+        updatedLabel.setText(issue.getUpdatedDisplay());
     }
     
     /**
@@ -130,7 +139,7 @@ public class IssueDetailsController {
     private void updateDescription(JiraIssue issue) {
         if (issue.getDescription() != null && !issue.getDescription().trim().isEmpty()) {
             String htmlContent = convertToHtml(issue.getDescription());
-            descriptionWebView.getEngine().loadContent(htmlContent);
+            getDescriptionWebView().getEngine().loadContent(htmlContent);
             descriptionContainer.setVisible(true);
             descriptionContainer.setManaged(true);
         } else {
@@ -139,6 +148,18 @@ public class IssueDetailsController {
         }
     }
     
+    /**
+     * Get the description WebView, creating it on first use
+     */
+    private WebView getDescriptionWebView() {
+        if (descriptionWebView == null) {
+            descriptionWebView = new WebView();
+            descriptionWebView.setPrefHeight(150);
+            descriptionContainer.getChildren().add(descriptionWebView);
+        }
+        return descriptionWebView;
+    }
+    
     /**
      * Update subtasks section
      */
@@ -227,7 +248,7 @@ public class IssueDetailsController {
         Label authorLabel = new Label(comment.getAuthor().getDisplayName());
         authorLabel.getStyleClass().add("comment-author");
         
-        Label dateLabel = new Label(formatDate(comment.getCreated()));
+        Label dateLabel = new Label(comment.getCreatedDisplay());
         dateLabel.getStyleClass().add("comment-date");
         
         header.getChildren().addAll(authorLabel, dateLabel);
@@ -264,72 +285,20 @@ public class IssueDetailsController {
         );
     }
     
-    /**
-     * Format date string for display
-     */
-    private String formatDate(String dateString) {
-        if (dateString == null || dateString.trim().isEmpty()) {
-            return "Unknown";
-        }
-        
-        try {
-            // Parse ISO date format from Jira
-            LocalDateTime dateTime = LocalDateTime.parse(dateString.substring(0, 19));
-            return dateTime.format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm"));
-        } catch (DateTimeParseException e) {
-            logger.warn("Could not parse date: {}", dateString);
-            return dateString;
-        }
-    }
-    
     /**
      * Update status label styling
      */
-    private void updateStatusStyle(Label label, String statusCategory) {
+    private void updateStatusStyle(Label label, IssueStatus.CategoryType categoryType) {
         label.getStyleClass().removeIf(style -> style.startsWith("status-"));
-        
-        switch (statusCategory.toLowerCase()) {
-            case "done":
-                label.getStyleClass().add("status-done");
-                break;
-            case "indeterminate":
-                label.getStyleClass().add("status-in-progress");
-                break;
-            case "new":
-                label.getStyleClass().add("status-new");
-                break;
-            default:
-                label.getStyleClass().add("status-default");
-                break;
-        }
+        label.getStyleClass().add(IssueListCell.statusStyleClass(categoryType));
     }
     
     /**
      * Update priority label styling
      */
-    private void updatePriorityStyle(Label label, com.jirainsight.model.IssuePriority.PriorityLevel priorityLevel) {
+    private void updatePriorityStyle(Label label, IssuePriority.PriorityLevel priorityLevel) {
         label.getStyleClass().removeIf(style -> style.startsWith("priority-"));
-        
-        switch (priorityLevel) {
-            case HIGHEST:
-                label.getStyleClass().add("priority-highest");
-                break;
-            case HIGH:
-                label.getStyleClass().add("priority-high");
-                break;
-            case MEDIUM:
-                label.getStyleClass().add("priority-medium");
-                break;
-            case LOW:
-                label.getStyleClass().add("priority-low");
-                break;
-            case LOWEST:
-                label.getStyleClass().add("priority-lowest");
-                break;
-            default:
-                label.getStyleClass().add("priority-none");
-                break;
-        }
+        label.getStyleClass().add(IssueListCell.priorityStyleClass(priorityLevel));
     }
     
     /**
@@ -2,20 +2,33 @@ package com.jirainsight.controller;
 
 import com.jirainsight.model.JiraIssue;
 import com.jirainsight.model.IssuePriority;
+import com.jirainsight.model.IssueStatus;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
+import javafx.scene.control.OverrunStyle;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
 /**
- * Custom ListCell for displaying Jira issues in the list view
+ * Custom ListCell for displaying Jira issues in the list view.
+ * In compact mode the cell is a single fixed-height row with the summary truncated,
+ * so the list can use a fixed cell size and skip measuring cells while scrolling.
  */
 public class IssueListCell extends ListCell<JiraIssue> {
     
-    private VBox content;
+    /**
+     * Cell height for compact mode, used as the ListView fixed cell size
+     */
+    public static final double COMPACT_CELL_HEIGHT = 30;
+    
+    private final boolean compact;
+    
+    private Pane content;
     private HBox headerBox;
     private HBox footerBox;
     private Label keyLabel;
@@ -23,16 +36,74 @@ public class IssueListCell extends ListCell<JiraIssue> {
     private Label summaryLabel;
     private Label assigneeLabel;
     private Label priorityLabel;
+    private Tooltip summaryTooltip;
+    
+    // Style currently applied, so unchanged styles cost no style class mutation
+    private IssueStatus.CategoryType currentStatusStyle;
+    private IssuePriority.PriorityLevel currentPriorityStyle;
     
     public IssueListCell() {
-        createContent();
+        this(false);
+    }
+    
+    public IssueListCell(boolean compact) {
+        this.compact = compact;
+        if (compact) {
+            createCompactContent();
+        } else {
+            createContent();
+        }
+    }
+    
+    private void createCompactContent() {
+        // Single row: key, status, summary, assignee and priority
+        HBox row = new HBox();
+        row.setSpacing(8);
+        row.setAlignment(Pos.CENTER_LEFT);
+        row.setPadding(new Insets(4, 8, 4, 8));
+        row.setMinHeight(COMPACT_CELL_HEIGHT);
+        row.setPrefHeight(COMPACT_CELL_HEIGHT);
+        row.setMaxHeight(COMPACT_CELL_HEIGHT);
+        
+        keyLabel = new Label();
+        keyLabel.getStyleClass().add("issue-key");
+        keyLabel.setMinWidth(Label.USE_PREF_SIZE);
+        
+        statusLabel = new Label();
+        statusLabel.getStyleClass().add("issue-status");
+        statusLabel.setMinWidth(Label.USE_PREF_SIZE);
+        
+        // Truncated summary, full text in the tooltip
+        summaryLabel = new Label();
+        summaryLabel.getStyleClass().add("issue-summary");
+        summaryLabel.setWrapText(false);
+        summaryLabel.setTextOverrun(OverrunStyle.ELLIPSIS);
+        summaryLabel.setMinWidth(0);
+        summaryLabel.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(summaryLabel, Priority.ALWAYS);
+        summaryTooltip = new Tooltip();
+        summaryTooltip.setWrapText(true);
+        summaryTooltip.setMaxWidth(480);
+        summaryLabel.setTooltip(summaryTooltip);
+        
+        assigneeLabel = new Label();
+        assigneeLabel.getStyleClass().add("issue-assignee");
+        assigneeLabel.setMinWidth(Label.USE_PREF_SIZE);
+        
+        priorityLabel = new Label();
+        priorityLabel.getStyleClass().add("issue-priority");
+        priorityLabel.setMinWidth(Label.USE_PREF_SIZE);
+        
+        row.getChildren().addAll(keyLabel, statusLabel, summaryLabel, assigneeLabel, priorityLabel);
+        content = row;
     }
     
     private void createContent() {
         // Create main content container
-        content = new VBox();
+        VBox content = new VBox();
         content.setSpacing(4);
         content.setPadding(new Insets(8));
+        this.content = content;
         
         // Header box with key and status
         headerBox = new HBox();
@@ -94,64 +165,79 @@ public class IssueListCell extends ListCell<JiraIssue> {
         
         // Update status with color coding
         statusLabel.setText(issue.getStatus().getName());
-        updateStatusStyle(statusLabel, issue.getStatus().getStatusCategoryKey());
+        updateStatusStyle(issue.getStatus().getCategoryType());
         
         // Update summary
         summaryLabel.setText(issue.getSummary());
+        if (compact) {
+            summaryTooltip.setText(issue.getSummary());
+        }
         
         // Update assignee
         assigneeLabel.setText(issue.getAssigneeDisplayName());
         
         // Update priority with color coding
         priorityLabel.setText(issue.getPriority().getName());
-        updatePriorityStyle(priorityLabel, issue.getPriority().getPriorityLevel());
+        updatePriorityStyle(issue.getPriority().getPriorityLevel());
     }
     
-    private void updateStatusStyle(Label label, String statusCategory) {
-        // Clear existing status styles
-        label.getStyleClass().removeIf(style -> style.startsWith("status-"));
-        
-        // Add appropriate status style
-        switch (statusCategory.toLowerCase()) {
-            case "done":
-                label.getStyleClass().add("status-done");
-                break;
-            case "indeterminate":
-                label.getStyleClass().add("status-in-progress");
-                break;
-            case "new":
-                label.getStyleClass().add("status-new");
-                break;
-            default:
-                label.getStyleClass().add("status-default");
-                break;
+    private void updateStatusStyle(IssueStatus.CategoryType categoryType) {
+        if (categoryType == currentStatusStyle) {
+            return;
         }
+        
+        if (currentStatusStyle != null) {
+            statusLabel.getStyleClass().remove(statusStyleClass(currentStatusStyle));
+        }
+        statusLabel.getStyleClass().add(statusStyleClass(categoryType));
+        currentStatusStyle = categoryType;
     }
     
-    private void updatePriorityStyle(Label label, IssuePriority.PriorityLevel priorityLevel) {
-        // Clear existing priority styles
-        label.getStyleClass().removeIf(style -> style.startsWith("priority-"));
+    private void updatePriorityStyle(IssuePriority.PriorityLevel priorityLevel) {
+        if (priorityLevel == currentPriorityStyle) {
+            return;
+        }
         
-        // Add appropriate priority style
+        if (currentPriorityStyle != null) {
+            priorityLabel.getStyleClass().remove(priorityStyleClass(currentPriorityStyle));
+        }
+        priorityLabel.getStyleClass().add(priorityStyleClass(priorityLevel));
+        currentPriorityStyle = priorityLevel;
+    }
+    
+    /**
+     * Get the style class for a status category
+     */
+    static String statusStyleClass(IssueStatus.CategoryType categoryType) {
+        switch (categoryType) {
+            case DONE:
+                return "status-done";
+            case IN_PROGRESS:
+                return "status-in-progress";
+            case NEW:
+                return "status-new";
+            default:
+                return "status-default";
+        }
+    }
+    
+    /**
+     * Get the style class for a priority level
+     */
+    static String priorityStyleClass(IssuePriority.PriorityLevel priorityLevel) {
         switch (priorityLevel) {
             case HIGHEST:
-                label.getStyleClass().add("priority-highest");
-                break;
+                return "priority-highest";
             case HIGH:
-                label.getStyleClass().add("priority-high");
-                break;
+                return "priority-high";
             case MEDIUM:
-                label.getStyleClass().add("priority-medium");
-                break;
+                return "priority-medium";
             case LOW:
-                label.getStyleClass().add("priority-low");
-                break;
+                return "priority-low";
             case LOWEST:
-                label.getStyleClass().add("priority-lowest");
-                break;
+                return "priority-lowest";
             default:
-                label.getStyleClass().add("priority-none");
-                break;
+                return "priority-none";
         }
     }
 }
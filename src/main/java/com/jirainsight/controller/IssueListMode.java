@@ -0,0 +1,21 @@
+package com.jirainsight.controller;
+
+/**
+ * Display modes for the search results
+ */
+public enum IssueListMode {
+    COMFORTABLE("Comfortable"),
+    COMPACT("Compact"),
+    TABLE("Table");
+
+    private final String displayName;
+
+    IssueListMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,82 @@
+package com.jirainsight.controller;
+
+import com.jirainsight.model.JiraIssue;
+
+import java.util.Comparator;
+
+/**
+ * Client-side sort orders for the issue list. Comparators only read precomputed keys
+ * (epoch millis, priority and status category ordinals), so re-sorting large result
+ * sets does no parsing or string work beyond the assignee name and issue keys, which
+ * are compared in place without allocating.
+ */
+public enum IssueSortOrder {
+    SERVER("Server order", null),
+    PRIORITY("Priority", Comparator.comparingInt(
+            (JiraIssue issue) -> issue.getPriority() != null ? issue.getPriority().getPriorityLevel().getLevel() : 0)
+            .reversed()),
+    UPDATED("Updated", Comparator.comparingLong(JiraIssue::getUpdatedMillis).reversed()),
+    CREATED("Created", Comparator.comparingLong(JiraIssue::getCreatedMillis).reversed()),
+    STATUS_CATEGORY("Status category", Comparator.comparingInt(
+            (JiraIssue issue) -> issue.getStatus() != null ? issue.getStatus().getCategoryType().ordinal() : 0)),
+    ASSIGNEE("Assignee", Comparator.comparing(JiraIssue::getAssigneeDisplayName, String.CASE_INSENSITIVE_ORDER)),
+    KEY("Key", Comparator.comparing(JiraIssue::getKey, Comparator.nullsFirst(IssueSortOrder::compareKeys)));
+
+    private final String displayName;
+    private final Comparator<JiraIssue> comparator;
+
+    IssueSortOrder(String displayName, Comparator<JiraIssue> comparator) {
+        this.displayName = displayName;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Get the comparator in its natural direction (highest priority and newest first),
+     * or null to keep server order
+     */
+    public Comparator<JiraIssue> getComparator(boolean reversed) {
+        if (comparator == null) {
+            return null;
+        }
+        return reversed ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * Compare issue keys by project, then by issue number, so PROJ-9 sorts before PROJ-10.
+     * Keys without a numeric suffix compare as plain strings.
+     */
+    static int compareKeys(String a, String b) {
+        int dashA = a.lastIndexOf('-');
+        int dashB = b.lastIndexOf('-');
+        if (!isNumeric(a, dashA + 1) || !isNumeric(b, dashB + 1)) {
+            return a.compareTo(b);
+        }
+
+        for (int i = 0; i < Math.min(dashA, dashB); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return Character.compare(a.charAt(i), b.charAt(i));
+            }
+        }
+        if (dashA != dashB) {
+            return Integer.compare(dashA, dashB);
+        }
+        return Long.compare(Long.parseLong(a, dashA + 1, a.length(), 10), Long.parseLong(b, dashB + 1, b.length(), 10));
+    }
+
+    private static boolean isNumeric(String key, int start) {
+        if (start == 0 || start == key.length() || key.length() - start > 18) {
+            return false;
+        }
+        for (int i = start; i < key.length(); i++) {
+            if (key.charAt(i) < '0' || key.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
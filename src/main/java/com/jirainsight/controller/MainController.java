@@ -1,25 +1,70 @@
 package com.jirainsight.controller;
 
+import com.jirainsight.model.IssueFacets;
+import com.jirainsight.model.IssueFacets.Facet;
+import com.jirainsight.model.IssueFacets.FacetValue;
+import com.jirainsight.model.JiraAccount;
 import com.jirainsight.model.JiraCredentials;
 import com.jirainsight.model.JiraIssue;
 import com.jirainsight.model.JiraSearchResult;
+import com.jirainsight.model.SessionSnapshot;
 import com.jirainsight.model.User;
+import com.jirainsight.service.ChangelogIngester;
+import com.jirainsight.service.ColumnarIssueFile;
+import com.jirainsight.service.ConnectionManager;
+import com.jirainsight.service.FlowReport;
+import com.jirainsight.service.IssueExporter;
 import com.jirainsight.service.JiraApiService;
+import com.jirainsight.service.JiraConnection;
+import com.jirainsight.service.SessionSnapshotStore;
+import com.jirainsight.service.SiteOfflineException;
 import com.jirainsight.service.StorageService;
+import com.jirainsight.service.TransitionLog;
+import com.jirainsight.service.TransportProfile;
 import com.jirainsight.util.AlertUtils;
+import com.jirainsight.util.FxStallDetector;
+import com.jirainsight.util.FxUpdateScheduler;
+import com.jirainsight.util.IssueListDiff;
+import com.jirainsight.util.MetricsRegistry;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
+import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Main controller for the JiraInsight Desktop application
@@ -28,22 +73,52 @@ public class MainController implements Initializable {
     
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
     
+    private static final String CURRENT_USER_FILTER = "currentUser()";
+    private static final String ALL_SITES = "All sites";
+    
     // Services
-    private final JiraApiService jiraApiService = new JiraApiService();
-    private final StorageService storageService = StorageService.getInstance();
+    private final TransportProfile transportProfile = TransportProfile.defaults();
+    private final ConnectionManager connections = new ConnectionManager(transportProfile);
+    private final SessionSnapshotStore sessionStore = SessionSnapshotStore.defaultStore();
+    
+    // UI updates are coalesced per target and applied once per pulse
+    private final FxUpdateScheduler uiUpdates = new FxUpdateScheduler();
+    private final FxStallDetector stallDetector = new FxStallDetector();
     
     // Application state
     private Stage stage;
-    private User currentUser;
-    private JiraCredentials currentCredentials;
+    private SessionSnapshot restoredSession;
+    
+    // Result state: all fetched issues, filtered locally by the selected facets
+    private final ObservableList<JiraIssue> allIssues = FXCollections.observableArrayList();
+    private final FilteredList<JiraIssue> filteredIssues = new FilteredList<>(allIssues);
+    private final SortedList<JiraIssue> sortedIssues = new SortedList<>(filteredIssues);
+    private final Map<Facet, Set<String>> selectedFacets = new EnumMap<>(Facet.class);
+    private IssueFacets currentFacets = new IssueFacets();
+    private String currentSummary = "No search results";
+    private String currentQuery;
+    private boolean showingStaleResults;
+    private Task<Long> exportTask;
+    private Task<Long> historyTask;
+    // Opened on first use off the FX thread, see openTransitionLog
+    private TransitionLog transitionLog;
+    private String currentJql;
+    private String currentPagingDomain;
+    private int nextStartAt;
     
     // FXML Components
     @FXML private MenuBar menuBar;
     @FXML private Menu fileMenu;
     @FXML private MenuItem connectMenuItem;
     @FXML private MenuItem disconnectMenuItem;
+    @FXML private MenuItem exportMenuItem;
+    @FXML private MenuItem exportColumnarMenuItem;
     @FXML private MenuItem exitMenuItem;
+    @FXML private Menu reportsMenu;
+    @FXML private MenuItem flowReportsMenuItem;
+    @FXML private MenuItem statusHistoryMenuItem;
     @FXML private Menu helpMenu;
+    @FXML private MenuItem diagnosticsMenuItem;
     @FXML private MenuItem aboutMenuItem;
     
     @FXML private ToolBar toolBar;
@@ -73,7 +148,15 @@ public class MainController implements Initializable {
     @FXML private SplitPane resultsSplitPane;
     @FXML private VBox issueListPane;
     @FXML private Label resultsLabel;
+    @FXML private TitledPane facetPane;
+    @FXML private VBox facetContainer;
+    @FXML private TextField listFilterField;
+    @FXML private ComboBox<IssueSortOrder> sortComboBox;
+    @FXML private ToggleButton sortDirectionButton;
+    @FXML private ComboBox<IssueListMode> viewModeComboBox;
     @FXML private ListView<JiraIssue> issueListView;
+    @FXML private TableView<JiraIssue> issueTableView;
+    @FXML private Button loadMoreButton;
     
     @FXML private VBox issueDetailsPane;
     @FXML private Label issueDetailsLabel;
@@ -85,6 +168,9 @@ public class MainController implements Initializable {
     // Status and progress
     @FXML private ProgressBar progressBar;
     @FXML private Label statusLabel;
+    // Progress of the running export or status history load, which only that task writes
+    @FXML private ProgressBar taskProgressBar;
+    @FXML private Label taskStatusLabel;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -94,13 +180,25 @@ public class MainController implements Initializable {
         setupToolbarActions();
         setupSearchActions();
         setupIssueListView();
-        setupIssueDetailsView();
+        connections.setHealthListener(this::onConnectionHealthChanged);
 
         updateConnectionState(false);
+        restoreSession();
+        reconnectRememberedCredentials();
+        
+        // Initialize runs on the FX thread, which the detector watches
+        stallDetector.start();
         
         logger.info("MainController initialized successfully");
     }
     
+    /**
+     * Targets of coalesced UI updates; a newer update replaces a pending one
+     */
+    private enum UiTarget {
+        STATUS, CONNECTION, RESULTS, DETAILS, PAGING
+    }
+    
     /**
      * Set the primary stage reference
      */
@@ -114,7 +212,12 @@ public class MainController implements Initializable {
     private void setupMenuActions() {
         connectMenuItem.setOnAction(e -> showConnectionDialog());
         disconnectMenuItem.setOnAction(e -> disconnect());
+        exportMenuItem.setOnAction(e -> exportResults());
+        exportColumnarMenuItem.setOnAction(e -> exportLoadedIssues());
         exitMenuItem.setOnAction(e -> handleApplicationClose());
+        flowReportsMenuItem.setOnAction(e -> showFlowReports());
+        statusHistoryMenuItem.setOnAction(e -> loadStatusHistory());
+        diagnosticsMenuItem.setOnAction(e -> showDiagnosticsDialog());
         aboutMenuItem.setOnAction(e -> showAboutDialog());
     }
     
@@ -132,6 +235,7 @@ public class MainController implements Initializable {
     private void setupSearchActions() {
         quickSearchButton.setOnAction(e -> performQuickSearch());
         jqlSearchButton.setOnAction(e -> performJqlSearch());
+        loadMoreButton.setOnAction(e -> loadMoreResults());
         
         // Enable search on Enter key
         quickSearchField.setOnAction(e -> performQuickSearch());
@@ -146,22 +250,149 @@ public class MainController implements Initializable {
      * Setup issue list view
      */
     private void setupIssueListView() {
+        issueListView.setItems(sortedIssues);
         issueListView.setCellFactory(listView -> new IssueListCell());
+        setupIssueTableView();
+        
+        viewModeComboBox.getItems().setAll(IssueListMode.values());
+        viewModeComboBox.getSelectionModel().select(IssueListMode.COMFORTABLE);
+        viewModeComboBox.valueProperty().addListener((observable, oldValue, newValue) -> applyListMode(oldValue, newValue));
+        
+        sortComboBox.getItems().setAll(IssueSortOrder.values());
+        sortComboBox.getSelectionModel().select(IssueSortOrder.SERVER);
+        sortComboBox.valueProperty().addListener((observable, oldValue, newValue) -> updateSortOrder());
+        sortDirectionButton.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            sortDirectionButton.setText(newValue ? "↑" : "↓");
+            updateSortOrder();
+        });
+        
+        listFilterField.textProperty().addListener((observable, oldValue, newValue) -> updateFilterPredicate());
         issueListView.getSelectionModel().selectedItemProperty().addListener(
-                (observable, oldValue, newValue) -> displayIssueDetails(newValue));
+                (observable, oldValue, newValue) -> onIssueSelected(false, oldValue, newValue));
+    }
+    
+    /**
+     * Setup the table view used for the table display mode
+     */
+    private void setupIssueTableView() {
+        issueTableView.setItems(sortedIssues);
+        issueTableView.setFixedCellSize(IssueListCell.COMPACT_CELL_HEIGHT);
+        issueTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        
+        // Columns sort on the same precomputed keys as the sort selector, ascending first
+        issueTableView.getColumns().setAll(List.of(
+                createColumn("Key", 90, JiraIssue::getKey, IssueSortOrder.KEY.getComparator(false)),
+                createColumn("Summary", 320, JiraIssue::getSummary,
+                        Comparator.comparing(JiraIssue::getSummary, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+                createColumn("Status", 110, issue -> issue.getStatus().getName(),
+                        IssueSortOrder.STATUS_CATEGORY.getComparator(false)),
+                createColumn("Priority", 80, issue -> issue.getPriority().getName(),
+                        IssueSortOrder.PRIORITY.getComparator(true)),
+                createColumn("Assignee", 130, JiraIssue::getAssigneeDisplayName,
+                        IssueSortOrder.ASSIGNEE.getComparator(false)),
+                createColumn("Updated", 130, JiraIssue::getUpdatedDisplay,
+                        IssueSortOrder.UPDATED.getComparator(true)),
+                createColumn("Created", 130, JiraIssue::getCreatedDisplay,
+                        IssueSortOrder.CREATED.getComparator(true))));
+        
+        issueTableView.getSelectionModel().selectedItemProperty().addListener(
+                (observable, oldValue, newValue) -> onIssueSelected(true, oldValue, newValue));
+    }
+    
+    /**
+     * Create a table column whose cells render text from the issue and sort with the given comparator
+     */
+    private TableColumn<JiraIssue, JiraIssue> createColumn(String title, double width,
+                                                           Function<JiraIssue, String> text,
+                                                           Comparator<JiraIssue> comparator) {
+        TableColumn<JiraIssue, JiraIssue> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(features -> new ReadOnlyObjectWrapper<>(features.getValue()));
+        column.setComparator(comparator);
+        column.setCellFactory(tableColumn -> new TableCell<JiraIssue, JiraIssue>() {
+            @Override
+            protected void updateItem(JiraIssue issue, boolean empty) {
+                super.updateItem(issue, empty);
+                setText(empty || issue == null ? null : text.apply(issue));
+            }
+        });
+        return column;
+    }
+    
+    /**
+     * Handle a selection change in the list or table, ignoring the hidden one
+     */
+    private void onIssueSelected(boolean fromTable, JiraIssue oldValue, JiraIssue newValue) {
+        if (fromTable != isTableMode()) {
+            return;
+        }
+        
+        // A refresh that re-selects the same revision of an issue needs no re-render
+        if (oldValue == null || newValue == null || !IssueListDiff.isSameRevision(oldValue, newValue)) {
+            displayIssueDetails(newValue);
+        }
+    }
+    
+    /**
+     * Switch between the comfortable list, the fixed-height compact list and the table
+     */
+    private void applyListMode(IssueListMode previousMode, IssueListMode mode) {
+        JiraIssue selected = previousMode == IssueListMode.TABLE
+                ? issueTableView.getSelectionModel().getSelectedItem()
+                : issueListView.getSelectionModel().getSelectedItem();
+        boolean table = mode == IssueListMode.TABLE;
+        
+        if (table) {
+            sortedIssues.comparatorProperty().bind(issueTableView.comparatorProperty());
+        } else {
+            sortedIssues.comparatorProperty().unbind();
+            updateSortOrder();
+            
+            boolean compact = mode == IssueListMode.COMPACT;
+            // Compact rows have a fixed height plus the 1px cell border
+            issueListView.setFixedCellSize(compact ? IssueListCell.COMPACT_CELL_HEIGHT + 1 : Region.USE_COMPUTED_SIZE);
+            issueListView.setCellFactory(listView -> new IssueListCell(compact));
+        }
+        
+        issueTableView.setVisible(table);
+        issueTableView.setManaged(table);
+        issueListView.setVisible(!table);
+        issueListView.setManaged(!table);
+        sortComboBox.setDisable(table);
+        sortDirectionButton.setDisable(table);
+        
+        if (selected != null) {
+            getActiveSelectionModel().select(selected);
+        }
+    }
+    
+    private boolean isTableMode() {
+        return viewModeComboBox.getValue() == IssueListMode.TABLE;
+    }
+    
+    private SelectionModel<JiraIssue> getActiveSelectionModel() {
+        return isTableMode() ? issueTableView.getSelectionModel() : issueListView.getSelectionModel();
     }
 
     /**
-     * Setup issue details view
+     * Get the issue details view, loading it on first use so startup does not pay for
+     * issue-details.fxml and its controls before an issue is selected
+     *
+     * @return the controller, or null if the view could not be loaded
      */
-    private void setupIssueDetailsView() {
-        try {
-            issueDetailsController = IssueDetailsController.create();
-            issueDetailsScrollPane.setContent(issueDetailsController.getRootContainer());
-        } catch (Exception e) {
-            logger.error("Failed to setup issue details view", e);
-            AlertUtils.showError("Initialization Error", "Failed to setup issue details view: " + e.getMessage());
+    private IssueDetailsController getIssueDetailsController() {
+        if (issueDetailsController == null) {
+            try {
+                long startNanos = System.nanoTime();
+                issueDetailsController = IssueDetailsController.create();
+                issueDetailsScrollPane.setContent(issueDetailsController.getRootContainer());
+                MetricsRegistry.getInstance().timer("details.load").recordSince(startNanos);
+            } catch (Exception e) {
+                logger.error("Failed to setup issue details view", e);
+                AlertUtils.showError("Initialization Error", "Failed to setup issue details view: " + e.getMessage());
+            }
         }
+        return issueDetailsController;
     }
     
     /**
@@ -181,29 +412,84 @@ public class MainController implements Initializable {
         }
     }
     
+    /**
+     * Connect to every site with remembered credentials without showing the dialog
+     */
+    private void reconnectRememberedCredentials() {
+        Task<List<JiraCredentials>> lookupTask = new Task<List<JiraCredentials>>() {
+            @Override
+            protected List<JiraCredentials> call() {
+                // Opening the storage reads the database, so keep it off the FX thread
+                return StorageService.getInstance().getRememberedCredentials();
+            }
+        };
+        
+        lookupTask.setOnSucceeded(e -> {
+            for (JiraCredentials remembered : lookupTask.getValue()) {
+                if (connections.getConnection(remembered.getDomain()) == null) {
+                    logger.info("Reconnecting to {} with remembered credentials", remembered.getDomain());
+                    connectToJira(remembered, false);
+                }
+            }
+        });
+        
+        lookupTask.setOnFailed(e -> logger.error("Failed to look up remembered credentials", lookupTask.getException()));
+        
+        Thread thread = new Thread(lookupTask, "storage-open");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
     /**
      * Connect to Jira with provided credentials
      */
     private void connectToJira(JiraCredentials credentials) {
-        setStatus("Testing connection...", true);
+        connectToJira(credentials, true);
+    }
+    
+    /**
+     * Connect to Jira, confirming success with a dialog only when the user asked to connect
+     */
+    private void connectToJira(JiraCredentials credentials, boolean announce) {
+        setStatus("Testing connection to " + credentials.getDomain() + "...", true);
         
-        Task<Boolean> connectionTask = new Task<Boolean>() {
+        Task<JiraConnection> connectionTask = new Task<JiraConnection>() {
             @Override
-            protected Boolean call() throws Exception {
-                return jiraApiService.testConnection(credentials).get();
+            protected JiraConnection call() throws Exception {
+                // Storage is opened and written here rather than in the success handler on the FX thread
+                StorageService storageService = StorageService.getInstance();
+                JiraConnection connection = connections.connect(credentials).get();
+                if (connection != null) {
+                    boolean stored = credentials.getId() != null
+                            && storageService.getUserById(credentials.getUserId()) != null;
+                    if (!stored) {
+                        // Create or reuse the user and save the credentials for this site
+                        User user = storageService.createUser(credentials.getEmail(), "temp");
+                        storageService.saveJiraCredentials(user.getId(), credentials);
+                    }
+                }
+                return connection;
             }
         };
         
         connectionTask.setOnSucceeded(e -> {
-            boolean success = connectionTask.getValue();
-            if (success) {
-                // Create user and save credentials
-                currentUser = storageService.createUser(credentials.getEmail(), "temp");
-                currentCredentials = storageService.saveJiraCredentials(currentUser.getId(), credentials);
-                
+            JiraConnection connection = connectionTask.getValue();
+            if (connection != null) {
                 updateConnectionState(true);
+                if (connection.isOffline()) {
+                    // The offline probe brings the site online and revalidates the restored session then
+                    setStatus(credentials.getDomain() + " is offline; it will connect when the site is back", false);
+                    if (announce) {
+                        AlertUtils.showWarning("Site Offline", credentials.getDomain() + " could not be reached. "
+                                + "It will connect automatically once the site is back.");
+                    }
+                    return;
+                }
                 setStatus("Connected to " + credentials.getDomain(), false);
-                AlertUtils.showInfo("Connection Successful", "Successfully connected to " + credentials.getDomain());
+                revalidateRestoredSession(credentials);
+                if (announce) {
+                    AlertUtils.showInfo("Connection Successful", "Successfully connected to " + credentials.getDomain());
+                }
             } else {
                 setStatus("Connection failed", false);
                 AlertUtils.showError("Connection Failed", "Failed to connect to Jira. Please check your credentials.");
@@ -221,54 +507,168 @@ public class MainController implements Initializable {
     }
     
     /**
-     * Disconnect from Jira
+     * Disconnect from Jira, asking which site to leave when several are connected
      */
     private void disconnect() {
-        if (currentUser != null) {
-            storageService.deleteJiraCredentials(currentUser.getId());
+        List<String> domains = connections.getDomains();
+        if (domains.size() <= 1) {
+            disconnect(domains);
+            return;
         }
         
-        currentUser = null;
-        currentCredentials = null;
+        List<String> choices = new ArrayList<>();
+        choices.add(ALL_SITES);
+        choices.addAll(domains);
         
-        updateConnectionState(false);
-        clearResults();
-        setStatus("Disconnected", false);
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(ALL_SITES, choices);
+        dialog.setTitle("Disconnect");
+        dialog.setHeaderText("Disconnect from which site?");
+        dialog.setContentText("Site:");
+        dialog.showAndWait().ifPresent(choice -> disconnect(ALL_SITES.equals(choice) ? domains : List.of(choice)));
     }
     
     /**
-     * Update UI based on connection state
+     * Disconnect from sites and forget their credentials
      */
-    private void updateConnectionState(boolean connected) {
-        Platform.runLater(() -> {
-            // Menu items
-            connectMenuItem.setDisable(connected);
-            disconnectMenuItem.setDisable(!connected);
-            
-            // Toolbar
-            connectButton.setDisable(connected);
-            connectionStatusLabel.setText(connected ? "Connected" : "Not Connected");
-            connectionStatusLabel.getStyleClass().clear();
-            connectionStatusLabel.getStyleClass().add(connected ? "status-connected" : "status-disconnected");
-            
-            // Main content
-            welcomePane.setVisible(!connected);
-            welcomePane.setManaged(!connected);
-            mainContentPane.setVisible(connected);
-            mainContentPane.setManaged(connected);
+    private void disconnect(List<String> domains) {
+        StorageService storageService = StorageService.getInstance();
+        for (String domain : domains) {
+            JiraConnection connection = connections.disconnect(domain);
+            if (connection != null && connection.getCredentials().getUserId() != null) {
+                storageService.deleteJiraCredentials(connection.getCredentials().getUserId(), domain);
+            }
+        }
+        
+        if (!connections.isConnected()) {
+            restoredSession = null;
+            sessionStore.delete();
             
-            if (connected && currentCredentials != null) {
-                connectedDomainLabel.setText("Connected to " + currentCredentials.getDomain());
+            updateConnectionState(false);
+            clearResults();
+            setStatus("Disconnected", false);
+            return;
+        }
+        
+        // Keep the results of the sites that are still connected
+        if (currentQuery != null) {
+            Set<String> gone = new HashSet<>();
+            domains.forEach(domain -> gone.add(domain.toLowerCase(Locale.ROOT)));
+            List<JiraIssue> remaining = allIssues.stream()
+                    .filter(issue -> issue.getSite() == null || !gone.contains(issue.getSite().toLowerCase(Locale.ROOT)))
+                    .toList();
+            displaySearchResults(remaining, new JiraSearchResult(remaining, remaining.size(), 0, remaining.size()).getSummary(),
+                    currentQuery);
+            if (currentPagingDomain != null && gone.contains(currentPagingDomain.toLowerCase(Locale.ROOT))) {
+                updatePaging(null, null, null);
             }
+        }
+        
+        updateConnectionState(true);
+        setStatus("Disconnected from " + String.join(", ", domains), false);
+    }
+    
+    /**
+     * Update UI based on connection state
+     */
+    private void updateConnectionState(boolean connected) {
+        uiUpdates.submit(UiTarget.CONNECTION, () -> applyConnectionState(connected));
+    }
+    
+    /**
+     * Show the restored results read-only until the user reconnects
+     */
+    private void showRestoredSession(SessionSnapshot snapshot) {
+        String savedAt = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT)
+                .format(LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshot.getSavedAtMillis()), ZoneId.systemDefault()));
+        
+        uiUpdates.submit(UiTarget.CONNECTION, () -> {
+            applyConnectionState(false);
             
-            // Search controls
-            quickSearchField.setDisable(!connected);
-            quickSearchButton.setDisable(!connected);
-            jqlQueryArea.setDisable(!connected);
-            jqlSearchButton.setDisable(!connected);
+            welcomePane.setVisible(false);
+            welcomePane.setManaged(false);
+            mainContentPane.setVisible(true);
+            mainContentPane.setManaged(true);
+            connectedDomainLabel.setText("Results from " + String.join(", ", snapshot.getDomains()) + " saved " + savedAt
+                    + " - connect to refresh");
         });
     }
     
+    /**
+     * Apply the connection state to menus, toolbar and search controls; runs on the FX thread
+     */
+    private void applyConnectionState(boolean connected) {
+        // Menu items; further sites can be connected at any time
+        disconnectMenuItem.setDisable(!connected);
+        updateBulkTaskMenus(connected);
+        
+        // Toolbar
+        int siteCount = connections.size();
+        connectionStatusLabel.setText(!connected ? "Not Connected"
+                : siteCount > 1 ? "Connected (" + siteCount + " sites)" : "Connected");
+        connectionStatusLabel.getStyleClass().clear();
+        connectionStatusLabel.getStyleClass().add(connected ? "status-connected" : "status-disconnected");
+        
+        // Main content
+        welcomePane.setVisible(!connected);
+        welcomePane.setManaged(!connected);
+        mainContentPane.setVisible(connected);
+        mainContentPane.setManaged(connected);
+        
+        if (connected && siteCount > 0) {
+            List<String> sites = connections.getConnections().stream().map(this::describeConnection).toList();
+            connectedDomainLabel.setText("Connected to " + String.join(", ", sites));
+        }
+        
+        // Search controls
+        quickSearchField.setDisable(!connected);
+        quickSearchButton.setDisable(!connected);
+        jqlQueryArea.setDisable(!connected);
+        jqlSearchButton.setDisable(!connected);
+    }
+    
+    /**
+     * Describe a connection by its site and the account it is signed in as
+     */
+    private String describeConnection(JiraConnection connection) {
+        JiraAccount account = connection.getAccount();
+        String site = account != null && account.getDisplayName() != null
+                ? connection.getDomain() + " as " + account.getDisplayName()
+                : connection.getDomain();
+        return switch (connection.getHealth()) {
+            case HEALTHY -> site;
+            case UNREACHABLE -> site + " (offline)";
+            case UNAUTHORIZED -> site + " (credentials expired)";
+        };
+    }
+    
+    /**
+     * Report a connection whose background health probe or last request changed its health;
+     * called off the FX thread
+     */
+    private void onConnectionHealthChanged(JiraConnection connection, JiraConnection.Health health) {
+        updateConnectionState(connections.isConnected());
+        switch (health) {
+            case HEALTHY -> {
+                setStatus("Connection to " + connection.getDomain() + " restored", false);
+                // The site replayed its queued refreshes; show fresh results in place of cached ones
+                Platform.runLater(() -> {
+                    if (restoredSession != null) {
+                        revalidateRestoredSession(connection.getCredentials());
+                    } else if (showingStaleResults && currentQuery != null && connections.getOfflineDomains().isEmpty()) {
+                        rerunQuery(currentQuery);
+                    }
+                });
+            }
+            case UNREACHABLE -> setStatus(connection.getDomain() + " is offline; showing cached data", false);
+            case UNAUTHORIZED -> {
+                setStatus("Credentials for " + connection.getDomain() + " have expired", false);
+                Platform.runLater(() -> AlertUtils.showWarning("Credentials Expired",
+                        "The credentials for " + connection.getDomain() + " are no longer accepted. "
+                                + "Please connect to the site again with a new API token."));
+            }
+        }
+    }
+    
     /**
      * Perform quick search by issue key
      */
@@ -279,28 +679,40 @@ public class MainController implements Initializable {
             return;
         }
         
-        if (currentCredentials == null) {
+        if (!connections.isConnected()) {
             AlertUtils.showError("Connection Error", "Not connected to Jira");
             return;
         }
         
         setStatus("Searching for issue " + issueKey + "...", true);
         
-        Task<JiraIssue> searchTask = new Task<JiraIssue>() {
+        Task<List<JiraIssue>> searchTask = new Task<List<JiraIssue>>() {
             @Override
-            protected JiraIssue call() throws Exception {
-                return jiraApiService.getIssueByKey(issueKey, currentCredentials).get();
+            protected List<JiraIssue> call() throws Exception {
+                return connections.findIssue(issueKey).get();
             }
         };
         
         searchTask.setOnSucceeded(e -> {
-            JiraIssue issue = searchTask.getValue();
-            displaySearchResults(List.of(issue), "1 issue found");
-            setStatus("Search completed", false);
+            List<JiraIssue> issues = searchTask.getValue();
+            String summary = issues.size() == 1 ? "1 issue found" : issues.size() + " issues found on different sites";
+            List<String> offline = connections.getOfflineDomains();
+            showingStaleResults = !offline.isEmpty();
+            if (showingStaleResults) {
+                summary += " (offline - cached)";
+            }
+            displaySearchResults(issues, summary, "key:" + issueKey);
+            updatePaging(null, null, null);
+            setStatus(showingStaleResults ? "Offline: showing cached data for " + String.join(", ", offline)
+                    : "Search completed", false);
         });
         
         searchTask.setOnFailed(e -> {
             Throwable exception = searchTask.getException();
+            if (isOfflineFailure(exception)) {
+                setStatus("Offline: " + issueKey + " is not cached and will be fetched when the site is back", false);
+                return;
+            }
             logger.error("Quick search failed", exception);
             setStatus("Search failed", false);
             AlertUtils.showError("Search Failed", "Failed to find issue: " + exception.getMessage());
@@ -319,28 +731,45 @@ public class MainController implements Initializable {
             return;
         }
         
-        if (currentCredentials == null) {
+        List<JiraConnection> targets = connections.getConnections();
+        if (targets.isEmpty()) {
             AlertUtils.showError("Connection Error", "Not connected to Jira");
             return;
         }
         
-        setStatus("Executing JQL query...", true);
+        // A single site is paged; several sites are searched in parallel for their first page
+        JiraConnection pagedConnection = targets.size() == 1 ? targets.get(0) : null;
+        setStatus(pagedConnection != null ? "Executing JQL query..."
+                : "Executing JQL query on " + targets.size() + " sites...", true);
         
         Task<JiraSearchResult> searchTask = new Task<JiraSearchResult>() {
             @Override
             protected JiraSearchResult call() throws Exception {
-                return jiraApiService.searchIssues(jql, currentCredentials).get();
+                if (pagedConnection != null) {
+                    return pagedConnection.search(jql, 0, JiraApiService.DEFAULT_PAGE_SIZE).get();
+                }
+                return connections.searchAll(jql, JiraApiService.DEFAULT_PAGE_SIZE).get();
             }
         };
         
         searchTask.setOnSucceeded(e -> {
             JiraSearchResult result = searchTask.getValue();
-            displaySearchResults(result.getIssues(), result.getSummary());
-            setStatus("Search completed", false);
+            showingStaleResults = result.isStale();
+            displaySearchResults(result.getIssues(), result.getSummary(), "jql:" + jql);
+            if (pagedConnection != null && !result.isStale()) {
+                updatePaging(pagedConnection.getDomain(), jql, result);
+            } else {
+                updatePaging(null, null, null);
+            }
+            setStatus(result.isStale() ? "Offline: showing cached results" : "Search completed", false);
         });
         
         searchTask.setOnFailed(e -> {
             Throwable exception = searchTask.getException();
+            if (isOfflineFailure(exception)) {
+                setStatus("Offline: this query is not cached and will run when the site is back", false);
+                return;
+            }
             logger.error("JQL search failed", exception);
             setStatus("Search failed", false);
             AlertUtils.showError("Search Failed", "Failed to execute JQL query: " + exception.getMessage());
@@ -350,27 +779,139 @@ public class MainController implements Initializable {
     }
     
     /**
-     * Display search results
+     * Check whether a request failed only because its site is offline and nothing was cached
+     */
+    private static boolean isOfflineFailure(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SiteOfflineException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Fetch the next page of the current JQL search and append it to the results
+     */
+    private void loadMoreResults() {
+        JiraConnection connection = currentPagingDomain != null ? connections.getConnection(currentPagingDomain) : null;
+        if (currentJql == null || connection == null) {
+            return;
+        }
+        
+        String jql = currentJql;
+        int startAt = nextStartAt;
+        loadMoreButton.setDisable(true);
+        setStatus("Loading more results...", true);
+        
+        Task<JiraSearchResult> pageTask = new Task<JiraSearchResult>() {
+            @Override
+            protected JiraSearchResult call() throws Exception {
+                return connection.search(jql, startAt, JiraApiService.DEFAULT_PAGE_SIZE).get();
+            }
+        };
+        
+        pageTask.setOnSucceeded(e -> {
+            JiraSearchResult result = pageTask.getValue();
+            appendSearchResults(result.getIssues(), result.getTotal());
+            updatePaging(connection.getDomain(), jql, result);
+            setStatus("Search completed", false);
+        });
+        
+        pageTask.setOnFailed(e -> {
+            Throwable exception = pageTask.getException();
+            loadMoreButton.setDisable(false);
+            if (isOfflineFailure(exception)) {
+                setStatus("Offline: more results will be available when the site is back", false);
+                return;
+            }
+            logger.error("Loading more results failed", exception);
+            setStatus("Search failed", false);
+            AlertUtils.showError("Search Failed", "Failed to load more results: " + exception.getMessage());
+        });
+        
+        new Thread(pageTask).start();
+    }
+    
+    /**
+     * Remember paging state and show the load-more button while pages remain
+     */
+    private void updatePaging(String domain, String jql, JiraSearchResult result) {
+        uiUpdates.submit(UiTarget.PAGING, () -> {
+            boolean hasMore = result != null && result.hasMoreResults();
+            currentJql = hasMore ? jql : null;
+            currentPagingDomain = hasMore ? domain : null;
+            nextStartAt = hasMore ? result.getStartAt() + result.getIssueCount() : 0;
+            loadMoreButton.setDisable(false);
+            loadMoreButton.setVisible(hasMore);
+            loadMoreButton.setManaged(hasMore);
+        });
+    }
+    
+    /**
+     * Display search results, diffing them into the current list so unchanged rows,
+     * the selection and the scroll position survive a refresh of the same query. A refresh
+     * holds the first page again, so rows added with "Load more" are dropped along with
+     * the paging position.
      */
-    private void displaySearchResults(List<JiraIssue> issues, String summary) {
-        Platform.runLater(() -> {
-            resultsLabel.setText(summary);
-            issueListView.getItems().clear();
-            issueListView.getItems().addAll(issues);
+    private void displaySearchResults(List<JiraIssue> issues, String summary, String query) {
+        uiUpdates.submit(UiTarget.RESULTS, () -> {
+            boolean refresh = query.equals(currentQuery);
+            JiraIssue selected = getActiveSelectionModel().getSelectedItem();
+            String selectedKey = selected != null ? selected.getQualifiedKey() : null;
             
-            if (!issues.isEmpty()) {
-                issueListView.getSelectionModel().selectFirst();
-            } else {
-                displayIssueDetails(null);
+            currentQuery = query;
+            currentSummary = summary;
+            currentFacets = IssueFacets.of(issues);
+            if (!refresh) {
+                selectedFacets.clear();
+                updateFilterPredicate();
             }
+            
+            IssueListDiff diff = refresh ? IssueListDiff.apply(allIssues, issues) : IssueListDiff.replace(allIssues, issues);
+            logger.debug("Applied search results for {}: {}", query, diff);
+            
+            // Rows kept from the previous results count as hits of the row cache
+            int rebuilt = diff.getAdded() + diff.getReplaced();
+            MetricsRegistry.getInstance().recordCacheAccess("issueList.rows", issues.size() - rebuilt, rebuilt);
+            
+            updateFacetPanel();
+            updateResultsLabel();
+            restoreSelection(selectedKey);
         });
     }
     
+    /**
+     * Re-select the previously selected issue by key, or the first issue if it is gone.
+     * Details are only re-rendered when the selected issue changed.
+     */
+    private void restoreSelection(String previousKey) {
+        SelectionModel<JiraIssue> selectionModel = getActiveSelectionModel();
+        
+        if (previousKey != null) {
+            for (JiraIssue issue : sortedIssues) {
+                if (previousKey.equals(issue.getQualifiedKey())) {
+                    if (selectionModel.getSelectedItem() != issue) {
+                        selectionModel.select(issue);
+                    }
+                    return;
+                }
+            }
+        }
+        
+        if (!sortedIssues.isEmpty()) {
+            selectionModel.selectFirst();
+        } else {
+            selectionModel.clearSelection();
+            displayIssueDetails(null);
+        }
+    }
+    
     /**
      * Display issue details
      */
     private void displayIssueDetails(JiraIssue issue) {
-        Platform.runLater(() -> {
+        uiUpdates.submit(UiTarget.DETAILS, () -> {
             if (issue == null) {
                 issueDetailsLabel.setText("Select an issue to view details");
                 if (issueDetailsController != null) {
@@ -378,8 +919,9 @@ public class MainController implements Initializable {
                 }
             } else {
                 issueDetailsLabel.setText(issue.getKey() + " - " + issue.getSummary());
-                if (issueDetailsController != null) {
-                    issueDetailsController.displayIssue(issue);
+                IssueDetailsController detailsController = getIssueDetailsController();
+                if (detailsController != null) {
+                    detailsController.displayIssue(issue);
                 }
             }
         });
@@ -389,23 +931,528 @@ public class MainController implements Initializable {
      * Clear search results
      */
     private void clearResults() {
-        Platform.runLater(() -> {
-            resultsLabel.setText("No search results");
-            issueListView.getItems().clear();
+        uiUpdates.submit(UiTarget.RESULTS, () -> {
+            currentSummary = "No search results";
+            currentQuery = null;
+            currentFacets = new IssueFacets();
+            selectedFacets.clear();
+            listFilterField.clear();
+            allIssues.clear();
+            currentJql = null;
+            loadMoreButton.setVisible(false);
+            loadMoreButton.setManaged(false);
+            updateFacetPanel();
+            updateResultsLabel();
             displayIssueDetails(null);
         });
     }
     
+    /**
+     * Add a page of streamed results, updating facet counts incrementally
+     */
+    private void appendSearchResults(List<JiraIssue> page, int total) {
+        uiUpdates.submit(() -> {
+            currentFacets.addAll(page);
+            allIssues.addAll(page);
+            currentSummary = allIssues.size() >= total
+                    ? String.format("%d issue%s found", total, total == 1 ? "" : "s")
+                    : String.format("Showing %d of %d issues", allIssues.size(), total);
+            updateFacetPanel();
+            updateResultsLabel();
+        });
+    }
+    
+    /**
+     * Rebuild the facet panel from the current facet counts
+     */
+    private void updateFacetPanel() {
+        facetContainer.getChildren().clear();
+        
+        for (Facet facet : Facet.values()) {
+            List<FacetValue> values = currentFacets.getValues(facet);
+            // Sites are only worth filtering by when the results span more than one
+            if (values.isEmpty() || (facet == Facet.SITE && values.size() < 2)) {
+                continue;
+            }
+            
+            Label header = new Label(facet.getDisplayName());
+            header.getStyleClass().add("facet-header");
+            
+            FlowPane valuesPane = new FlowPane(4, 4);
+            Set<String> selected = selectedFacets.getOrDefault(facet, Set.of());
+            for (FacetValue value : values) {
+                ToggleButton button = new ToggleButton(value.toString());
+                button.getStyleClass().add("facet-button");
+                button.setSelected(selected.contains(value.getValue()));
+                button.setOnAction(e -> toggleFacet(facet, value.getValue(), button.isSelected()));
+                valuesPane.getChildren().add(button);
+            }
+            
+            facetContainer.getChildren().addAll(header, valuesPane);
+        }
+        
+        facetPane.setDisable(currentFacets.getIssueCount() == 0);
+    }
+    
+    /**
+     * Select or deselect a facet value and filter the list locally
+     */
+    private void toggleFacet(Facet facet, String value, boolean selected) {
+        Set<String> values = selectedFacets.computeIfAbsent(facet, f -> new HashSet<>());
+        if (selected) {
+            values.add(value);
+        } else {
+            values.remove(value);
+        }
+        
+        updateFilterPredicate();
+    }
+    
+    /**
+     * Combine the selected facets and the filter text into the list predicate
+     */
+    private void updateFilterPredicate() {
+        boolean anySelected = selectedFacets.values().stream().anyMatch(v -> !v.isEmpty());
+        String filterText = listFilterField.getText() != null ? listFilterField.getText().trim() : "";
+        
+        if (!anySelected && filterText.isEmpty()) {
+            filteredIssues.setPredicate(null);
+        } else {
+            filteredIssues.setPredicate(issue ->
+                    (!anySelected || IssueFacets.matches(issue, selectedFacets)) &&
+                    (filterText.isEmpty() || matchesFilterText(issue, filterText)));
+        }
+        updateResultsLabel();
+    }
+    
+    /**
+     * Check whether the issue key, summary or assignee contains the filter text;
+     * "currentUser()" matches issues assigned to the account signed in to the issue's site
+     */
+    private boolean matchesFilterText(JiraIssue issue, String filterText) {
+        if (CURRENT_USER_FILTER.equalsIgnoreCase(filterText)) {
+            return isAssignedToCurrentUser(issue);
+        }
+        return containsIgnoreCase(issue.getKey(), filterText) ||
+               containsIgnoreCase(issue.getSummary(), filterText) ||
+               containsIgnoreCase(issue.getAssigneeDisplayName(), filterText);
+    }
+    
+    private boolean isAssignedToCurrentUser(JiraIssue issue) {
+        JiraConnection connection = issue.getSite() != null ? connections.getConnection(issue.getSite()) : null;
+        JiraAccount account = connection != null ? connection.getAccount() : null;
+        return account != null && issue.getAssignee() != null
+                && account.getAccountId() != null && account.getAccountId().equals(issue.getAssignee().getAccountId());
+    }
+    
+    private static boolean containsIgnoreCase(String text, String part) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i <= text.length() - part.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Apply the selected client-side sort order
+     */
+    private void updateSortOrder() {
+        if (sortedIssues.comparatorProperty().isBound()) {
+            return;
+        }
+        IssueSortOrder order = sortComboBox.getValue() != null ? sortComboBox.getValue() : IssueSortOrder.SERVER;
+        sortedIssues.setComparator(order.getComparator(sortDirectionButton.isSelected()));
+    }
+    
+    /**
+     * Update the results label, noting when facets filter the list
+     */
+    private void updateResultsLabel() {
+        if (filteredIssues.size() == allIssues.size()) {
+            resultsLabel.setText(currentSummary);
+        } else {
+            resultsLabel.setText(String.format("%s (%d shown after filtering)", currentSummary, filteredIssues.size()));
+        }
+    }
+    
     /**
      * Set status message and progress
      */
     private void setStatus(String message, boolean showProgress) {
-        Platform.runLater(() -> {
+        uiUpdates.submit(UiTarget.STATUS, () -> {
             statusLabel.setText(message);
             progressBar.setVisible(showProgress);
         });
     }
     
+    /**
+     * Show collected metrics with options to refresh and export them to a file
+     */
+    private void showDiagnosticsDialog() {
+        TextArea reportArea = new TextArea();
+        reportArea.setEditable(false);
+        reportArea.setStyle("-fx-font-family: monospace;");
+        reportArea.setPrefSize(820, 520);
+        reportArea.setText(buildDiagnosticsReport());
+        
+        ButtonType refreshButton = new ButtonType("Refresh");
+        ButtonType exportButton = new ButtonType("Export...");
+        
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.initOwner(stage);
+        dialog.setTitle("Diagnostics");
+        dialog.setResizable(true);
+        dialog.getDialogPane().setContent(reportArea);
+        dialog.getDialogPane().getButtonTypes().addAll(refreshButton, exportButton, ButtonType.CLOSE);
+        
+        // Refresh and export keep the dialog open
+        dialog.getDialogPane().lookupButton(refreshButton).addEventFilter(ActionEvent.ACTION, e -> {
+            reportArea.setText(buildDiagnosticsReport());
+            e.consume();
+        });
+        dialog.getDialogPane().lookupButton(exportButton).addEventFilter(ActionEvent.ACTION, e -> {
+            exportDiagnostics(dialog.getDialogPane().getScene().getWindow());
+            e.consume();
+        });
+        
+        dialog.showAndWait();
+    }
+    
+    /**
+     * Build the diagnostics report: application metrics plus transport state
+     */
+    private String buildDiagnosticsReport() {
+        return MetricsRegistry.getInstance().report() + "\n" + buildTransportSection() + "\n" + stallDetector.report();
+    }
+    
+    private String buildTransportSection() {
+        StringBuilder section = new StringBuilder("Transport\n");
+        section.append(transportProfile).append('\n');
+        for (JiraConnection connection : connections.getConnections()) {
+            JiraApiService apiService = connection.getApiService();
+            section.append(connection).append('\n');
+            section.append("  ").append(apiService.getTransportStats()).append('\n');
+            section.append("  ").append(apiService.getRateLimiter(connection.getCredentials())).append('\n');
+        }
+        section.append("UI updates pending: ").append(uiUpdates.getPendingCount()).append('\n');
+        return section.toString();
+    }
+    
+    private void exportDiagnostics(Window owner) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Diagnostics");
+        fileChooser.setInitialFileName("jirainsight-diagnostics.txt");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Text files", "*.txt"));
+        
+        File file = fileChooser.showSaveDialog(owner);
+        if (file == null) {
+            return;
+        }
+        
+        try {
+            MetricsRegistry.getInstance().exportTo(file.toPath(), buildTransportSection(), stallDetector.report());
+            logger.info("Exported diagnostics to {}", file);
+        } catch (IOException e) {
+            logger.error("Failed to export diagnostics", e);
+            AlertUtils.showError("Export Failed", "Could not write diagnostics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Export every issue matching the current JQL query to a file, or cancel the running export
+     */
+    private void exportResults() {
+        if (exportTask != null) {
+            exportTask.cancel();
+            return;
+        }
+        
+        String jql = currentQuery != null && currentQuery.startsWith("jql:")
+                ? currentQuery.substring("jql:".length()) : jqlQueryArea.getText().trim();
+        List<JiraConnection> targets = connections.getConnections();
+        if (jql.isEmpty() || targets.isEmpty()) {
+            AlertUtils.showWarning("Export", "Run a JQL search to choose the issues to export");
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Results");
+        fileChooser.setInitialFileName("jira-issues.csv");
+        for (IssueExporter.Format format : IssueExporter.Format.values()) {
+            fileChooser.getExtensionFilters().add(
+                    new FileChooser.ExtensionFilter(format.getDescription(), "*." + format.getExtension()));
+        }
+        
+        File file = fileChooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        Path target = file.toPath();
+        IssueExporter.Format format = IssueExporter.Format.forFile(target);
+        
+        exportTask = new Task<Long>() {
+            @Override
+            protected Long call() throws Exception {
+                return new IssueExporter().export(targets, jql, format, target, (exported, total) -> {
+                    updateProgress(exported, Math.max(exported, total));
+                    updateMessage("Exported " + exported + " of " + total + " issues...");
+                });
+            }
+        };
+        
+        showTaskProgress(exportTask);
+        exportMenuItem.setText("Cancel Export");
+        updateBulkTaskMenus(connections.isConnected());
+        
+        exportTask.setOnSucceeded(e -> {
+            finishExport();
+            setStatus("Exported " + exportTask.getValue() + " issues to " + file.getName(), false);
+            exportTask = null;
+            updateBulkTaskMenus(connections.isConnected());
+        });
+        
+        exportTask.setOnCancelled(e -> {
+            finishExport();
+            setStatus("Export cancelled", false);
+            exportTask = null;
+            updateBulkTaskMenus(connections.isConnected());
+        });
+        
+        exportTask.setOnFailed(e -> {
+            finishExport();
+            Throwable exception = exportTask.getException();
+            logger.error("Export failed", exception);
+            setStatus("Export failed", false);
+            AlertUtils.showError("Export Failed", "Failed to export issues: " + exception.getMessage());
+            exportTask = null;
+            updateBulkTaskMenus(connections.isConnected());
+        });
+        
+        Thread thread = new Thread(exportTask, "issue-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void finishExport() {
+        hideTaskProgress();
+        exportMenuItem.setText("Export Results...");
+    }
+    
+    /**
+     * Write the loaded issues to a columnar file for analytics tools
+     */
+    private void exportLoadedIssues() {
+        if (allIssues.isEmpty()) {
+            AlertUtils.showWarning("Export", "There are no loaded issues to export");
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Loaded Issues for Analytics");
+        fileChooser.setInitialFileName("jira-issues." + ColumnarIssueFile.EXTENSION);
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Columnar issue files", "*." + ColumnarIssueFile.EXTENSION));
+        
+        File file = fileChooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        
+        List<JiraIssue> issues = new ArrayList<>(allIssues);
+        setStatus("Exporting " + issues.size() + " issues...", true);
+        
+        Task<Void> columnarTask = new Task<Void>() {
+            @Override
+            protected Void call() throws Exception {
+                ColumnarIssueFile.write(issues, file.toPath());
+                return null;
+            }
+        };
+        
+        columnarTask.setOnSucceeded(e -> setStatus("Exported " + issues.size() + " issues to " + file.getName(), false));
+        
+        columnarTask.setOnFailed(e -> {
+            Throwable exception = columnarTask.getException();
+            logger.error("Columnar export failed", exception);
+            setStatus("Export failed", false);
+            AlertUtils.showError("Export Failed", "Failed to export issues: " + exception.getMessage());
+        });
+        
+        new Thread(columnarTask, "issue-export").start();
+    }
+    
+    /**
+     * Build sprint and flow reports over the loaded issues off the FX thread and show them
+     */
+    private void showFlowReports() {
+        if (allIssues.isEmpty()) {
+            AlertUtils.showWarning("Flow Reports", "There are no loaded issues to report on");
+            return;
+        }
+        
+        List<JiraIssue> issues = new ArrayList<>(allIssues);
+        setStatus("Building reports for " + issues.size() + " issues...", true);
+        
+        Task<String> reportTask = new Task<String>() {
+            @Override
+            protected String call() {
+                FlowReport report = FlowReport.of(issues, openTransitionLog());
+                return report.statusCountsBySprint().format() + "\n"
+                        + report.weeklyThroughput().format() + "\n"
+                        + report.cycleTimeBySprint().format() + "\n"
+                        + report.agingWorkInProgress(System.currentTimeMillis()).format();
+            }
+        };
+        
+        reportTask.setOnSucceeded(e -> {
+            setStatus("Built reports for " + issues.size() + " issues", false);
+            
+            TextArea reportArea = new TextArea(reportTask.getValue());
+            reportArea.setEditable(false);
+            reportArea.setStyle("-fx-font-family: monospace;");
+            reportArea.setPrefSize(820, 520);
+            
+            Dialog<Void> dialog = new Dialog<>();
+            dialog.initOwner(stage);
+            dialog.setTitle("Flow Reports");
+            dialog.setResizable(true);
+            dialog.getDialogPane().setContent(reportArea);
+            dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+            dialog.show();
+        });
+        
+        reportTask.setOnFailed(e -> {
+            Throwable exception = reportTask.getException();
+            logger.error("Building flow reports failed", exception);
+            setStatus("Reports failed", false);
+            AlertUtils.showError("Reports Failed", "Failed to build reports: " + exception.getMessage());
+        });
+        
+        new Thread(reportTask, "flow-reports").start();
+    }
+    
+    /**
+     * Log the status history of every issue matching the current JQL query, or cancel the
+     * running load
+     */
+    private void loadStatusHistory() {
+        if (historyTask != null) {
+            historyTask.cancel();
+            return;
+        }
+        
+        String jql = currentQuery != null && currentQuery.startsWith("jql:")
+                ? currentQuery.substring("jql:".length()) : jqlQueryArea.getText().trim();
+        List<JiraConnection> targets = connections.getConnections();
+        if (jql.isEmpty() || targets.isEmpty()) {
+            AlertUtils.showWarning("Status History", "Run a JQL search to choose the issues to load history for");
+            return;
+        }
+        
+        historyTask = new Task<Long>() {
+            @Override
+            protected Long call() throws Exception {
+                TransitionLog log = openTransitionLog();
+                if (log == null) {
+                    throw new IOException("The status history log could not be opened");
+                }
+                return new ChangelogIngester().ingest(targets, jql, log, (loaded, total) -> {
+                    updateProgress(loaded, Math.max(loaded, total));
+                    updateMessage("Loaded status history of " + loaded + " of " + total + " issues...");
+                });
+            }
+        };
+        
+        showTaskProgress(historyTask);
+        statusHistoryMenuItem.setText("Cancel Loading Status History");
+        updateBulkTaskMenus(connections.isConnected());
+        
+        historyTask.setOnSucceeded(e -> {
+            finishStatusHistory();
+            setStatus("Logged " + historyTask.getValue() + " new status transitions", false);
+            historyTask = null;
+            updateBulkTaskMenus(connections.isConnected());
+        });
+        
+        historyTask.setOnCancelled(e -> {
+            finishStatusHistory();
+            setStatus("Loading status history cancelled", false);
+            historyTask = null;
+            updateBulkTaskMenus(connections.isConnected());
+        });
+        
+        historyTask.setOnFailed(e -> {
+            finishStatusHistory();
+            Throwable exception = historyTask.getException();
+            logger.error("Loading status history failed", exception);
+            setStatus("Loading status history failed", false);
+            AlertUtils.showError("Status History Failed", "Failed to load status history: " + exception.getMessage());
+            historyTask = null;
+            updateBulkTaskMenus(connections.isConnected());
+        });
+        
+        Thread thread = new Thread(historyTask, "status-history");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void finishStatusHistory() {
+        hideTaskProgress();
+        statusHistoryMenuItem.setText("Load Status History");
+    }
+    
+    /**
+     * Show a bulk task's message and progress in the status bar controls reserved for it,
+     * leaving the shared status label free for searches and connection updates
+     */
+    private void showTaskProgress(Task<Long> task) {
+        taskStatusLabel.textProperty().bind(task.messageProperty());
+        taskProgressBar.progressProperty().bind(task.progressProperty());
+        setTaskProgressVisible(true);
+    }
+    
+    private void hideTaskProgress() {
+        taskStatusLabel.textProperty().unbind();
+        taskProgressBar.progressProperty().unbind();
+        setTaskProgressVisible(false);
+    }
+    
+    private void setTaskProgressVisible(boolean visible) {
+        for (Control control : List.of(taskStatusLabel, taskProgressBar)) {
+            control.setVisible(visible);
+            control.setManaged(visible);
+        }
+    }
+    
+    /**
+     * Only one export or status history load runs at a time; the running one's menu item
+     * cancels it, and the other is disabled until it finishes
+     */
+    private void updateBulkTaskMenus(boolean connected) {
+        exportMenuItem.setDisable(exportTask == null && (!connected || historyTask != null));
+        statusHistoryMenuItem.setDisable(historyTask == null && (!connected || exportTask != null));
+    }
+    
+    /**
+     * Open the status transition log on first use; called off the FX thread
+     *
+     * @return the log, or null if it cannot be opened
+     */
+    private synchronized TransitionLog openTransitionLog() {
+        if (transitionLog == null) {
+            try {
+                transitionLog = TransitionLog.openDefault();
+            } catch (IOException e) {
+                logger.warn("Could not open the status transition log: {}", e.getMessage());
+            }
+        }
+        return transitionLog;
+    }
+    
     /**
      * Show about dialog
      */
@@ -416,16 +1463,111 @@ public class MainController implements Initializable {
                 "Built with JavaFX, OkHttp, and Jackson.");
     }
     
+    /**
+     * Paint the previous session's results from the snapshot so the window is useful
+     * before any network round trip; they are revalidated once the user reconnects
+     */
+    private void restoreSession() {
+        long startNanos = System.nanoTime();
+        SessionSnapshot snapshot = sessionStore.read();
+        if (snapshot == null || snapshot.getQuery() == null || snapshot.getIssues().isEmpty()) {
+            return;
+        }
+        
+        restoredSession = snapshot;
+        jqlQueryArea.setText(snapshot.getJqlText() != null ? snapshot.getJqlText() : "");
+        quickSearchField.setText(snapshot.getQuickSearchText() != null ? snapshot.getQuickSearchText() : "");
+        
+        displaySearchResults(snapshot.getIssues(), snapshot.getSummary(), snapshot.getQuery());
+        uiUpdates.submit(() -> restoreSelection(snapshot.getSelectedKey()));
+        showRestoredSession(snapshot);
+        setStatus("Restored " + snapshot.getIssues().size() + " issues from last session", false);
+        
+        MetricsRegistry.getInstance().timer("startup.sessionRestore").recordSince(startNanos);
+        logger.info("Restored session snapshot for {} with {} issues", snapshot.getDomains(), snapshot.getIssues().size());
+    }
+    
+    /**
+     * Re-run the restored query each time one of its sites comes online, so the results
+     * fill in as the sites come back, or drop the restored results if the user
+     * connected somewhere else
+     */
+    private void revalidateRestoredSession(JiraCredentials credentials) {
+        SessionSnapshot snapshot = restoredSession;
+        if (snapshot == null) {
+            return;
+        }
+        
+        if (snapshot.getDomains().stream().noneMatch(domain -> domain.equalsIgnoreCase(credentials.getDomain()))) {
+            restoredSession = null;
+            clearResults();
+            return;
+        }
+        
+        // A site connected while offline still counts as missing until its probe gets through
+        if (snapshot.getDomains().stream().allMatch(domain -> {
+            JiraConnection connection = connections.getConnection(domain);
+            return connection != null && !connection.isOffline();
+        })) {
+            restoredSession = null;
+        }
+        
+        rerunQuery(snapshot.getQuery());
+    }
+    
+    /**
+     * Run a "jql:" or "key:" query again as if the user had searched for it
+     */
+    private void rerunQuery(String query) {
+        if (query.startsWith("jql:")) {
+            jqlQueryArea.setText(query.substring("jql:".length()));
+            performJqlSearch();
+        } else if (query.startsWith("key:")) {
+            quickSearchField.setText(query.substring("key:".length()));
+            performQuickSearch();
+        }
+    }
+    
+    /**
+     * Save the current results for the next launch; the API token is never written
+     */
+    private void saveSession() {
+        List<JiraConnection> connected = connections.getConnections();
+        if (connected.isEmpty() || currentQuery == null || allIssues.isEmpty()) {
+            return;
+        }
+        
+        JiraIssue selected = getActiveSelectionModel().getSelectedItem();
+        
+        SessionSnapshot snapshot = new SessionSnapshot();
+        snapshot.setSavedAtMillis(System.currentTimeMillis());
+        snapshot.setDomains(connections.getDomains());
+        snapshot.setEmail(connected.get(0).getCredentials().getEmail());
+        snapshot.setQuery(currentQuery);
+        snapshot.setJqlText(jqlQueryArea.getText());
+        snapshot.setQuickSearchText(quickSearchField.getText());
+        snapshot.setSummary(currentSummary);
+        snapshot.setSelectedKey(selected != null ? selected.getQualifiedKey() : null);
+        snapshot.setIssues(new ArrayList<>(allIssues));
+        
+        try {
+            sessionStore.write(snapshot);
+        } catch (IOException e) {
+            logger.warn("Failed to save session snapshot", e);
+        }
+    }
+    
     /**
      * Handle application close
      */
     public void handleApplicationClose() {
         logger.info("Handling application close");
         
-        if (currentUser != null) {
-            // Optionally save state or cleanup
-        }
+        saveSession();
+        connections.disconnectAll();
+        StorageService.shutdown();
         
+        stallDetector.stop();
         Platform.exit();
     }
 }
@@ -0,0 +1,78 @@
+package com.jirainsight.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of an issue's changelog, reduced to its status changes.
+ * <p>
+ * Positions count changelog histories, not status changes: a history may change
+ * several fields or none of them the status.
+ */
+public class IssueChangelog {
+    
+    private List<StatusChange> statusChanges = new ArrayList<>();
+    
+    // Position of the page's first history and the number of histories in it
+    private int startAt;
+    private int historyCount;
+    
+    // Total number of histories the issue has
+    private int total;
+    
+    // Default constructor
+    public IssueChangelog() {}
+    
+    // Constructor with all fields
+    public IssueChangelog(List<StatusChange> statusChanges, int startAt, int historyCount, int total) {
+        this.statusChanges = statusChanges != null ? statusChanges : new ArrayList<>();
+        this.startAt = startAt;
+        this.historyCount = historyCount;
+        this.total = total;
+    }
+    
+    public List<StatusChange> getStatusChanges() {
+        return statusChanges;
+    }
+    
+    public int getStartAt() {
+        return startAt;
+    }
+    
+    public int getHistoryCount() {
+        return historyCount;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    /**
+     * Check if this page covers the whole history; the changelog embedded in a search
+     * result is cut off for issues with long histories
+     */
+    public boolean isComplete() {
+        return startAt == 0 && historyCount >= total;
+    }
+    
+    /**
+     * Check if there are histories after this page
+     */
+    public boolean hasMore() {
+        return historyCount > 0 && startAt + historyCount < total;
+    }
+    
+    public int getNextStartAt() {
+        return startAt + historyCount;
+    }
+    
+    @Override
+    public String toString() {
+        return "IssueChangelog{" +
+                "statusChanges=" + statusChanges.size() +
+                ", startAt=" + startAt +
+                ", historyCount=" + historyCount +
+                ", total=" + total +
+                '}';
+    }
+}
@@ -1,9 +1,12 @@
 package com.jirainsight.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jirainsight.util.JiraDateUtils;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -93,6 +96,16 @@ public class IssueComments {
         @JsonProperty("created")
         private String created;
         
+        // Parsed once when created is set; the offset is kept for display
+        @JsonIgnore
+        private long createdMillis = JiraDateUtils.UNKNOWN;
+        
+        @JsonIgnore
+        private int createdOffsetSeconds;
+        
+        @JsonIgnore
+        private String createdDisplay;
+        
         // Default constructor
         public IssueComment() {}
         
@@ -100,7 +113,7 @@ public class IssueComments {
         public IssueComment(IssueUser author, String body, String created) {
             this.author = author;
             this.body = body;
-            this.created = created;
+            setCreated(created);
         }
         
         // Getters and Setters
@@ -126,6 +139,34 @@ public class IssueComments {
         
         public void setCreated(String created) {
             this.created = created;
+            OffsetDateTime dateTime = JiraDateUtils.parse(created);
+            this.createdMillis = dateTime != null ? dateTime.toInstant().toEpochMilli() : JiraDateUtils.UNKNOWN;
+            this.createdOffsetSeconds = dateTime != null ? dateTime.getOffset().getTotalSeconds() : 0;
+            this.createdDisplay = null;
+        }
+        
+        /**
+         * Get the created timestamp as epoch milliseconds, or {@link JiraDateUtils#UNKNOWN}
+         */
+        public long getCreatedMillis() {
+            return createdMillis;
+        }
+        
+        /**
+         * Get the UTC offset the created timestamp was reported in
+         */
+        public int getCreatedOffsetSeconds() {
+            return createdOffsetSeconds;
+        }
+        
+        /**
+         * Get the created timestamp formatted for display
+         */
+        public String getCreatedDisplay() {
+            if (createdDisplay == null) {
+                createdDisplay = JiraDateUtils.formatForDisplay(created, createdMillis, createdOffsetSeconds);
+            }
+            return createdDisplay;
         }
         
         @Override
@@ -0,0 +1,203 @@
+package com.jirainsight.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Facet counts (site, status, assignee, priority, issue type and sprint) over a set of issues.
+ * Counts are accumulated in a single pass and can be merged, so large results are
+ * computed in parallel and streamed pages are added incrementally.
+ */
+public class IssueFacets {
+
+    private final Map<Facet, Map<String, int[]>> counts = new EnumMap<>(Facet.class);
+    private int issueCount;
+
+    // Default constructor
+    public IssueFacets() {
+        for (Facet facet : Facet.values()) {
+            counts.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Compute facets for the given issues in one parallel pass
+     */
+    public static IssueFacets of(Collection<JiraIssue> issues) {
+        return issues.parallelStream().collect(IssueFacets::new, IssueFacets::add, IssueFacets::merge);
+    }
+
+    /**
+     * Count a single issue
+     */
+    public void add(JiraIssue issue) {
+        if (issue == null) {
+            return;
+        }
+
+        for (Facet facet : Facet.values()) {
+            Map<String, int[]> facetCounts = counts.get(facet);
+            for (String value : facet.valuesOf(issue)) {
+                facetCounts.computeIfAbsent(value, v -> new int[1])[0]++;
+            }
+        }
+        issueCount++;
+    }
+
+    /**
+     * Count a page of issues, e.g. as result pages stream in
+     */
+    public void addAll(Collection<JiraIssue> issues) {
+        merge(of(issues));
+    }
+
+    /**
+     * Merge the counts of another facet set into this one
+     */
+    public void merge(IssueFacets other) {
+        for (Facet facet : Facet.values()) {
+            Map<String, int[]> facetCounts = counts.get(facet);
+            other.counts.get(facet).forEach((value, count) ->
+                    facetCounts.computeIfAbsent(value, v -> new int[1])[0] += count[0]);
+        }
+        issueCount += other.issueCount;
+    }
+
+    /**
+     * Get the number of issues counted
+     */
+    public int getIssueCount() {
+        return issueCount;
+    }
+
+    /**
+     * Get the count for a single facet value
+     */
+    public int getCount(Facet facet, String value) {
+        int[] count = counts.get(facet).get(value);
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * Get the values of a facet ordered by descending count, then by name
+     */
+    public List<FacetValue> getValues(Facet facet) {
+        List<FacetValue> values = new ArrayList<>();
+        counts.get(facet).forEach((value, count) -> values.add(new FacetValue(value, count[0])));
+        values.sort((a, b) -> a.getCount() != b.getCount()
+                ? Integer.compare(b.getCount(), a.getCount())
+                : a.getValue().compareTo(b.getValue()));
+        return values;
+    }
+
+    /**
+     * Check whether an issue matches the selected facet values.
+     * Values within a facet are OR-ed, different facets are AND-ed.
+     */
+    public static boolean matches(JiraIssue issue, Map<Facet, Set<String>> selection) {
+        for (Map.Entry<Facet, Set<String>> entry : selection.entrySet()) {
+            Set<String> selected = entry.getValue();
+            if (selected.isEmpty()) {
+                continue;
+            }
+
+            boolean matched = false;
+            for (String value : entry.getKey().valuesOf(issue)) {
+                if (selected.contains(value)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "IssueFacets{" +
+                "issueCount=" + issueCount +
+                '}';
+    }
+
+    /**
+     * The issue attributes that can be faceted
+     */
+    public enum Facet {
+        SITE("Site", JiraIssue::getSite),
+        STATUS("Status", issue -> issue.getStatus() != null ? issue.getStatus().getName() : null),
+        ASSIGNEE("Assignee", JiraIssue::getAssigneeDisplayName),
+        PRIORITY("Priority", issue -> issue.getPriority() != null ? issue.getPriority().getName() : null),
+        ISSUE_TYPE("Type", issue -> issue.getIssueType() != null ? issue.getIssueType().getName() : null),
+        SPRINT("Sprint", null);
+
+        private static final String NONE = "None";
+
+        private final String displayName;
+        private final Function<JiraIssue, String> extractor;
+
+        Facet(String displayName, Function<JiraIssue, String> extractor) {
+            this.displayName = displayName;
+            this.extractor = extractor;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Get the facet values of an issue; sprints may yield several values
+         */
+        public List<String> valuesOf(JiraIssue issue) {
+            if (this == SPRINT) {
+                List<IssueSprint> sprints = issue.getSprints();
+                if (sprints == null || sprints.isEmpty()) {
+                    return Collections.singletonList(issue.getSprintName());
+                }
+                List<String> names = new ArrayList<>(sprints.size());
+                for (IssueSprint sprint : sprints) {
+                    names.add(sprint.getName() != null ? sprint.getName() : NONE);
+                }
+                return names;
+            }
+
+            String value = extractor.apply(issue);
+            return Collections.singletonList(value != null && !value.isEmpty() ? value : NONE);
+        }
+    }
+
+    /**
+     * A facet value with its count
+     */
+    public static class FacetValue {
+        private final String value;
+        private final int count;
+
+        public FacetValue(String value, int count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return value + " (" + count + ")";
+        }
+    }
+}
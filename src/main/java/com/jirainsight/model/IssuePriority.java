@@ -1,5 +1,6 @@
 package com.jirainsight.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 
@@ -14,12 +15,16 @@ public class IssuePriority {
     @JsonProperty("name")
     private String name;
     
+    // Derived from the name once, as it is read for every sort comparison and cell render
+    @JsonIgnore
+    private PriorityLevel priorityLevel = PriorityLevel.NONE;
+    
     // Default constructor
     public IssuePriority() {}
     
     // Constructor with name
     public IssuePriority(String name) {
-        this.name = name;
+        setName(name);
     }
     
     // Getters and Setters
@@ -29,12 +34,20 @@ public class IssuePriority {
     
     public void setName(String name) {
         this.name = name;
+        this.priorityLevel = resolvePriorityLevel(name);
     }
     
     /**
      * Get priority level for sorting and color coding
      */
     public PriorityLevel getPriorityLevel() {
+        return priorityLevel;
+    }
+    
+    /**
+     * Map a priority name to its level
+     */
+    private static PriorityLevel resolvePriorityLevel(String name) {
         if (name == null) {
             return PriorityLevel.NONE;
         }
@@ -46,10 +59,10 @@ public class IssuePriority {
             return PriorityLevel.HIGH;
         } else if (lowerName.contains("medium") || lowerName.contains("normal")) {
             return PriorityLevel.MEDIUM;
-        } else if (lowerName.contains("low")) {
-            return PriorityLevel.LOW;
         } else if (lowerName.contains("lowest") || lowerName.contains("trivial")) {
             return PriorityLevel.LOWEST;
+        } else if (lowerName.contains("low")) {
+            return PriorityLevel.LOW;
         }
         
         return PriorityLevel.NONE;
@@ -1,5 +1,6 @@
 package com.jirainsight.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -52,6 +53,14 @@ public class IssueStatus {
         return statusCategory != null ? statusCategory.getKey() : "new";
     }
     
+    /**
+     * Get the status category type for sorting and color coding
+     */
+    @JsonIgnore
+    public CategoryType getCategoryType() {
+        return statusCategory != null ? statusCategory.getType() : CategoryType.NEW;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -83,12 +92,15 @@ public class IssueStatus {
         @JsonProperty("key")
         private String key;
         
+        @JsonIgnore
+        private CategoryType type = CategoryType.UNKNOWN;
+        
         // Default constructor
         public StatusCategory() {}
         
         // Constructor with key
         public StatusCategory(String key) {
-            this.key = key;
+            setKey(key);
         }
         
         // Getters and Setters
@@ -98,6 +110,11 @@ public class IssueStatus {
         
         public void setKey(String key) {
             this.key = key;
+            this.type = CategoryType.fromKey(key);
+        }
+        
+        public CategoryType getType() {
+            return type;
         }
         
         @Override
@@ -120,4 +137,38 @@ public class IssueStatus {
                     '}';
         }
     }
+    
+    /**
+     * Enum for Jira status category keys, ordered by workflow progress
+     */
+    public enum CategoryType {
+        NEW("new"),
+        IN_PROGRESS("indeterminate"),
+        DONE("done"),
+        UNKNOWN("undefined");
+        
+        private final String key;
+        
+        CategoryType(String key) {
+            this.key = key;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Resolve a status category key, ignoring case
+         */
+        public static CategoryType fromKey(String key) {
+            if (key != null) {
+                for (CategoryType type : values()) {
+                    if (type.key.equalsIgnoreCase(key)) {
+                        return type;
+                    }
+                }
+            }
+            return UNKNOWN;
+        }
+    }
 }
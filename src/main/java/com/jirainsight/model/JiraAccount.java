@@ -0,0 +1,104 @@
+package com.jirainsight.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * The account the credentials authenticate as, from {@code /rest/api/3/myself}
+ */
+public class JiraAccount {
+    
+    @JsonProperty("accountId")
+    private String accountId;
+    
+    @JsonProperty("displayName")
+    private String displayName;
+    
+    @JsonProperty("emailAddress")
+    private String emailAddress;
+    
+    @JsonProperty("timeZone")
+    private String timeZone;
+    
+    @JsonProperty("locale")
+    private String locale;
+    
+    @JsonProperty("active")
+    private boolean active = true;
+    
+    // Default constructor
+    public JiraAccount() {}
+    
+    // Getters and Setters
+    public String getAccountId() {
+        return accountId;
+    }
+    
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+    
+    public void setEmailAddress(String emailAddress) {
+        this.emailAddress = emailAddress;
+    }
+    
+    public String getTimeZone() {
+        return timeZone;
+    }
+    
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+    
+    public String getLocale() {
+        return locale;
+    }
+    
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        JiraAccount that = (JiraAccount) o;
+        return Objects.equals(accountId, that.accountId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId);
+    }
+    
+    @Override
+    public String toString() {
+        return "JiraAccount{" +
+                "accountId='" + accountId + '\'' +
+                ", displayName='" + displayName + '\'' +
+                ", timeZone='" + timeZone + '\'' +
+                ", locale='" + locale + '\'' +
+                '}';
+    }
+}
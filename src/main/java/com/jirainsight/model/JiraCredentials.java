@@ -1,11 +1,14 @@
 package com.jirainsight.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.Objects;
 
 /**
@@ -41,6 +44,9 @@ public class JiraCredentials {
     @JsonProperty("rememberCredentials")
     private boolean rememberCredentials = false;
     
+    // Encoded once and reset whenever the email or token changes
+    private transient volatile String authorizationHeader;
+    
     // Default constructor
     public JiraCredentials() {
         this.createdAt = LocalDateTime.now();
@@ -85,6 +91,7 @@ public class JiraCredentials {
     
     public void setEmail(String email) {
         this.email = email;
+        this.authorizationHeader = null;
     }
     
     public String getApiToken() {
@@ -93,6 +100,7 @@ public class JiraCredentials {
     
     public void setApiToken(String apiToken) {
         this.apiToken = apiToken;
+        this.authorizationHeader = null;
     }
     
     public boolean isActive() {
@@ -131,7 +139,20 @@ public class JiraCredentials {
      */
     public String getAuthenticationString() {
         String credentials = email + ":" + apiToken;
-        return java.util.Base64.getEncoder().encodeToString(credentials.getBytes());
+        return Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Get the Basic Authorization header value, encoded once per email and token
+     */
+    @JsonIgnore
+    public String getAuthorizationHeader() {
+        String header = authorizationHeader;
+        if (header == null) {
+            header = "Basic " + getAuthenticationString();
+            authorizationHeader = header;
+        }
+        return header;
     }
     
     @Override
@@ -1,10 +1,12 @@
 package com.jirainsight.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jirainsight.util.JiraDateUtils;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
-import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -54,6 +56,31 @@ public class JiraIssue {
     @JsonProperty("updated")
     private String updated;
     
+    @JsonProperty("resolutiondate")
+    private String resolved;
+    
+    // Parsed once when created/updated are set; offsets are kept for display
+    @JsonIgnore
+    private long createdMillis = JiraDateUtils.UNKNOWN;
+    
+    @JsonIgnore
+    private int createdOffsetSeconds;
+    
+    @JsonIgnore
+    private String createdDisplay;
+    
+    @JsonIgnore
+    private long updatedMillis = JiraDateUtils.UNKNOWN;
+    
+    @JsonIgnore
+    private int updatedOffsetSeconds;
+    
+    @JsonIgnore
+    private String updatedDisplay;
+    
+    @JsonIgnore
+    private long resolvedMillis = JiraDateUtils.UNKNOWN;
+    
     @JsonProperty("components")
     private List<IssueComponent> components = new ArrayList<>();
     
@@ -69,6 +96,14 @@ public class JiraIssue {
     @JsonProperty("comment")
     private IssueComments comment = new IssueComments();
     
+    // Domain of the Jira site the issue was fetched from
+    @JsonIgnore
+    private String site;
+    
+    // Status changes, only when the issue was searched with its changelog expanded
+    @JsonIgnore
+    private IssueChangelog changelog;
+    
     // Default constructor
     public JiraIssue() {}
     
@@ -151,6 +186,10 @@ public class JiraIssue {
     
     public void setCreated(String created) {
         this.created = created;
+        OffsetDateTime dateTime = JiraDateUtils.parse(created);
+        this.createdMillis = dateTime != null ? dateTime.toInstant().toEpochMilli() : JiraDateUtils.UNKNOWN;
+        this.createdOffsetSeconds = dateTime != null ? dateTime.getOffset().getTotalSeconds() : 0;
+        this.createdDisplay = null;
     }
     
     public String getUpdated() {
@@ -159,6 +198,77 @@ public class JiraIssue {
     
     public void setUpdated(String updated) {
         this.updated = updated;
+        OffsetDateTime dateTime = JiraDateUtils.parse(updated);
+        this.updatedMillis = dateTime != null ? dateTime.toInstant().toEpochMilli() : JiraDateUtils.UNKNOWN;
+        this.updatedOffsetSeconds = dateTime != null ? dateTime.getOffset().getTotalSeconds() : 0;
+        this.updatedDisplay = null;
+    }
+    
+    /**
+     * Get the created timestamp as epoch milliseconds, or {@link JiraDateUtils#UNKNOWN}
+     */
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+    
+    /**
+     * Get the UTC offset the created timestamp was reported in
+     */
+    public int getCreatedOffsetSeconds() {
+        return createdOffsetSeconds;
+    }
+    
+    /**
+     * Get the created timestamp formatted for display
+     */
+    public String getCreatedDisplay() {
+        if (createdDisplay == null) {
+            createdDisplay = JiraDateUtils.formatForDisplay(created, createdMillis, createdOffsetSeconds);
+        }
+        return createdDisplay;
+    }
+    
+    /**
+     * Get the updated timestamp as epoch milliseconds, or {@link JiraDateUtils#UNKNOWN}
+     */
+    public long getUpdatedMillis() {
+        return updatedMillis;
+    }
+    
+    /**
+     * Get the UTC offset the updated timestamp was reported in
+     */
+    public int getUpdatedOffsetSeconds() {
+        return updatedOffsetSeconds;
+    }
+    
+    /**
+     * Get the updated timestamp formatted for display
+     */
+    public String getUpdatedDisplay() {
+        if (updatedDisplay == null) {
+            updatedDisplay = JiraDateUtils.formatForDisplay(updated, updatedMillis, updatedOffsetSeconds);
+        }
+        return updatedDisplay;
+    }
+    
+    /**
+     * Get the resolution timestamp, or null if the issue is unresolved
+     */
+    public String getResolved() {
+        return resolved;
+    }
+    
+    public void setResolved(String resolved) {
+        this.resolved = resolved;
+        this.resolvedMillis = JiraDateUtils.parseEpochMillis(resolved);
+    }
+    
+    /**
+     * Get the resolution timestamp as epoch milliseconds, or {@link JiraDateUtils#UNKNOWN} if unresolved
+     */
+    public long getResolvedMillis() {
+        return resolvedMillis;
     }
     
     public List<IssueComponent> getComponents() {
@@ -211,6 +321,32 @@ public class JiraIssue {
         return "No sprint";
     }
     
+    public String getSite() {
+        return site;
+    }
+    
+    public void setSite(String site) {
+        this.site = site;
+    }
+    
+    /**
+     * Get the status changes from the expanded changelog, or null if it was not requested
+     */
+    public IssueChangelog getChangelog() {
+        return changelog;
+    }
+    
+    public void setChangelog(IssueChangelog changelog) {
+        this.changelog = changelog;
+    }
+    
+    /**
+     * Get the key qualified by site, which is unique across connected sites
+     */
+    public String getQualifiedKey() {
+        return site != null ? site + "/" + key : key;
+    }
+    
     /**
      * Get assignee display name or "Unassigned"
      */
@@ -223,12 +359,13 @@ public class JiraIssue {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         JiraIssue jiraIssue = (JiraIssue) o;
-        return Objects.equals(key, jiraIssue.key);
+        return Objects.equals(key, jiraIssue.key) &&
+               Objects.equals(site, jiraIssue.site);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(key);
+        return Objects.hash(key, site);
     }
     
     @Override
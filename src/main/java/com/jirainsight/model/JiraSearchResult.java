@@ -1,8 +1,14 @@
 package com.jirainsight.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -25,6 +31,14 @@ public class JiraSearchResult {
     @JsonProperty("maxResults")
     private int maxResults;
     
+    // Sites that could not be searched when the result was merged from several sites
+    @JsonIgnore
+    private List<String> failedSites = new ArrayList<>();
+    
+    // When the result was fetched, if it is served from cache because the site is offline; 0 if live
+    @JsonIgnore
+    private long cachedAtMillis;
+    
     // Default constructor
     public JiraSearchResult() {}
     
@@ -69,6 +83,29 @@ public class JiraSearchResult {
         this.maxResults = maxResults;
     }
     
+    public List<String> getFailedSites() {
+        return failedSites;
+    }
+    
+    public void setFailedSites(List<String> failedSites) {
+        this.failedSites = failedSites;
+    }
+    
+    public long getCachedAtMillis() {
+        return cachedAtMillis;
+    }
+    
+    public void setCachedAtMillis(long cachedAtMillis) {
+        this.cachedAtMillis = cachedAtMillis;
+    }
+    
+    /**
+     * Check if this result was served from cache while the site was offline
+     */
+    public boolean isStale() {
+        return cachedAtMillis > 0;
+    }
+    
     /**
      * Get the number of issues returned in this result
      */
@@ -103,13 +140,23 @@ public class JiraSearchResult {
      * Get a summary string of the search result
      */
     public String getSummary() {
+        String summary;
         if (isEmpty()) {
-            return "No issues found";
+            summary = "No issues found";
         } else if (total == issues.size()) {
-            return String.format("%d issue%s found", total, total == 1 ? "" : "s");
+            summary = String.format("%d issue%s found", total, total == 1 ? "" : "s");
         } else {
-            return String.format("Showing %d of %d issues", issues.size(), total);
+            summary = String.format("Showing %d of %d issues", issues.size(), total);
+        }
+        
+        if (!failedSites.isEmpty()) {
+            summary += " (unavailable: " + String.join(", ", failedSites) + ")";
+        }
+        if (isStale()) {
+            summary += " (offline - cached " + DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT)
+                    .format(LocalDateTime.ofInstant(Instant.ofEpochMilli(cachedAtMillis), ZoneId.systemDefault())) + ")";
         }
+        return summary;
     }
     
     @Override
@@ -0,0 +1,113 @@
+package com.jirainsight.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The last session's view: connection, query, results and selection.
+ * Connections are identified by domain and email only; the API token is never stored.
+ */
+public class SessionSnapshot {
+
+    private long savedAtMillis;
+    private List<String> domains = new ArrayList<>();
+    private String email;
+    private String query;
+    private String jqlText;
+    private String quickSearchText;
+    private String summary;
+    private String selectedKey;
+    private List<JiraIssue> issues = new ArrayList<>();
+
+    // Default constructor
+    public SessionSnapshot() {}
+
+    // Getters and Setters
+    public long getSavedAtMillis() {
+        return savedAtMillis;
+    }
+
+    public void setSavedAtMillis(long savedAtMillis) {
+        this.savedAtMillis = savedAtMillis;
+    }
+
+    /**
+     * Get the domains of the sites the results came from
+     */
+    public List<String> getDomains() {
+        return domains;
+    }
+
+    public void setDomains(List<String> domains) {
+        this.domains = domains != null ? domains : new ArrayList<>();
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Get the query key of the results, e.g. "jql:project = TEST" or "key:TEST-1"
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getJqlText() {
+        return jqlText;
+    }
+
+    public void setJqlText(String jqlText) {
+        this.jqlText = jqlText;
+    }
+
+    public String getQuickSearchText() {
+        return quickSearchText;
+    }
+
+    public void setQuickSearchText(String quickSearchText) {
+        this.quickSearchText = quickSearchText;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public String getSelectedKey() {
+        return selectedKey;
+    }
+
+    public void setSelectedKey(String selectedKey) {
+        this.selectedKey = selectedKey;
+    }
+
+    public List<JiraIssue> getIssues() {
+        return issues;
+    }
+
+    public void setIssues(List<JiraIssue> issues) {
+        this.issues = issues != null ? issues : new ArrayList<>();
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSnapshot{" +
+                "domains=" + domains +
+                ", query='" + query + '\'' +
+                ", issues=" + issues.size() +
+                ", selectedKey='" + selectedKey + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.jirainsight.model;
+
+import java.util.Objects;
+
+/**
+ * A change of an issue's status, taken from its changelog
+ */
+public class StatusChange {
+    
+    private final String fromStatus;
+    private final String toStatus;
+    private final long epochMillis;
+    
+    public StatusChange(String fromStatus, String toStatus, long epochMillis) {
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.epochMillis = epochMillis;
+    }
+    
+    public String getFromStatus() {
+        return fromStatus;
+    }
+    
+    public String getToStatus() {
+        return toStatus;
+    }
+    
+    /**
+     * Get when the status changed, as epoch milliseconds
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StatusChange that = (StatusChange) o;
+        return epochMillis == that.epochMillis &&
+                Objects.equals(fromStatus, that.fromStatus) &&
+                Objects.equals(toStatus, that.toStatus);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(fromStatus, toStatus, epochMillis);
+    }
+    
+    @Override
+    public String toString() {
+        return "StatusChange{" +
+                "fromStatus='" + fromStatus + '\'' +
+                ", toStatus='" + toStatus + '\'' +
+                ", epochMillis=" + epochMillis +
+                '}';
+    }
+}
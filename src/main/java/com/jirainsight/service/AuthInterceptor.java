@@ -0,0 +1,32 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraCredentials;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * OkHttp interceptor that adds the Authorization and Accept headers for the
+ * JiraCredentials a request is tagged with. The header value is encoded once per
+ * credentials and re-encoded only after the email or API token changes.
+ */
+public class AuthInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        JiraCredentials credentials = request.tag(JiraCredentials.class);
+        if (credentials == null) {
+            return chain.proceed(request);
+        }
+
+        Request.Builder builder = request.newBuilder()
+                .header("Authorization", credentials.getAuthorizationHeader());
+        if (request.header("Accept") == null) {
+            builder.header("Accept", "application/json");
+        }
+        return chain.proceed(builder.build());
+    }
+}
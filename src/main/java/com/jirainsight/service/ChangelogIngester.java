@@ -0,0 +1,124 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.IssueChangelog;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.JiraSearchResult;
+import com.jirainsight.model.StatusChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads the status history of every issue matching a JQL search into a {@link TransitionLog}.
+ * <p>
+ * Like {@link IssueExporter}, pages are fetched with a {@link SearchPager} with the next
+ * page already in flight, here searched with the changelog expanded.
+ * Issues whose embedded changelog is cut short have their whole history paged from the
+ * issue changelog endpoint, one issue at a time and at most
+ * {@value #MAX_CHANGELOG_REQUESTS} pages at once. Each page's transitions are appended to
+ * the log in one write and the page is dropped, so memory stays bounded by the page size.
+ * <p>
+ * Interrupting the loading thread cancels it; transitions already appended stay logged.
+ */
+public class ChangelogIngester {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangelogIngester.class);
+
+    // Smaller than an export page, as every issue carries its changelog
+    static final int PAGE_SIZE = 50;
+
+    // Changelog pages requested at once, so long histories do not flood the site's limiter
+    static final int MAX_CHANGELOG_REQUESTS = 4;
+
+    private static final String OPERATION = "Loading status history";
+
+    /**
+     * Told after each page is logged; the total grows as each site reports its count
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long issues, long total);
+    }
+
+    /**
+     * Log the status changes of every issue matching the JQL on each connected site
+     *
+     * @return the number of transitions appended to the log
+     * @throws InterruptedException if the loading thread was interrupted
+     */
+    public long ingest(List<JiraConnection> connections, String jql, TransitionLog log,
+                       ProgressListener listener) throws IOException, InterruptedException {
+        long startNanos = System.nanoTime();
+        long issueCount = 0;
+        long knownTotal = 0;
+        long appended = 0;
+
+        for (JiraConnection connection : connections) {
+            long previousSitesTotal = knownTotal;
+            try (SearchPager pager = new SearchPager(connection, jql, PAGE_SIZE, true, OPERATION)) {
+                JiraSearchResult page;
+                while ((page = pager.next()) != null) {
+                    appended += log.append(statusChanges(connection, page.getIssues()));
+                    issueCount += page.getIssues().size();
+                    knownTotal = previousSitesTotal + pager.getTotal();
+                    listener.onProgress(issueCount, knownTotal);
+                }
+            }
+        }
+
+        logger.info("Logged {} transitions of {} issues in {} ms ({})", appended, issueCount,
+                (System.nanoTime() - startNanos) / 1_000_000, log);
+        return appended;
+    }
+
+    /**
+     * Collect the status changes of a page of issues by qualified key, paging the
+     * changelogs that the search cut short
+     */
+    private static Map<String, List<StatusChange>> statusChanges(JiraConnection connection, List<JiraIssue> issues)
+            throws IOException, InterruptedException {
+        Map<String, List<StatusChange>> changes = new LinkedHashMap<>();
+        for (JiraIssue issue : issues) {
+            IssueChangelog changelog = issue.getChangelog();
+            if (changelog == null) {
+                continue;
+            }
+            changes.put(issue.getQualifiedKey(), changelog.isComplete()
+                    ? changelog.getStatusChanges() : fullHistory(connection, issue.getKey(), changelog.getTotal()));
+        }
+        return changes;
+    }
+
+    /**
+     * Page an issue's whole history from the changelog endpoint, a few pages at a time;
+     * the total is known, so each batch is requested together
+     */
+    private static List<StatusChange> fullHistory(JiraConnection connection, String issueKey, int total)
+            throws IOException, InterruptedException {
+        List<StatusChange> history = new ArrayList<>();
+        int batchSize = JiraApiService.CHANGELOG_PAGE_SIZE * MAX_CHANGELOG_REQUESTS;
+        for (int batchStart = 0; batchStart < total; batchStart += batchSize) {
+            List<CompletableFuture<IssueChangelog>> batch = new ArrayList<>();
+            for (int startAt = batchStart; startAt < Math.min(total, batchStart + batchSize);
+                 startAt += JiraApiService.CHANGELOG_PAGE_SIZE) {
+                batch.add(connection.getApiService().getChangelog(issueKey, startAt, connection.getCredentials()));
+            }
+
+            try {
+                for (CompletableFuture<IssueChangelog> page : batch) {
+                    history.addAll(SearchPager.await(page, connection, OPERATION).getStatusChanges());
+                }
+            } catch (IOException | InterruptedException e) {
+                batch.forEach(page -> page.cancel(true));
+                throw e;
+            }
+        }
+        return history;
+    }
+}
@@ -0,0 +1,460 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraIssue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes and reads issues in a compact, self-describing columnar file for analytics.
+ * <p>
+ * All values are little-endian and every column starts on an 8-byte boundary, so a
+ * reader can map the file and scan a column as a plain int or long array.
+ * <pre>
+ * header     int magic "JICF", short version, short column count, int row count, int reserved
+ * directory  per column: int type, int name length, long offset, long length, 40-byte UTF-8 name
+ * DICTIONARY int code[rows] (-1 for none), int dictionary size, int end offset[size], UTF-8 bytes
+ * TIMESTAMP  long epochMillis[rows] (Long.MIN_VALUE for none)
+ * STRING     int end offset[rows], UTF-8 bytes (empty for none)
+ * </pre>
+ * Status, assignee, priority and the other low-cardinality fields are dictionary-encoded,
+ * timestamps are epoch milliseconds. The file is written through a memory mapping and
+ * the magic is written last, so an interrupted write never reads as a valid file.
+ */
+public class ColumnarIssueFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarIssueFile.class);
+
+    public static final String EXTENSION = "jic";
+
+    private static final int MAGIC = 0x4A494346; // "JICF"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int NAME_SIZE = 40;
+    private static final int DIRECTORY_ENTRY_SIZE = 24 + NAME_SIZE;
+    private static final int NO_CODE = -1;
+
+    /**
+     * Column encodings; the ordinal is stored in the directory
+     */
+    public enum Type {
+        DICTIONARY,
+        TIMESTAMP,
+        STRING
+    }
+
+    /**
+     * The columns written for each issue
+     */
+    public enum Column {
+        SITE("site", Type.DICTIONARY, JiraIssue::getSite),
+        KEY("key", Type.STRING, JiraIssue::getKey),
+        SUMMARY("summary", Type.STRING, JiraIssue::getSummary),
+        STATUS("status", Type.DICTIONARY, issue -> issue.getStatus() != null ? issue.getStatus().getName() : null),
+        STATUS_CATEGORY("statusCategory", Type.DICTIONARY, issue -> issue.getStatus() != null
+                && issue.getStatus().getStatusCategory() != null ? issue.getStatus().getStatusCategory().getKey() : null),
+        ISSUE_TYPE("type", Type.DICTIONARY, issue -> issue.getIssueType() != null ? issue.getIssueType().getName() : null),
+        PRIORITY("priority", Type.DICTIONARY, issue -> issue.getPriority() != null ? issue.getPriority().getName() : null),
+        ASSIGNEE("assignee", Type.DICTIONARY,
+                issue -> issue.getAssignee() != null ? issue.getAssignee().getDisplayName() : null),
+        ASSIGNEE_ID("assigneeId", Type.DICTIONARY,
+                issue -> issue.getAssignee() != null ? issue.getAssignee().getAccountId() : null),
+        PROJECT("project", Type.DICTIONARY, issue -> issue.getProject() != null ? issue.getProject().getKey() : null),
+        SPRINT("sprint", Type.DICTIONARY,
+                issue -> issue.getSprints() != null && !issue.getSprints().isEmpty() ? issue.getSprintName() : null),
+        CREATED("created", JiraIssue::getCreatedMillis),
+        UPDATED("updated", JiraIssue::getUpdatedMillis),
+        RESOLVED("resolved", JiraIssue::getResolvedMillis);
+
+        private final String columnName;
+        private final Type type;
+        private final Function<JiraIssue, String> text;
+        private final ToLongFunction<JiraIssue> timestamp;
+
+        Column(String columnName, Type type, Function<JiraIssue, String> text) {
+            this.columnName = columnName;
+            this.type = type;
+            this.text = text;
+            this.timestamp = null;
+        }
+
+        Column(String columnName, ToLongFunction<JiraIssue> timestamp) {
+            this.columnName = columnName;
+            this.type = Type.TIMESTAMP;
+            this.text = null;
+            this.timestamp = timestamp;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public Type getType() {
+            return type;
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    // Column name -> directory entry, in file order
+    private final Map<String, Entry> entries;
+
+    private ColumnarIssueFile(ByteBuffer buffer, int rowCount, Map<String, Entry> entries) {
+        this.buffer = buffer;
+        this.rowCount = rowCount;
+        this.entries = entries;
+    }
+
+    /**
+     * Write issues to a file, replacing it
+     */
+    public static void write(List<JiraIssue> issues, Path file) throws IOException {
+        long startNanos = System.nanoTime();
+        Column[] columns = Column.values();
+        EncodedColumn[] encoded = new EncodedColumn[columns.length];
+        long offset = align(HEADER_SIZE + (long) DIRECTORY_ENTRY_SIZE * columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            encoded[i] = encode(columns[i], issues);
+            encoded[i].offset = offset;
+            offset = align(offset + encoded[i].length());
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Too many issues for one columnar file (" + offset + " bytes)");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, offset);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            mapped.position(HEADER_SIZE);
+            for (int i = 0; i < columns.length; i++) {
+                byte[] name = columns[i].columnName.getBytes(StandardCharsets.UTF_8);
+                mapped.putInt(columns[i].type.ordinal());
+                mapped.putInt(name.length);
+                mapped.putLong(encoded[i].offset);
+                mapped.putLong(encoded[i].length());
+                mapped.put(Arrays.copyOf(name, NAME_SIZE));
+            }
+            for (EncodedColumn column : encoded) {
+                mapped.position((int) column.offset);
+                column.writeTo(mapped);
+            }
+
+            // The magic goes in last so a partly written file is never taken for a complete one
+            mapped.putShort(4, VERSION);
+            mapped.putShort(6, (short) columns.length);
+            mapped.putInt(8, issues.size());
+            mapped.putInt(12, 0);
+            mapped.force();
+            mapped.putInt(0, MAGIC);
+            mapped.force();
+        }
+
+        logger.info("Wrote {} issues to {} ({} bytes) in {} ms", issues.size(), file, offset,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Map a file for reading
+     */
+    public static ColumnarIssueFile open(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (mapped.limit() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a columnar issue file: " + file);
+        }
+        if (mapped.getShort(4) != VERSION) {
+            throw new IOException("Unsupported columnar issue file version " + mapped.getShort(4));
+        }
+        int columnCount = mapped.getShort(6);
+        int rowCount = mapped.getInt(8);
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            int position = HEADER_SIZE + i * DIRECTORY_ENTRY_SIZE;
+            Type type = Type.values()[mapped.getInt(position)];
+            int nameLength = mapped.getInt(position + 4);
+            long offset = mapped.getLong(position + 8);
+            long length = mapped.getLong(position + 16);
+            byte[] name = new byte[nameLength];
+            mapped.get(position + 24, name);
+            if (offset + length > mapped.limit()) {
+                throw new IOException("Truncated columnar issue file: " + file);
+            }
+            entries.put(new String(name, StandardCharsets.UTF_8), new Entry(type, (int) offset));
+        }
+        return new ColumnarIssueFile(mapped, rowCount, entries);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the names of the columns in the file, in file order
+     */
+    public List<String> getColumnNames() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public boolean hasColumn(Column column) {
+        return entries.containsKey(column.columnName);
+    }
+
+    /**
+     * Get a dictionary column's codes, one per row, as a view over the mapped file
+     */
+    public IntBuffer codes(Column column) {
+        Entry entry = entry(column, Type.DICTIONARY);
+        return slice(entry.offset, rowCount * 4).asIntBuffer();
+    }
+
+    /**
+     * Get a dictionary column's distinct values, indexed by code
+     */
+    public List<String> dictionary(Column column) {
+        Entry entry = entry(column, Type.DICTIONARY);
+        int position = entry.offset + rowCount * 4;
+        int size = buffer.getInt(position);
+        int ends = position + 4;
+        int bytes = ends + size * 4;
+
+        List<String> values = new ArrayList<>(size);
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            int end = buffer.getInt(ends + i * 4);
+            values.add(utf8(bytes + start, end - start));
+            start = end;
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Get a timestamp column's epoch milliseconds, one per row, as a view over the mapped file
+     */
+    public LongBuffer timestamps(Column column) {
+        Entry entry = entry(column, Type.TIMESTAMP);
+        return slice(entry.offset, rowCount * 8).asLongBuffer();
+    }
+
+    /**
+     * Get a string column's value for a row, or null if it has none
+     */
+    public String string(Column column, int row) {
+        Entry entry = entry(column, Type.STRING);
+        int bytes = entry.offset + rowCount * 4;
+        int start = row == 0 ? 0 : buffer.getInt(entry.offset + (row - 1) * 4);
+        int end = buffer.getInt(entry.offset + row * 4);
+        return end > start ? utf8(bytes + start, end - start) : null;
+    }
+
+    private Entry entry(Column column, Type type) {
+        Entry entry = entries.get(column.columnName);
+        if (entry == null || entry.type != type) {
+            throw new IllegalArgumentException("No " + type + " column " + column.columnName);
+        }
+        return entry;
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private String utf8(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static EncodedColumn encode(Column column, List<JiraIssue> issues) {
+        int rows = issues.size();
+        switch (column.type) {
+            case TIMESTAMP: {
+                long[] values = new long[rows];
+                for (int i = 0; i < rows; i++) {
+                    values[i] = column.timestamp.applyAsLong(issues.get(i));
+                }
+                return new TimestampColumn(values);
+            }
+            case DICTIONARY: {
+                Map<String, Integer> codesByValue = new HashMap<>();
+                List<String> values = new ArrayList<>();
+                int[] codes = new int[rows];
+                for (int i = 0; i < rows; i++) {
+                    String value = column.text.apply(issues.get(i));
+                    if (value == null) {
+                        codes[i] = NO_CODE;
+                        continue;
+                    }
+                    Integer code = codesByValue.get(value);
+                    if (code == null) {
+                        code = values.size();
+                        codesByValue.put(value, code);
+                        values.add(value);
+                    }
+                    codes[i] = code;
+                }
+                return new DictionaryColumn(codes, Utf8Strings.of(values));
+            }
+            default: {
+                List<String> values = new ArrayList<>(rows);
+                for (JiraIssue issue : issues) {
+                    values.add(column.text.apply(issue));
+                }
+                return new StringColumn(Utf8Strings.of(values));
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Type type;
+        private final int offset;
+
+        private Entry(Type type, int offset) {
+            this.type = type;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * A column's values encoded in memory, ready to be put into the mapping
+     */
+    private abstract static class EncodedColumn {
+        long offset;
+
+        abstract long length();
+
+        abstract void writeTo(ByteBuffer out);
+    }
+
+    private static final class TimestampColumn extends EncodedColumn {
+        private final long[] values;
+
+        private TimestampColumn(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        long length() {
+            return values.length * 8L;
+        }
+
+        @Override
+        void writeTo(ByteBuffer out) {
+            out.asLongBuffer().put(values);
+        }
+    }
+
+    private static final class DictionaryColumn extends EncodedColumn {
+        private final int[] codes;
+        private final Utf8Strings dictionary;
+
+        private DictionaryColumn(int[] codes, Utf8Strings dictionary) {
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        long length() {
+            return codes.length * 4L + 4 + dictionary.length();
+        }
+
+        @Override
+        void writeTo(ByteBuffer out) {
+            out.asIntBuffer().put(codes);
+            out.position(out.position() + codes.length * 4);
+            out.putInt(dictionary.ends.length);
+            dictionary.writeTo(out);
+        }
+    }
+
+    private static final class StringColumn extends EncodedColumn {
+        private final Utf8Strings values;
+
+        private StringColumn(Utf8Strings values) {
+            this.values = values;
+        }
+
+        @Override
+        long length() {
+            return values.length();
+        }
+
+        @Override
+        void writeTo(ByteBuffer out) {
+            values.writeTo(out);
+        }
+    }
+
+    /**
+     * Strings as end offsets into one UTF-8 byte array; null is stored as empty
+     */
+    private static final class Utf8Strings {
+        private final int[] ends;
+        private final byte[] bytes;
+        private final int byteCount;
+
+        private Utf8Strings(int[] ends, byte[] bytes, int byteCount) {
+            this.ends = ends;
+            this.bytes = bytes;
+            this.byteCount = byteCount;
+        }
+
+        static Utf8Strings of(List<String> values) {
+            int[] ends = new int[values.size()];
+            byte[] bytes = new byte[Math.max(16, values.size() * 16)];
+            int byteCount = 0;
+            for (int i = 0; i < ends.length; i++) {
+                String value = values.get(i);
+                if (value != null) {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    if (byteCount + encoded.length > bytes.length) {
+                        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + encoded.length));
+                    }
+                    System.arraycopy(encoded, 0, bytes, byteCount, encoded.length);
+                    byteCount += encoded.length;
+                }
+                ends[i] = byteCount;
+            }
+            return new Utf8Strings(ends, bytes, byteCount);
+        }
+
+        long length() {
+            return ends.length * 4L + byteCount;
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.asIntBuffer().put(ends);
+            out.position(out.position() + ends.length * 4);
+            out.put(bytes, 0, byteCount);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.JiraSearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Manages concurrent connections to several Jira sites, one per domain.
+ * <p>
+ * Searches across sites are sent to all connections in parallel and merged into a
+ * single result; a site that fails is reported in the result rather than failing the
+ * whole search. Key lookups go only to the sites known to host the issue's project,
+ * and to every site when none is.
+ * <p>
+ * While any site is connected, a background task probes the connections that have been
+ * idle for the profile's health probe interval, and the offline ones more often, and
+ * reports health changes to the health listener. A site that comes back replays the
+ * refreshes it queued while offline before the listener hears about it.
+ */
+public class ConnectionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionManager.class);
+
+    private final Function<JiraCredentials, JiraApiService> serviceFactory;
+    private final long healthProbeSeconds;
+    private final long offlineProbeSeconds;
+
+    // Domain (lower case) -> connection, in the order the sites were connected; guarded by itself
+    private final Map<String, JiraConnection> connections = new LinkedHashMap<>();
+
+    // Created with the first connection and stopped with the last; guarded by connections
+    private ScheduledExecutorService probeExecutor;
+    private ScheduledFuture<?> probeTask;
+
+    private volatile BiConsumer<JiraConnection, JiraConnection.Health> healthListener = (connection, health) -> {};
+
+    public ConnectionManager(TransportProfile transportProfile) {
+        this(credentials -> new JiraApiService(transportProfile),
+                transportProfile.getHealthProbeSeconds(), transportProfile.getOfflineProbeSeconds());
+    }
+
+    // Constructor with a custom API service per site, e.g. canned responses for tests
+    ConnectionManager(Function<JiraCredentials, JiraApiService> serviceFactory,
+                      long healthProbeSeconds, long offlineProbeSeconds) {
+        this.serviceFactory = serviceFactory;
+        this.healthProbeSeconds = healthProbeSeconds;
+        this.offlineProbeSeconds = offlineProbeSeconds;
+    }
+
+    /**
+     * Set the listener told when a connection's health changes; it is called on the
+     * HTTP callback thread
+     */
+    public void setHealthListener(BiConsumer<JiraConnection, JiraConnection.Health> healthListener) {
+        this.healthListener = healthListener != null ? healthListener : (connection, health) -> {};
+    }
+
+    /**
+     * Open a connection and test it; a successful connection replaces any existing one
+     * to the same domain. A site that cannot be reached is connected offline, and the
+     * offline probe brings it online once it answers.
+     *
+     * @return the connection, or null if the site rejected the credentials
+     */
+    public CompletableFuture<JiraConnection> connect(JiraCredentials credentials) {
+        JiraConnection connection = new JiraConnection(credentials, serviceFactory.apply(credentials));
+
+        return connection.test().thenApply(success -> {
+            if (!success) {
+                connection.close();
+                return null;
+            }
+
+            JiraConnection previous;
+            synchronized (connections) {
+                previous = connections.put(domainKey(credentials.getDomain()), connection);
+                startProbing();
+            }
+            if (previous != null) {
+                previous.close();
+            }
+            logger.info("Connected to {}{} ({} site(s) connected)", credentials.getDomain(),
+                    connection.isOffline() ? " while it is offline" : "", size());
+            return connection;
+        });
+    }
+
+    /**
+     * Close and remove the connection to a domain
+     */
+    public JiraConnection disconnect(String domain) {
+        JiraConnection connection;
+        synchronized (connections) {
+            connection = connections.remove(domainKey(domain));
+            if (connections.isEmpty()) {
+                stopProbing();
+            }
+        }
+        if (connection != null) {
+            connection.close();
+            logger.info("Disconnected from {}", domain);
+        }
+        return connection;
+    }
+
+    /**
+     * Close and remove all connections
+     */
+    public List<JiraConnection> disconnectAll() {
+        List<JiraConnection> closed = getConnections();
+        closed.forEach(connection -> disconnect(connection.getDomain()));
+        return closed;
+    }
+
+    public JiraConnection getConnection(String domain) {
+        synchronized (connections) {
+            return connections.get(domainKey(domain));
+        }
+    }
+
+    /**
+     * Get the connections in the order they were made
+     */
+    public List<JiraConnection> getConnections() {
+        synchronized (connections) {
+            return new ArrayList<>(connections.values());
+        }
+    }
+
+    public List<String> getDomains() {
+        return getConnections().stream().map(JiraConnection::getDomain).toList();
+    }
+
+    public int size() {
+        synchronized (connections) {
+            return connections.size();
+        }
+    }
+
+    public boolean isConnected() {
+        return size() > 0;
+    }
+
+    /**
+     * Search the first page on every site in parallel and merge the results, keeping
+     * each site's order and listing the sites in connection order
+     */
+    public CompletableFuture<JiraSearchResult> searchAll(String jql, int maxResultsPerSite) {
+        List<JiraConnection> targets = getConnections();
+        List<CompletableFuture<JiraSearchResult>> pages = new ArrayList<>(targets.size());
+        for (JiraConnection connection : targets) {
+            pages.add(connection.search(jql, 0, maxResultsPerSite));
+        }
+
+        return allSettled(pages).thenApply(done -> {
+            JiraSearchResult merged = new JiraSearchResult();
+            List<String> failedSites = new ArrayList<>();
+            Throwable lastFailure = null;
+
+            for (int i = 0; i < targets.size(); i++) {
+                CompletableFuture<JiraSearchResult> page = pages.get(i);
+                if (page.isCompletedExceptionally()) {
+                    failedSites.add(targets.get(i).getDomain());
+                    lastFailure = failureOf(page);
+                    continue;
+                }
+                JiraSearchResult result = page.join();
+                merged.getIssues().addAll(result.getIssues());
+                merged.setTotal(merged.getTotal() + result.getTotal());
+                merged.setMaxResults(merged.getMaxResults() + result.getMaxResults());
+            }
+
+            if (!targets.isEmpty() && failedSites.size() == targets.size()) {
+                throw new CompletionException(lastFailure);
+            }
+            if (!failedSites.isEmpty()) {
+                logger.warn("Search across sites failed on {}", failedSites);
+            }
+            merged.setFailedSites(failedSites);
+            merged.setCachedAtMillis(oldestCachedAt(pages));
+            return merged;
+        });
+    }
+
+    /**
+     * Get when the oldest stale page was cached, or 0 if every page is live
+     */
+    private static long oldestCachedAt(List<CompletableFuture<JiraSearchResult>> pages) {
+        long oldest = 0;
+        for (CompletableFuture<JiraSearchResult> page : pages) {
+            if (!page.isCompletedExceptionally() && page.join().isStale()) {
+                long cachedAt = page.join().getCachedAtMillis();
+                oldest = oldest == 0 ? cachedAt : Math.min(oldest, cachedAt);
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Get the domains of the connections that are offline
+     */
+    public List<String> getOfflineDomains() {
+        return getConnections().stream().filter(JiraConnection::isOffline).map(JiraConnection::getDomain).toList();
+    }
+
+    /**
+     * Look up an issue key on the sites that host its project, or on all sites when no
+     * site is known to; the key may exist on more than one site
+     */
+    public CompletableFuture<List<JiraIssue>> findIssue(String issueKey) {
+        List<JiraConnection> targets = routeIssueKey(issueKey);
+        List<CompletableFuture<JiraIssue>> lookups = new ArrayList<>(targets.size());
+        for (JiraConnection connection : targets) {
+            lookups.add(connection.getIssue(issueKey));
+        }
+
+        return allSettled(lookups).thenApply(done -> {
+            List<JiraIssue> found = new ArrayList<>();
+            Throwable lastFailure = null;
+            for (CompletableFuture<JiraIssue> lookup : lookups) {
+                if (lookup.isCompletedExceptionally()) {
+                    lastFailure = failureOf(lookup);
+                } else {
+                    found.add(lookup.join());
+                }
+            }
+
+            if (found.isEmpty()) {
+                throw new CompletionException(lastFailure != null
+                        ? lastFailure : new IllegalStateException("Not connected to Jira"));
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Probe every connection that has been idle for the probe interval, and tell the
+     * health listener about connections whose health changed
+     */
+    CompletableFuture<Void> probeAll(long idleSeconds) {
+        List<CompletableFuture<?>> probes = new ArrayList<>();
+        for (JiraConnection connection : getConnections()) {
+            JiraConnection.Health before = connection.getHealth();
+            probes.add(connection.probe(idleSeconds).thenCompose(after -> {
+                if (after == before) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                logger.info("Connection to {} is now {}", connection.getDomain(), after);
+                CompletableFuture<Void> replayed = before == JiraConnection.Health.UNREACHABLE
+                        ? connection.replayRefreshes() : CompletableFuture.completedFuture(null);
+                return replayed.thenRun(() -> healthListener.accept(connection, after));
+            }));
+        }
+        return CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new));
+    }
+
+    private void startProbing() {
+        if (healthProbeSeconds <= 0 || probeTask != null) {
+            return;
+        }
+        long periodSeconds = offlineProbeSeconds > 0 ? Math.min(healthProbeSeconds, offlineProbeSeconds) : healthProbeSeconds;
+        probeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jira-health-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probeTask = probeExecutor.scheduleWithFixedDelay(() -> probeAll(healthProbeSeconds),
+                periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    private void stopProbing() {
+        if (probeExecutor != null) {
+            probeExecutor.shutdownNow();
+            probeExecutor = null;
+            probeTask = null;
+        }
+    }
+
+    /**
+     * Choose the sites to ask for an issue key
+     */
+    List<JiraConnection> routeIssueKey(String issueKey) {
+        List<JiraConnection> all = getConnections();
+        String projectKey = JiraConnection.projectKeyOf(issueKey);
+
+        List<JiraConnection> known = new ArrayList<>();
+        for (JiraConnection connection : all) {
+            if ((projectKey != null && connection.knowsProject(projectKey))
+                    || connection.getCachedIssue(issueKey) != null) {
+                known.add(connection);
+            }
+        }
+        return known.isEmpty() ? all : known;
+    }
+
+    private static <T> CompletableFuture<Void> allSettled(List<CompletableFuture<T>> futures) {
+        CompletableFuture<?>[] settled = futures.stream()
+                .map(future -> future.handle((value, error) -> null))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(settled);
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private static String domainKey(String domain) {
+        return domain.toLowerCase(Locale.ROOT);
+    }
+}
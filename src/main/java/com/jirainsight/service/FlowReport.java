@@ -0,0 +1,362 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.util.JiraDateUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Sprint and flow reports over loaded issues.
+ * <p>
+ * The issues are encoded once into primitive columns: dictionary codes for status,
+ * sprint and assignee, and epoch milliseconds for created and resolved. Each report
+ * splits the rows into chunks that are counted in parallel on the common fork-join
+ * pool into per-chunk arrays, which are then merged, so no report allocates per issue.
+ * <p>
+ * Work on an issue is taken to start at its first logged status transition, when a
+ * {@link TransitionLog} is given and has the issue, and otherwise when it was created.
+ */
+public class FlowReport {
+
+    static final int CHUNK_SIZE = 8_192;
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    // Epoch day 0 was a Thursday; shifting by 3 days makes weeks start on Monday
+    private static final int WEEK_SHIFT_DAYS = 3;
+    private static final String IN_PROGRESS_CATEGORY = "indeterminate";
+
+    private final int rowCount;
+    private final int[] status;
+    private final List<String> statusNames;
+    private final int[] sprint;
+    private final List<String> sprintNames;
+    private final int[] assignee;
+    private final List<String> assigneeNames;
+    private final boolean[] inProgress;
+    private final long[] created;
+    private final long[] started;
+    private final long[] resolved;
+
+    private FlowReport(List<JiraIssue> issues, TransitionLog transitions) {
+        rowCount = issues.size();
+        statusNames = new ArrayList<>();
+        sprintNames = new ArrayList<>();
+        assigneeNames = new ArrayList<>();
+        status = encode(issues, issue -> issue.getStatus() != null ? issue.getStatus().getName() : null, "None", statusNames);
+        sprint = encode(issues, JiraIssue::getSprintName, "No sprint", sprintNames);
+        assignee = encode(issues, JiraIssue::getAssigneeDisplayName, "Unassigned", assigneeNames);
+
+        inProgress = new boolean[rowCount];
+        created = new long[rowCount];
+        started = new long[rowCount];
+        resolved = new long[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            JiraIssue issue = issues.get(row);
+            inProgress[row] = issue.getStatus() != null && issue.getStatus().getStatusCategory() != null
+                    && IN_PROGRESS_CATEGORY.equals(issue.getStatus().getStatusCategory().getKey());
+            created[row] = issue.getCreatedMillis();
+            long firstTransition = transitions != null
+                    ? transitions.getFirstTransitionMillis(issue.getQualifiedKey()) : JiraDateUtils.UNKNOWN;
+            started[row] = firstTransition != JiraDateUtils.UNKNOWN ? firstTransition : created[row];
+            resolved[row] = issue.getResolvedMillis();
+        }
+    }
+
+    /**
+     * Encode issues for reporting
+     */
+    public static FlowReport of(List<JiraIssue> issues) {
+        return new FlowReport(issues, null);
+    }
+
+    /**
+     * Encode issues for reporting, taking start times from their logged transitions
+     */
+    public static FlowReport of(List<JiraIssue> issues, TransitionLog transitions) {
+        return new FlowReport(issues, transitions);
+    }
+
+    public int getIssueCount() {
+        return rowCount;
+    }
+
+    /**
+     * Count issues by status within each sprint; an issue counts in its first sprint
+     */
+    public Table statusCountsBySprint() {
+        int statuses = statusNames.size();
+        long[] counts = countInParallel(sprintNames.size() * statuses,
+                (row, cells) -> cells[sprint[row] * statuses + status[row]]++, FlowReport::sum);
+
+        long[][] values = new long[sprintNames.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Arrays.copyOfRange(counts, i * statuses, (i + 1) * statuses);
+        }
+        return new Table("Issues by status per sprint", sprintNames, statusNames, values);
+    }
+
+    /**
+     * Count issues created and resolved in each week (Monday to Sunday, UTC), from the
+     * week of the earliest timestamp to the week of the latest
+     */
+    public Table weeklyThroughput() {
+        // Earliest created and latest created or resolved time
+        long[] range = countInParallel(new long[] {Long.MAX_VALUE, Long.MIN_VALUE}, (row, cells) -> {
+            if (created[row] != JiraDateUtils.UNKNOWN) {
+                cells[0] = Math.min(cells[0], created[row]);
+                cells[1] = Math.max(cells[1], created[row]);
+            }
+            if (resolved[row] != JiraDateUtils.UNKNOWN) {
+                cells[1] = Math.max(cells[1], resolved[row]);
+            }
+        }, (into, from) -> {
+            into[0] = Math.min(into[0], from[0]);
+            into[1] = Math.max(into[1], from[1]);
+        });
+        long first = range[0];
+        long last = range[1];
+        if (first > last) {
+            return new Table("Created vs resolved per week", List.of(), List.of("Created", "Resolved"), new long[0][]);
+        }
+
+        long firstWeek = weekOf(first);
+        int weeks = (int) (weekOf(last) - firstWeek + 1);
+        long[] counts = countInParallel(weeks * 2, (row, cells) -> {
+            if (created[row] != JiraDateUtils.UNKNOWN) {
+                cells[(int) (weekOf(created[row]) - firstWeek) * 2]++;
+            }
+            if (resolved[row] != JiraDateUtils.UNKNOWN && weekOf(resolved[row]) >= firstWeek) {
+                cells[(int) (weekOf(resolved[row]) - firstWeek) * 2 + 1]++;
+            }
+        }, FlowReport::sum);
+
+        List<String> weekLabels = new ArrayList<>(weeks);
+        long[][] values = new long[weeks][];
+        for (int week = 0; week < weeks; week++) {
+            weekLabels.add(LocalDate.ofEpochDay((firstWeek + week) * 7 - WEEK_SHIFT_DAYS).toString());
+            values[week] = new long[] {counts[week * 2], counts[week * 2 + 1]};
+        }
+        return new Table("Created vs resolved per week", weekLabels, List.of("Created", "Resolved"), values);
+    }
+
+    /**
+     * Days from start to resolution of resolved issues in each sprint
+     */
+    public Table cycleTimeBySprint() {
+        // Per sprint: issue count, summed cycle time, longest cycle time
+        long[] cells = countInParallel(sprintNames.size() * 3, (row, local) -> {
+            if (resolved[row] != JiraDateUtils.UNKNOWN && started[row] != JiraDateUtils.UNKNOWN
+                    && resolved[row] >= started[row]) {
+                addDuration(local, sprint[row] * 3, resolved[row] - started[row]);
+            }
+        }, FlowReport::mergeDurations);
+
+        List<Integer> withResolved = new ArrayList<>();
+        for (int i = 0; i < sprintNames.size(); i++) {
+            if (cells[i * 3] > 0) {
+                withResolved.add(i);
+            }
+        }
+        return durationTable("Cycle time per sprint", withResolved, sprintNames, cells,
+                List.of("Issues", "Average days", "Longest days"));
+    }
+
+    /**
+     * Age of the work in progress of each assignee, in days since work on the issue
+     * started, oldest first
+     */
+    public Table agingWorkInProgress(long nowMillis) {
+        // Per assignee: issue count, summed age, oldest age
+        long[] cells = countInParallel(assigneeNames.size() * 3, (row, local) -> {
+            if (inProgress[row] && started[row] != JiraDateUtils.UNKNOWN) {
+                addDuration(local, assignee[row] * 3, Math.max(0, nowMillis - started[row]));
+            }
+        }, FlowReport::mergeDurations);
+
+        List<Integer> withWork = new ArrayList<>();
+        for (int i = 0; i < assigneeNames.size(); i++) {
+            if (cells[i * 3] > 0) {
+                withWork.add(i);
+            }
+        }
+        withWork.sort(Comparator.comparingLong((Integer i) -> cells[i * 3 + 2]).reversed());
+        return durationTable("Aging work in progress", withWork, assigneeNames, cells,
+                List.of("Issues", "Average days", "Oldest days"));
+    }
+
+    private long[] countInParallel(int cellCount, RowAccumulator accumulator, CellMerger merger) {
+        return countInParallel(new long[cellCount], accumulator, merger);
+    }
+
+    /**
+     * Run an accumulator over every row, chunk by chunk in parallel, and merge the
+     * per-chunk cells; each chunk starts from a copy of the initial cells
+     */
+    private long[] countInParallel(long[] initial, RowAccumulator accumulator, CellMerger merger) {
+        int chunks = (rowCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    long[] cells = initial.clone();
+                    int end = Math.min(rowCount, (chunk + 1) * CHUNK_SIZE);
+                    for (int row = chunk * CHUNK_SIZE; row < end; row++) {
+                        accumulator.accumulate(row, cells);
+                    }
+                    return cells;
+                })
+                .reduce((into, from) -> {
+                    merger.merge(into, from);
+                    return into;
+                })
+                .orElseGet(initial::clone);
+    }
+
+    private static void sum(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    private static void addDuration(long[] cells, int base, long millis) {
+        cells[base]++;
+        cells[base + 1] += millis;
+        cells[base + 2] = Math.max(cells[base + 2], millis);
+    }
+
+    private static void mergeDurations(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i += 3) {
+            into[i] += from[i];
+            into[i + 1] += from[i + 1];
+            into[i + 2] = Math.max(into[i + 2], from[i + 2]);
+        }
+    }
+
+    /**
+     * Build a table of count, average and maximum days from duration cells
+     */
+    private static Table durationTable(String title, List<Integer> codes, List<String> names, long[] cells,
+                                       List<String> columns) {
+        List<String> rows = new ArrayList<>(codes.size());
+        long[][] values = new long[codes.size()][];
+        for (int i = 0; i < values.length; i++) {
+            int base = codes.get(i) * 3;
+            rows.add(names.get(codes.get(i)));
+            values[i] = new long[] {cells[base], cells[base + 1] / cells[base] / DAY_MILLIS, cells[base + 2] / DAY_MILLIS};
+        }
+        return new Table(title, rows, columns, values);
+    }
+
+    private static long weekOf(long epochMillis) {
+        return Math.floorDiv(Math.floorDiv(epochMillis, DAY_MILLIS) + WEEK_SHIFT_DAYS, 7);
+    }
+
+    private static int[] encode(List<JiraIssue> issues, Function<JiraIssue, String> extractor,
+                                String none, List<String> names) {
+        Map<String, Integer> codes = new HashMap<>();
+        int[] encoded = new int[issues.size()];
+        for (int row = 0; row < encoded.length; row++) {
+            String value = extractor.apply(issues.get(row));
+            String name = value != null && !value.isEmpty() ? value : none;
+            encoded[row] = codes.computeIfAbsent(name, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+        return encoded;
+    }
+
+    @FunctionalInterface
+    private interface RowAccumulator {
+        void accumulate(int row, long[] cells);
+    }
+
+    @FunctionalInterface
+    private interface CellMerger {
+        void merge(long[] into, long[] from);
+    }
+
+    /**
+     * A report: labelled rows of counts per column
+     */
+    public static final class Table {
+        private final String title;
+        private final List<String> rows;
+        private final List<String> columns;
+        private final long[][] values;
+
+        Table(String title, List<String> rows, List<String> columns, long[][] values) {
+            this.title = title;
+            this.rows = Collections.unmodifiableList(rows);
+            this.columns = Collections.unmodifiableList(columns);
+            this.values = values;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public List<String> getRows() {
+            return rows;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        public long get(int row, int column) {
+            return values[row][column];
+        }
+
+        /**
+         * Get the value in a row and column by label, or 0 if there is no such cell
+         */
+        public long get(String row, String column) {
+            int rowIndex = rows.indexOf(row);
+            int columnIndex = columns.indexOf(column);
+            return rowIndex >= 0 && columnIndex >= 0 ? values[rowIndex][columnIndex] : 0;
+        }
+
+        /**
+         * Format the table as aligned plain text
+         */
+        public String format() {
+            int labelWidth = rows.stream().mapToInt(String::length).max().orElse(0);
+            int[] widths = new int[columns.size()];
+            for (int column = 0; column < widths.length; column++) {
+                widths[column] = columns.get(column).length();
+                for (long[] row : values) {
+                    widths[column] = Math.max(widths[column], Long.toString(row[column]).length());
+                }
+            }
+
+            StringBuilder text = new StringBuilder(title).append('\n');
+            text.append(String.format("%-" + Math.max(1, labelWidth) + "s", ""));
+            for (int column = 0; column < widths.length; column++) {
+                text.append("  ").append(String.format("%" + widths[column] + "s", columns.get(column)));
+            }
+            text.append('\n');
+            for (int row = 0; row < rows.size(); row++) {
+                text.append(String.format("%-" + Math.max(1, labelWidth) + "s", rows.get(row)));
+                for (int column = 0; column < widths.length; column++) {
+                    text.append("  ").append(String.format("%" + widths[column] + "d", values[row][column]));
+                }
+                text.append('\n');
+            }
+            return text.toString();
+        }
+
+        @Override
+        public String toString() {
+            return format();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Persistent storage service backed by an encrypted H2 database.
+ * <p>
+ * The database file is encrypted with AES using a random key kept in plain text in a
+ * separate key file next to it, so at rest the credentials are only as safe as that
+ * file's permissions: owner-only on POSIX file systems, and whatever the directory
+ * grants elsewhere. The key is not kept in the OS credential store. H2's MVStore
+ * appends changes to the file and batches commits with its write delay, so a crash loses
+ * at most the last unflushed writes and never corrupts earlier ones. Reads are served
+ * from the in-memory maps, which are loaded once when the store opens; every change is
+ * written through to the database.
+ * <p>
+ * Users are always persisted. Credentials are persisted only when the user asked to
+ * remember them; otherwise they live in memory for the session only.
+ */
+public class H2StorageService extends InMemoryStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2StorageService.class);
+
+    private static final String DATABASE_NAME = "jirainsight";
+    private static final String KEY_FILE_NAME = "storage.key";
+    private static final String DB_USER = "jirainsight";
+
+    private final Connection connection;
+
+    /**
+     * Open or create the store in a directory
+     */
+    public H2StorageService(Path directory) throws SQLException, IOException {
+        Files.createDirectories(directory);
+        String key = loadOrCreateKey(directory.resolve(KEY_FILE_NAME));
+
+        String url = "jdbc:h2:file:" + directory.toAbsolutePath().resolve(DATABASE_NAME) + ";CIPHER=AES";
+        // H2 takes "<file password> <user password>" when the file is encrypted
+        this.connection = DriverManager.getConnection(url, DB_USER, key + " " + key);
+
+        createSchema();
+        load();
+
+        logger.info("Opened storage in {} ({})", directory, getStats());
+    }
+
+    private void createSchema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS users ("
+                    + "id VARCHAR(64) PRIMARY KEY, "
+                    + "username VARCHAR(255) NOT NULL, "
+                    + "password VARCHAR(255))");
+            statement.execute("CREATE TABLE IF NOT EXISTS jira_credentials ("
+                    + "id VARCHAR(64) PRIMARY KEY, "
+                    + "user_id VARCHAR(64) NOT NULL, "
+                    + "domain VARCHAR(255) NOT NULL, "
+                    + "email VARCHAR(255) NOT NULL, "
+                    + "api_token VARCHAR(1024) NOT NULL, "
+                    + "active BOOLEAN NOT NULL, "
+                    + "created_at TIMESTAMP)");
+        }
+    }
+
+    private void load() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rows = statement.executeQuery("SELECT id, username, password FROM users")) {
+                while (rows.next()) {
+                    User user = new User(rows.getString("username"), rows.getString("password"));
+                    user.setId(rows.getString("id"));
+                    restoreUser(user);
+                }
+            }
+
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT id, user_id, domain, email, api_token, active, created_at FROM jira_credentials")) {
+                while (rows.next()) {
+                    JiraCredentials credentials = new JiraCredentials(
+                            rows.getString("domain"), rows.getString("email"), rows.getString("api_token"));
+                    credentials.setId(rows.getString("id"));
+                    credentials.setUserId(rows.getString("user_id"));
+                    credentials.setActive(rows.getBoolean("active"));
+                    credentials.setRememberCredentials(true);
+                    Timestamp createdAt = rows.getTimestamp("created_at");
+                    if (createdAt != null) {
+                        credentials.setCreatedAt(createdAt.toLocalDateTime());
+                    }
+                    restoreCredentials(credentials);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized User createUser(String username, String password) {
+        User user = super.createUser(username, password);
+        write("MERGE INTO users (id, username, password) KEY (id) VALUES (?, ?, ?)",
+                user.getId(), user.getUsername(), user.getPassword());
+        return user;
+    }
+
+    @Override
+    public synchronized JiraCredentials saveJiraCredentials(String userId, JiraCredentials jiraCredentials) {
+        JiraCredentials saved = super.saveJiraCredentials(userId, jiraCredentials);
+        // A user has one set of credentials per site; saving replaces the previous ones
+        write("DELETE FROM jira_credentials WHERE user_id = ? AND LOWER(domain) = ?",
+                userId, saved.getDomain().toLowerCase(Locale.ROOT));
+        persistCredentials(saved);
+        return saved;
+    }
+
+    @Override
+    public synchronized JiraCredentials updateJiraCredentials(JiraCredentials updatedCredentials) {
+        JiraCredentials updated = super.updateJiraCredentials(updatedCredentials);
+        persistCredentials(updated);
+        return updated;
+    }
+
+    @Override
+    public synchronized boolean deleteJiraCredentials(String userId) {
+        boolean deleted = super.deleteJiraCredentials(userId);
+        write("DELETE FROM jira_credentials WHERE user_id = ?", userId);
+        return deleted;
+    }
+
+    @Override
+    public synchronized boolean deleteJiraCredentials(String userId, String domain) {
+        boolean deleted = super.deleteJiraCredentials(userId, domain);
+        write("DELETE FROM jira_credentials WHERE user_id = ? AND LOWER(domain) = ?",
+                userId, domain.toLowerCase(Locale.ROOT));
+        return deleted;
+    }
+
+    @Override
+    public synchronized void clearAll() {
+        super.clearAll();
+        write("DELETE FROM jira_credentials");
+        write("DELETE FROM users");
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (!connection.isClosed()) {
+                connection.close();
+                logger.info("Closed storage");
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to close storage", e);
+        }
+    }
+
+    /**
+     * Write credentials the user asked to remember, and remove them otherwise
+     */
+    private void persistCredentials(JiraCredentials credentials) {
+        if (!credentials.isRememberCredentials()) {
+            write("DELETE FROM jira_credentials WHERE id = ?", credentials.getId());
+            return;
+        }
+
+        write("MERGE INTO jira_credentials (id, user_id, domain, email, api_token, active, created_at) "
+                        + "KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                credentials.getId(), credentials.getUserId(), credentials.getDomain(), credentials.getEmail(),
+                credentials.getApiToken(), credentials.isActive(),
+                credentials.getCreatedAt() != null ? Timestamp.valueOf(credentials.getCreatedAt()) : null);
+    }
+
+    private void write(String sql, Object... parameters) {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to write to storage: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read the database key, creating a random one readable only by the owner on first use.
+     * The key is written to a temporary file and moved into place, so a crash never
+     * leaves an empty key file behind.
+     */
+    private static String loadOrCreateKey(Path keyFile) throws IOException {
+        if (Files.isRegularFile(keyFile)) {
+            String key = Files.readString(keyFile, StandardCharsets.US_ASCII).trim();
+            if (!key.isEmpty()) {
+                return key;
+            }
+            // An empty key can only be replaced while there is no database it encrypted
+            if (Files.exists(keyFile.resolveSibling(DATABASE_NAME + ".mv.db"))) {
+                throw new IOException("Storage key file " + keyFile + " is empty; the database cannot be decrypted");
+            }
+            logger.warn("Replacing empty storage key file {}", keyFile);
+        }
+
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        String key = HexFormat.of().formatHex(bytes);
+
+        Path temp;
+        try {
+            temp = Files.createTempFile(keyFile.getParent(), KEY_FILE_NAME, ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system; the file inherits the user profile's permissions
+            temp = Files.createTempFile(keyFile.getParent(), KEY_FILE_NAME, ".tmp");
+        }
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(key.getBytes(StandardCharsets.US_ASCII)));
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, keyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, keyFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return key;
+    }
+}
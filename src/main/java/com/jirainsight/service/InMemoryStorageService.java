@@ -0,0 +1,252 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory storage service for managing users and credentials.
+ * Also serves as the read cache of the persistent H2StorageService.
+ */
+public class InMemoryStorageService implements StorageService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStorageService.class);
+    
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    // Unique username -> user ID; a user is stored before its index entry becomes visible
+    private final Map<String, String> usernameIndex = new ConcurrentHashMap<>();
+    private final Map<String, JiraCredentials> credentials = new ConcurrentHashMap<>();
+    // User ID -> lower-case domain -> credentials ID; a user has one set of credentials per site
+    private final Map<String, Map<String, String>> userCredentialsMapping = new ConcurrentHashMap<>();
+    
+    private static final Comparator<JiraCredentials> BY_CREATED_AT =
+            Comparator.comparing(JiraCredentials::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+    
+    public InMemoryStorageService() {}
+    
+    /**
+     * Put a user loaded from persistent storage
+     */
+    protected void restoreUser(User user) {
+        users.put(user.getId(), user);
+        usernameIndex.put(user.getUsername(), user.getId());
+    }
+    
+    /**
+     * Put credentials loaded from persistent storage
+     */
+    protected void restoreCredentials(JiraCredentials jiraCredentials) {
+        credentials.put(jiraCredentials.getId(), jiraCredentials);
+        mappingFor(jiraCredentials.getUserId()).put(domainKey(jiraCredentials.getDomain()), jiraCredentials.getId());
+    }
+    
+    /**
+     * Create a user, or return the existing user with this username with its password updated
+     */
+    @Override
+    public User createUser(String username, String password) {
+        User created = new User(username, password);
+        created.setId(UUID.randomUUID().toString());
+        
+        // The index entry and the user are added together, atomically per username
+        String userId = usernameIndex.computeIfAbsent(username, name -> {
+            users.put(created.getId(), created);
+            return created.getId();
+        });
+        
+        if (userId.equals(created.getId())) {
+            logger.info("Created user: {}", username);
+            return created;
+        }
+        
+        User existing = users.get(userId);
+        existing.setPassword(password);
+        logger.debug("Reusing existing user: {}", username);
+        
+        return existing;
+    }
+    
+    @Override
+    public User getUserById(String userId) {
+        return users.get(userId);
+    }
+    
+    @Override
+    public User getUserByUsername(String username) {
+        String userId = usernameIndex.get(username);
+        return userId != null ? users.get(userId) : null;
+    }
+    
+    /**
+     * Save Jira credentials for a user, replacing the user's credentials for the same site
+     */
+    @Override
+    public JiraCredentials saveJiraCredentials(String userId, JiraCredentials jiraCredentials) {
+        // Validate user exists
+        User user = getUserById(userId);
+        if (user == null) {
+            throw new IllegalArgumentException("User not found: " + userId);
+        }
+        
+        // Set IDs and user reference
+        jiraCredentials.setId(UUID.randomUUID().toString());
+        jiraCredentials.setUserId(userId);
+        
+        // Store credentials
+        credentials.put(jiraCredentials.getId(), jiraCredentials);
+        String previousId = mappingFor(userId).put(domainKey(jiraCredentials.getDomain()), jiraCredentials.getId());
+        if (previousId != null) {
+            credentials.remove(previousId);
+        }
+        
+        logger.info("Saved Jira credentials for user {} (domain: {})", userId, jiraCredentials.getDomain());
+        
+        return jiraCredentials;
+    }
+    
+    /**
+     * Get the most recently created Jira credentials of a user
+     */
+    @Override
+    public JiraCredentials getJiraCredentials(String userId) {
+        Map<String, String> byDomain = userCredentialsMapping.get(userId);
+        if (byDomain == null) {
+            return null;
+        }
+        
+        return byDomain.values().stream()
+                .map(credentials::get)
+                .filter(Objects::nonNull)
+                .max(BY_CREATED_AT)
+                .orElse(null);
+    }
+    
+    @Override
+    public JiraCredentials getJiraCredentials(String userId, String domain) {
+        Map<String, String> byDomain = userCredentialsMapping.get(userId);
+        String credentialsId = byDomain != null ? byDomain.get(domainKey(domain)) : null;
+        return credentialsId != null ? credentials.get(credentialsId) : null;
+    }
+    
+    @Override
+    public JiraCredentials updateJiraCredentials(JiraCredentials updatedCredentials) {
+        if (updatedCredentials.getId() == null) {
+            throw new IllegalArgumentException("Credentials ID is required for update");
+        }
+        
+        JiraCredentials existing = credentials.get(updatedCredentials.getId());
+        if (existing == null) {
+            throw new IllegalArgumentException("Credentials not found: " + updatedCredentials.getId());
+        }
+        
+        // Move the mapping if the credentials now point at another site
+        if (!domainKey(existing.getDomain()).equals(domainKey(updatedCredentials.getDomain()))) {
+            Map<String, String> byDomain = mappingFor(existing.getUserId());
+            byDomain.remove(domainKey(existing.getDomain()));
+            byDomain.put(domainKey(updatedCredentials.getDomain()), existing.getId());
+        }
+        
+        // Update fields
+        existing.setDomain(updatedCredentials.getDomain());
+        existing.setEmail(updatedCredentials.getEmail());
+        existing.setApiToken(updatedCredentials.getApiToken());
+        existing.setActive(updatedCredentials.isActive());
+        existing.setRememberCredentials(updatedCredentials.isRememberCredentials());
+        
+        logger.info("Updated Jira credentials: {}", updatedCredentials.getId());
+        
+        return existing;
+    }
+    
+    /**
+     * Delete all Jira credentials for a user
+     */
+    @Override
+    public boolean deleteJiraCredentials(String userId) {
+        Map<String, String> byDomain = userCredentialsMapping.remove(userId);
+        if (byDomain == null || byDomain.isEmpty()) {
+            return false;
+        }
+        
+        byDomain.values().forEach(credentials::remove);
+        
+        logger.info("Deleted Jira credentials for user: {}", userId);
+        
+        return true;
+    }
+    
+    @Override
+    public boolean deleteJiraCredentials(String userId, String domain) {
+        Map<String, String> byDomain = userCredentialsMapping.get(userId);
+        String credentialsId = byDomain != null ? byDomain.remove(domainKey(domain)) : null;
+        if (credentialsId == null) {
+            return false;
+        }
+        
+        credentials.remove(credentialsId);
+        
+        logger.info("Deleted Jira credentials for user {} (domain: {})", userId, domain);
+        
+        return true;
+    }
+    
+    @Override
+    public boolean hasJiraCredentials(String userId) {
+        Map<String, String> byDomain = userCredentialsMapping.get(userId);
+        return byDomain != null && !byDomain.isEmpty();
+    }
+    
+    @Override
+    public List<JiraCredentials> getRememberedCredentials() {
+        return credentials.values().stream()
+                .filter(c -> c.isRememberCredentials() && c.isActive())
+                .sorted(BY_CREATED_AT)
+                .toList();
+    }
+    
+    @Override
+    public Map<String, User> getAllUsers() {
+        return new ConcurrentHashMap<>(users);
+    }
+    
+    @Override
+    public Map<String, JiraCredentials> getAllCredentials() {
+        return new ConcurrentHashMap<>(credentials);
+    }
+    
+    @Override
+    public void clearAll() {
+        usernameIndex.clear();
+        users.clear();
+        credentials.clear();
+        userCredentialsMapping.clear();
+        logger.info("Cleared all storage data");
+    }
+    
+    @Override
+    public StorageStats getStats() {
+        return new StorageStats(users.size(), credentials.size());
+    }
+    
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+    
+    private Map<String, String> mappingFor(String userId) {
+        return userCredentialsMapping.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+    }
+    
+    private static String domainKey(String domain) {
+        return domain != null ? domain.toLowerCase(Locale.ROOT) : "";
+    }
+}
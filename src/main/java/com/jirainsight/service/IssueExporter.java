@@ -0,0 +1,267 @@
+package com.jirainsight.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.JiraSearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Streams the full result of a JQL search to a CSV or JSONL file.
+ * <p>
+ * Pages are fetched with a {@link SearchPager}, and each page is written as soon as it
+ * is decoded while the next one is already in flight. At most two pages are held in
+ * memory however large the result.
+ * The file is written through a buffered channel writer to a {@code .part} file that
+ * replaces the target only when the export completes, so a failed or cancelled export
+ * never leaves a truncated file behind.
+ * <p>
+ * Interrupting the exporting thread cancels the export.
+ */
+public class IssueExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IssueExporter.class);
+
+    // The largest page Jira Cloud returns for a search
+    static final int PAGE_SIZE = 100;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static final List<String> CSV_COLUMNS = List.of("site", "key", "summary", "status", "statusCategory", "type",
+            "priority", "assignee", "reporter", "project", "sprint", "created", "updated");
+
+    /**
+     * Export file formats
+     */
+    public enum Format {
+        CSV("csv", "CSV files"),
+        JSONL("jsonl", "JSON Lines files");
+
+        private final String extension;
+        private final String description;
+
+        Format(String extension, String description) {
+            this.extension = extension;
+            this.description = description;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Get the format of a file by its extension, CSV unless it ends in .jsonl
+         */
+        public static Format forFile(Path file) {
+            return file.getFileName().toString().toLowerCase().endsWith("." + JSONL.extension) ? JSONL : CSV;
+        }
+    }
+
+    /**
+     * Told after each page is written; the total grows as each site reports its count
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long exported, long total);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public IssueExporter() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Export every issue matching the JQL on each connected site, site by site
+     *
+     * @return the number of issues written
+     * @throws InterruptedException if the exporting thread was interrupted; the target is left untouched
+     */
+    public long export(List<JiraConnection> connections, String jql, Format format, Path target,
+                       ProgressListener listener) throws IOException, InterruptedException {
+        Path partFile = target.resolveSibling(target.getFileName() + ".part");
+        long startNanos = System.nanoTime();
+        long exported = 0;
+        long knownTotal = 0;
+        boolean completed = false;
+
+        try (FileChannel channel = FileChannel.open(partFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            PageWriter pageWriter = format == Format.JSONL ? new JsonLinesWriter(writer) : new CsvWriter(writer);
+            pageWriter.begin();
+
+            for (JiraConnection connection : connections) {
+                long previousSitesTotal = knownTotal;
+                try (SearchPager pager = new SearchPager(connection, jql, PAGE_SIZE, false, "Export")) {
+                    JiraSearchResult page;
+                    while ((page = pager.next()) != null) {
+                        pageWriter.write(page.getIssues());
+                        exported += page.getIssues().size();
+                        knownTotal = previousSitesTotal + pager.getTotal();
+                        listener.onProgress(exported, knownTotal);
+                    }
+                }
+            }
+
+            pageWriter.end();
+            writer.flush();
+            completed = true;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(partFile);
+            }
+        }
+
+        moveIntoPlace(partFile, target);
+        logger.info("Exported {} issues to {} in {} ms", exported, target, (System.nanoTime() - startNanos) / 1_000_000);
+        return exported;
+    }
+
+    private static void moveIntoPlace(Path partFile, Path target) throws IOException {
+        try {
+            Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes pages of issues in one format
+     */
+    private interface PageWriter {
+        void begin() throws IOException;
+
+        void write(List<JiraIssue> issues) throws IOException;
+
+        void end() throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; fields are quoted only when they need to be
+     */
+    private static final class CsvWriter implements PageWriter {
+        private final Writer writer;
+
+        private CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(List<JiraIssue> issues) throws IOException {
+            for (JiraIssue issue : issues) {
+                field(issue.getSite(), false);
+                field(issue.getKey(), true);
+                field(issue.getSummary(), true);
+                field(issue.getStatus() != null ? issue.getStatus().getName() : null, true);
+                field(issue.getStatus() != null && issue.getStatus().getStatusCategory() != null
+                        ? issue.getStatus().getStatusCategory().getKey() : null, true);
+                field(issue.getIssueType() != null ? issue.getIssueType().getName() : null, true);
+                field(issue.getPriority() != null ? issue.getPriority().getName() : null, true);
+                field(issue.getAssignee() != null ? issue.getAssignee().getDisplayName() : null, true);
+                field(issue.getReporter() != null ? issue.getReporter().getDisplayName() : null, true);
+                field(issue.getProject() != null ? issue.getProject().getKey() : null, true);
+                field(issue.getSprintName(), true);
+                field(issue.getCreated(), true);
+                field(issue.getUpdated(), true);
+                writer.write("\r\n");
+            }
+        }
+
+        @Override
+        public void end() {
+        }
+
+        private void field(String value, boolean separate) throws IOException {
+            if (separate) {
+                writer.write(',');
+            }
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            if (!needsQuotes(value)) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * One JSON object per line, in the issue model's JSON shape plus the issue's site
+     */
+    private final class JsonLinesWriter implements PageWriter {
+        private final JsonGenerator generator;
+
+        private JsonLinesWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            // The writer is closed by the exporter; lines are separated explicitly
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(List<JiraIssue> issues) throws IOException {
+            for (JiraIssue issue : issues) {
+                ObjectNode node = objectMapper.valueToTree(issue);
+                node.put("site", issue.getSite());
+                generator.writeTree(node);
+                generator.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.jirainsight.service;
+
+/**
+ * A Jira API call that completed with an unsuccessful HTTP status
+ */
+public class JiraApiException extends RuntimeException {
+
+    private final int statusCode;
+
+    public JiraApiException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Check whether the site rejected the credentials; a 403 only denies access to the
+     * requested project, issue or search, so it does not count
+     */
+    public boolean isUnauthorized() {
+        return statusCode == 401;
+    }
+}
@@ -1,5 +1,6 @@
 package com.jirainsight.service;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -7,7 +8,12 @@ import com.jirainsight.model.*;
 import com.jirainsight.model.IssueComments.IssueComment;
 import com.jirainsight.model.IssueStatus.StatusCategory;
 import com.jirainsight.model.IssueSubtask.SubtaskStatus;
+import com.jirainsight.util.Histogram;
+import com.jirainsight.util.JiraDateUtils;
+import com.jirainsight.util.MetricsRegistry;
 import okhttp3.*;
+import okio.BufferedSource;
+import okio.Okio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -24,120 +31,357 @@ public class JiraApiService {
     
     private static final Logger logger = LoggerFactory.getLogger(JiraApiService.class);
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    
+    // The largest page the issue changelog endpoint returns
+    public static final int CHANGELOG_PAGE_SIZE = 100;
+    
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final TransportProfile transportProfile;
+    private final TransportMetrics transportMetrics = new TransportMetrics();
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private final Histogram issueParseTimer = metrics.timer("parse.issue");
     
     public JiraApiService() {
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+        this(TransportProfile.defaults());
+    }
+    
+    public JiraApiService(TransportProfile transportProfile) {
+        this(transportProfile, List.of());
+    }
+    
+    // Constructor with extra interceptors, e.g. canned responses for benchmarks
+    JiraApiService(TransportProfile transportProfile, List<Interceptor> extraInterceptors) {
+        this.transportProfile = transportProfile;
+        
+        // Calls are enqueued asynchronously, so the dispatcher limits bound parallel fan-out
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(transportProfile.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(transportProfile.getMaxRequestsPerHost());
+        
+        // Throttled requests wait and retry inside the call instead of failing the operation
+        this.rateLimitInterceptor = new RateLimitInterceptor(transportProfile);
+        
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectTimeout(transportProfile.getConnectTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(transportProfile.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .writeTimeout(transportProfile.getWriteTimeoutSeconds(), TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(transportProfile.getMaxIdleConnections(),
+                        transportProfile.getKeepAliveSeconds(), TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .protocols(transportProfile.getProtocols())
+                .eventListenerFactory(transportMetrics)
+                .addInterceptor(new AuthInterceptor())
+                .addInterceptor(rateLimitInterceptor);
+        extraInterceptors.forEach(builder::addInterceptor);
+        this.httpClient = builder.build();
         
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        
+        logger.info("Created Jira API service with {}", transportProfile);
+    }
+    
+    /**
+     * Get the transport profile this service was created with
+     */
+    public TransportProfile getTransportProfile() {
+        return transportProfile;
+    }
+    
+    /**
+     * Get connection reuse and queueing statistics
+     */
+    public TransportMetrics.TransportStats getTransportStats() {
+        return transportMetrics.snapshot(httpClient.dispatcher(), httpClient.connectionPool());
+    }
+    
+    /**
+     * Get the rate limiter for a Jira domain
+     */
+    public RateLimiter getRateLimiter(JiraCredentials credentials) {
+        return rateLimitInterceptor.getLimiter(HttpUrl.get(credentials.getJiraUrl()).host());
+    }
+    
+    /**
+     * Cancel queued calls and release the connection pool and dispatcher threads
+     */
+    public void close() {
+        httpClient.dispatcher().cancelAll();
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
     }
     
     /**
      * Test connection to Jira with the provided credentials
      */
     public CompletableFuture<Boolean> testConnection(JiraCredentials credentials) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String url = credentials.getJiraUrl() + "/rest/api/3/myself";
-                
-                Request request = new Request.Builder()
-                        .url(url)
-                        .header("Authorization", "Basic " + credentials.getAuthenticationString())
-                        .header("Accept", "application/json")
-                        .build();
-                
-                try (Response response = httpClient.newCall(request).execute()) {
-                    boolean success = response.isSuccessful();
-                    logger.info("Connection test to {} - {}", credentials.getDomain(), 
-                              success ? "SUCCESS" : "FAILED (" + response.code() + ")");
-                    return success;
-                }
-                
-            } catch (Exception e) {
-                logger.error("Connection test failed for {}: {}", credentials.getDomain(), e.getMessage());
-                return false;
+        return getMyself(credentials).thenApply(account -> true).exceptionally(e -> false);
+    }
+    
+    /**
+     * Get the account the credentials authenticate as; fails with a JiraApiException
+     * if the site rejects them
+     */
+    public CompletableFuture<JiraAccount> getMyself(JiraCredentials credentials) {
+        String url = credentials.getJiraUrl() + "/rest/api/3/myself";
+        
+        Request request = new Request.Builder()
+                .url(url)
+                .tag(JiraCredentials.class, credentials)
+                .build();
+        
+        CompletableFuture<JiraAccount> call = execute("myself", request, response -> {
+            if (!response.isSuccessful()) {
+                logger.info("Connection test to {} - FAILED ({})", credentials.getDomain(), response.code());
+                throw new JiraApiException(response.code(), "Connection test failed: " + response.code() + " - " + response.message());
             }
+            
+            JsonNode jsonNode = readJson(response);
+            JiraAccount account = new JiraAccount();
+            account.setAccountId(jsonNode.path("accountId").asText(null));
+            account.setDisplayName(jsonNode.path("displayName").asText(null));
+            account.setEmailAddress(jsonNode.path("emailAddress").asText(null));
+            account.setTimeZone(jsonNode.path("timeZone").asText(null));
+            account.setLocale(jsonNode.path("locale").asText(null));
+            account.setActive(jsonNode.path("active").asBoolean(true));
+            
+            logger.info("Connection test to {} - SUCCESS", credentials.getDomain());
+            return account;
         });
+        return cancelling(call, call.whenComplete((account, e) -> {
+            if (e != null && !(unwrap(e) instanceof JiraApiException)) {
+                logger.error("Connection test failed for {}: {}", credentials.getDomain(), unwrap(e).getMessage());
+            }
+        }));
     }
     
     /**
      * Get a single issue by key
      */
     public CompletableFuture<JiraIssue> getIssueByKey(String issueKey, JiraCredentials credentials) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String url = credentials.getJiraUrl() + "/rest/api/3/issue/" + issueKey + 
-                           "?expand=subtasks,comments";
-                
-                Request request = new Request.Builder()
-                        .url(url)
-                        .header("Authorization", "Basic " + credentials.getAuthenticationString())
-                        .header("Accept", "application/json")
-                        .build();
-                
-                try (Response response = httpClient.newCall(request).execute()) {
-                    if (!response.isSuccessful()) {
-                        throw new RuntimeException("Failed to fetch issue: " + response.code() + " - " + response.message());
-                    }
-                    
-                    String responseBody = response.body().string();
-                    JsonNode jsonNode = objectMapper.readTree(responseBody);
-                    
-                    JiraIssue issue = parseIssueFromJson(jsonNode);
-                    logger.info("Successfully fetched issue: {}", issueKey);
-                    return issue;
-                }
-                
-            } catch (Exception e) {
-                logger.error("Failed to fetch issue {}: {}", issueKey, e.getMessage());
-                throw new RuntimeException("Failed to fetch issue: " + e.getMessage(), e);
+        String url = credentials.getJiraUrl() + "/rest/api/3/issue/" + issueKey + 
+                   "?expand=subtasks,comments";
+        
+        Request request = new Request.Builder()
+                .url(url)
+                .tag(JiraCredentials.class, credentials)
+                .build();
+        
+        CompletableFuture<JiraIssue> call = execute("issue", request, response -> {
+            if (!response.isSuccessful()) {
+                throw new JiraApiException(response.code(), "Failed to fetch issue: " + response.code() + " - " + response.message());
             }
+            
+            JsonNode jsonNode = readJson(response);
+            
+            long parseStart = System.nanoTime();
+            JiraIssue issue = parseIssueFromJson(jsonNode);
+            issueParseTimer.recordSince(parseStart);
+            issue.setSite(credentials.getDomain());
+            logger.debug("Successfully fetched issue: {}", issueKey);
+            return issue;
         });
+        return cancelling(call, call.exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            logger.error("Failed to fetch issue {}: {}", issueKey, cause.getMessage());
+            throw new RuntimeException("Failed to fetch issue: " + cause.getMessage(), cause);
+        }));
     }
     
     /**
      * Search for issues using JQL
      */
     public CompletableFuture<JiraSearchResult> searchIssues(String jql, JiraCredentials credentials) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String url = credentials.getJiraUrl() + "/rest/api/3/search";
-                
-                // Create request body
-                String requestBody = objectMapper.writeValueAsString(new SearchRequest(jql, 50, getSearchFields()));
-                
-                Request request = new Request.Builder()
-                        .url(url)
-                        .header("Authorization", "Basic " + credentials.getAuthenticationString())
-                        .header("Accept", "application/json")
-                        .header("Content-Type", "application/json")
-                        .post(RequestBody.create(requestBody, MediaType.get("application/json")))
-                        .build();
-                
-                try (Response response = httpClient.newCall(request).execute()) {
-                    if (!response.isSuccessful()) {
-                        throw new RuntimeException("Search failed: " + response.code() + " - " + response.message());
-                    }
-                    
-                    String responseBody = response.body().string();
-                    JsonNode jsonNode = objectMapper.readTree(responseBody);
-                    
-                    JiraSearchResult result = parseSearchResultFromJson(jsonNode);
-                    logger.info("Search completed: {} issues found", result.getTotal());
-                    return result;
+        return searchIssues(jql, 0, DEFAULT_PAGE_SIZE, credentials);
+    }
+    
+    /**
+     * Search for a page of issues using JQL
+     */
+    public CompletableFuture<JiraSearchResult> searchIssues(String jql, int startAt, int maxResults, JiraCredentials credentials) {
+        return searchIssues(jql, startAt, maxResults, false, credentials);
+    }
+    
+    /**
+     * Search for a page of issues using JQL, optionally with each issue's changelog
+     * expanded into its status changes. Jira embeds only part of a long changelog; the
+     * rest is paged with {@link #getChangelog}.
+     */
+    public CompletableFuture<JiraSearchResult> searchIssues(String jql, int startAt, int maxResults,
+                                                            boolean expandChangelog, JiraCredentials credentials) {
+        String url = credentials.getJiraUrl() + "/rest/api/3/search";
+        
+        // Create request body
+        String requestBody;
+        try {
+            SearchRequest searchRequest = new SearchRequest(jql, startAt, maxResults, getSearchFields());
+            if (expandChangelog) {
+                searchRequest.expand = List.of("changelog");
+            }
+            requestBody = objectMapper.writeValueAsString(searchRequest);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Search failed: " + e.getMessage(), e));
+        }
+        
+        Request request = new Request.Builder()
+                .url(url)
+                .tag(JiraCredentials.class, credentials)
+                .post(RequestBody.create(requestBody, MediaType.get("application/json")))
+                .tag(RateLimitInterceptor.Retry.class, RateLimitInterceptor.Retry.IDEMPOTENT)
+                .build();
+        
+        long searchStart = System.nanoTime();
+        CompletableFuture<JiraSearchResult> call = execute("search", request, response -> {
+            if (!response.isSuccessful()) {
+                throw new JiraApiException(response.code(), "Search failed: " + response.code() + " - " + response.message());
+            }
+            
+            JsonNode jsonNode = readJson(response);
+            
+            JiraSearchResult result = parseSearchResultFromJson(jsonNode);
+            result.getIssues().forEach(issue -> issue.setSite(credentials.getDomain()));
+            long elapsedNanos = System.nanoTime() - searchStart;
+            if (elapsedNanos > 0) {
+                metrics.histogram("search.issuesPerSecond")
+                        .record(result.getIssues().size() * 1_000_000_000L / elapsedNanos);
+            }
+            logger.info("Search completed: {} issues found", result.getTotal());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Transport after search: {}", getTransportStats());
+            }
+            return result;
+        });
+        return cancelling(call, call.exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            logger.error("Search failed for JQL '{}': {}", jql, cause.getMessage());
+            throw new RuntimeException("Search failed: " + cause.getMessage(), cause);
+        }));
+    }
+    
+    /**
+     * Get a page of an issue's changelog, oldest history first, reduced to its status changes
+     */
+    public CompletableFuture<IssueChangelog> getChangelog(String issueKey, int startAt, JiraCredentials credentials) {
+        String url = credentials.getJiraUrl() + "/rest/api/3/issue/" + issueKey + "/changelog" +
+                "?startAt=" + startAt + "&maxResults=" + CHANGELOG_PAGE_SIZE;
+        
+        Request request = new Request.Builder()
+                .url(url)
+                .tag(JiraCredentials.class, credentials)
+                .build();
+        
+        CompletableFuture<IssueChangelog> call = execute("changelog", request, response -> {
+            if (!response.isSuccessful()) {
+                throw new JiraApiException(response.code(), "Failed to fetch changelog: " + response.code() + " - " + response.message());
+            }
+            
+            JsonNode jsonNode = readJson(response);
+            JsonNode histories = jsonNode.path("values");
+            return new IssueChangelog(parseStatusChanges(histories), jsonNode.path("startAt").asInt(startAt),
+                    histories.size(), jsonNode.path("total").asInt());
+        });
+        return cancelling(call, call.exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            logger.error("Failed to fetch changelog of {}: {}", issueKey, cause.getMessage());
+            throw new RuntimeException("Failed to fetch changelog: " + cause.getMessage(), cause);
+        }));
+    }
+    
+    /**
+     * Enqueue a call on the dispatcher and handle its response on the callback thread.
+     * Latency (including queueing and rate limit waits), errors and body sizes are
+     * recorded under {@code http.<endpoint>.*}. Cancelling the returned future cancels the
+     * call, whether it is still queued, waiting on the rate limiter or in flight.
+     */
+    private <T> CompletableFuture<T> execute(String endpoint, Request request, ResponseHandler<T> handler) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        TransferCounter counter = new TransferCounter();
+        Request countedRequest = request.newBuilder().tag(TransferCounter.class, counter).build();
+        long startNanos = System.nanoTime();
+        
+        Call call = httpClient.newCall(countedRequest);
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                metrics.counter("http." + endpoint + ".errors").increment();
+                future.completeExceptionally(e);
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                T result;
+                try (response) {
+                    result = handler.handle(response);
+                } catch (Exception e) {
+                    metrics.counter("http." + endpoint + ".errors").increment();
+                    future.completeExceptionally(e);
+                    return;
                 }
                 
-            } catch (Exception e) {
-                logger.error("Search failed for JQL '{}': {}", jql, e.getMessage());
-                throw new RuntimeException("Search failed: " + e.getMessage(), e);
+                // Wire bytes are only final once the body is closed
+                metrics.timer("http." + endpoint + ".latency").recordSince(startNanos);
+                metrics.histogram("http." + endpoint + ".wireBytes").record(counter.getWireBytes());
+                metrics.histogram("http." + endpoint + ".decodedBytes").record(counter.getDecodedBytes());
+                transportMetrics.recordDecodedBytes(counter.getDecodedBytes());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} {}: {}", call.request().method(), call.request().url().encodedPath(), counter);
+                }
+                future.complete(result);
+            }
+        });
+        
+        return future;
+    }
+    
+    /**
+     * Cancel a call's future when a stage derived from it is cancelled, so cancelling what
+     * a public method returns reaches the call
+     */
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<?> call, CompletableFuture<T> stage) {
+        stage.whenComplete((result, e) -> {
+            if (stage.isCancelled()) {
+                call.cancel(true);
             }
         });
+        return stage;
+    }
+    
+    /**
+     * Parse a JSON response body by streaming the (transparently gunzipped) source into
+     * the parser, so large search pages are never materialised as a String
+     */
+    private JsonNode readJson(Response response) throws IOException {
+        ResponseBody body = response.body();
+        TransferCounter counter = response.request().tag(TransferCounter.class);
+        
+        BufferedSource source = counter != null
+                ? Okio.buffer(counter.countDecoded(body.source()))
+                : body.source();
+        return objectMapper.readTree(source.inputStream());
+    }
+    
+    /**
+     * Unwrap the CompletionException added by exceptionally stages
+     */
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+    }
+    
+    /**
+     * Handles a response; the response is closed afterwards
+     */
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        T handle(Response response) throws Exception;
     }
     
     /**
@@ -154,6 +398,7 @@ public class JiraApiService {
         issue.setDescription(fields.path("description").asText(""));
         issue.setCreated(fields.path("created").asText());
         issue.setUpdated(fields.path("updated").asText());
+        issue.setResolved(fields.path("resolutiondate").asText(null));
         
         // Status
         JsonNode statusNode = fields.path("status");
@@ -276,9 +521,37 @@ public class JiraApiService {
         comments.setComments(commentList);
         issue.setComment(comments);
         
+        // Changelog, only present when expanded
+        JsonNode changelogNode = jsonNode.path("changelog");
+        if (changelogNode.isObject()) {
+            JsonNode histories = changelogNode.path("histories");
+            issue.setChangelog(new IssueChangelog(parseStatusChanges(histories),
+                    changelogNode.path("startAt").asInt(), histories.size(), changelogNode.path("total").asInt()));
+        }
+        
         return issue;
     }
     
+    /**
+     * Parse the status changes out of changelog histories; other field changes are skipped
+     */
+    private List<StatusChange> parseStatusChanges(JsonNode histories) {
+        List<StatusChange> changes = new ArrayList<>();
+        for (JsonNode history : histories) {
+            long epochMillis = JiraDateUtils.parseEpochMillis(history.path("created").asText(null));
+            if (epochMillis == JiraDateUtils.UNKNOWN) {
+                continue;
+            }
+            for (JsonNode item : history.path("items")) {
+                if ("status".equals(item.path("field").asText())) {
+                    changes.add(new StatusChange(item.path("fromString").asText(null),
+                            item.path("toString").asText(null), epochMillis));
+                }
+            }
+        }
+        return changes;
+    }
+    
     /**
      * Parse search result from JSON response
      */
@@ -293,7 +566,9 @@ public class JiraApiService {
         List<JiraIssue> issues = new ArrayList<>();
         if (issuesNode.isArray()) {
             for (JsonNode issueNode : issuesNode) {
+                long parseStart = System.nanoTime();
                 JiraIssue issue = parseIssueFromJson(issueNode);
+                issueParseTimer.recordSince(parseStart);
                 issues.add(issue);
             }
         }
@@ -316,6 +591,7 @@ public class JiraApiService {
         fields.add("project");
         fields.add("created");
         fields.add("updated");
+        fields.add("resolutiondate");
         fields.add("components");
         fields.add("fixVersions");
         fields.add("customfield_10020");
@@ -329,11 +605,16 @@ public class JiraApiService {
      */
     private static class SearchRequest {
         public String jql;
+        public int startAt;
         public int maxResults;
         public List<String> fields;
         
-        public SearchRequest(String jql, int maxResults, List<String> fields) {
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public List<String> expand;
+        
+        public SearchRequest(String jql, int startAt, int maxResults, List<String> fields) {
             this.jql = jql;
+            this.startAt = startAt;
             this.maxResults = maxResults;
             this.fields = fields;
         }
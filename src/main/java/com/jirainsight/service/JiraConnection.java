@@ -0,0 +1,348 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraAccount;
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.JiraSearchResult;
+import com.jirainsight.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A connection to one Jira site.
+ * <p>
+ * Each connection has its own API service, and so its own HTTP client, connection pool,
+ * dispatcher and rate limiter, so a slow or throttled site does not hold up the others.
+ * Issues fetched through the connection are kept in a bounded cache, and the project
+ * keys seen on the site are remembered so key lookups can go to the right site.
+ * <p>
+ * The account from {@code /myself} is fetched once when the connection is tested and
+ * cached. An idle connection can be probed with the same call to keep its TLS session
+ * warm and to notice expired credentials before the user's next search does.
+ * <p>
+ * When a request fails because the site cannot be reached, the connection goes offline.
+ * While offline, searches and issue lookups are answered from the cache without touching
+ * the network, so nothing waits for a connect timeout, and a refresh of each answer is
+ * queued. The queued refreshes are replayed, in order and once each, when a probe finds
+ * the site reachable again.
+ * <p>
+ * A connection made while its site cannot be reached starts offline with an empty cache,
+ * so offline answers only cover what was fetched through it during the current run.
+ */
+public class JiraConnection {
+
+    static final int MAX_CACHED_ISSUES = 5_000;
+    static final int MAX_CACHED_SEARCHES = 200;
+
+    /**
+     * Health of a connection as of its last request
+     */
+    public enum Health {
+        HEALTHY,
+        UNREACHABLE,
+        UNAUTHORIZED
+    }
+
+    private final JiraCredentials credentials;
+    private final JiraApiService apiService;
+    private final Set<String> projectKeys = ConcurrentHashMap.newKeySet();
+
+    private volatile JiraAccount account;
+    private volatile Health health = Health.HEALTHY;
+    private volatile long lastActivityNanos = System.nanoTime();
+
+    // Least recently used issues are evicted first; guarded by itself
+    private final Map<String, JiraIssue> issueCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JiraIssue> eldest) {
+            return size() > MAX_CACHED_ISSUES;
+        }
+    };
+
+    // "startAt:maxResults:jql" -> last result of that search page; guarded by itself
+    private final Map<String, CachedSearch> searchCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSearch> eldest) {
+            return size() > MAX_CACHED_SEARCHES;
+        }
+    };
+
+    // Request key -> refresh to replay when the site is back, in the order first queued; guarded by itself
+    private final Map<String, Supplier<CompletableFuture<?>>> refreshQueue = new LinkedHashMap<>();
+
+    public JiraConnection(JiraCredentials credentials, JiraApiService apiService) {
+        this.credentials = credentials;
+        this.apiService = apiService;
+    }
+
+    public JiraCredentials getCredentials() {
+        return credentials;
+    }
+
+    public String getDomain() {
+        return credentials.getDomain();
+    }
+
+    public JiraApiService getApiService() {
+        return apiService;
+    }
+
+    /**
+     * Test the connection's credentials against the site and cache the account
+     *
+     * @return true if the site accepted the credentials or could not be reached, in which
+     *         case the connection is offline until a probe gets through; false if the site
+     *         rejected the request
+     */
+    public CompletableFuture<Boolean> test() {
+        return fetchAccount().handle((fetched, e) -> e == null || isOffline());
+    }
+
+    /**
+     * Probe the site with {@code /myself} if no request has been made for at least the
+     * given idle time; completes with the resulting health
+     */
+    public CompletableFuture<Health> probe(long idleSeconds) {
+        // An offline site is probed whenever asked, since that is how it comes back
+        if (health != Health.UNREACHABLE
+                && System.nanoTime() - lastActivityNanos < TimeUnit.SECONDS.toNanos(idleSeconds)) {
+            return CompletableFuture.completedFuture(health);
+        }
+        return fetchAccount().handle((fetched, e) -> health);
+    }
+
+    /**
+     * Get the account the credentials authenticate as, or null before the first test
+     */
+    public JiraAccount getAccount() {
+        return account;
+    }
+
+    public Health getHealth() {
+        return health;
+    }
+
+    /**
+     * Check whether the site could not be reached on the last request
+     */
+    public boolean isOffline() {
+        return health == Health.UNREACHABLE;
+    }
+
+    private CompletableFuture<JiraAccount> fetchAccount() {
+        return track(apiService.getMyself(credentials)).thenApply(fetched -> {
+            account = fetched;
+            return fetched;
+        });
+    }
+
+    /**
+     * Fetch an issue by key and cache it; while the site is offline, or if it turns out
+     * to be, the cached issue is returned and a refresh queued
+     */
+    public CompletableFuture<JiraIssue> getIssue(String issueKey) {
+        if (isOffline()) {
+            return serveStale("issue:" + issueKey, peekIssue(issueKey), () -> getIssue(issueKey));
+        }
+        return track(apiService.getIssueByKey(issueKey, credentials)).thenApply(issue -> {
+            cache(List.of(issue));
+            return issue;
+        }).exceptionallyCompose(e -> fallBack(e, "issue:" + issueKey, () -> peekIssue(issueKey), () -> getIssue(issueKey)));
+    }
+
+    /**
+     * Search a page of issues and cache them; while the site is offline, or if it turns
+     * out to be, the cached page is returned marked stale and a refresh queued
+     */
+    public CompletableFuture<JiraSearchResult> search(String jql, int startAt, int maxResults) {
+        String searchKey = startAt + ":" + maxResults + ":" + jql;
+        if (isOffline()) {
+            return serveStale("search:" + searchKey, staleSearch(searchKey), () -> search(jql, startAt, maxResults));
+        }
+        return track(apiService.searchIssues(jql, startAt, maxResults, credentials)).thenApply(result -> {
+            cache(result.getIssues());
+            synchronized (searchCache) {
+                searchCache.put(searchKey, new CachedSearch(result, System.currentTimeMillis()));
+            }
+            return result;
+        }).exceptionallyCompose(e -> fallBack(e, "search:" + searchKey,
+                () -> staleSearch(searchKey), () -> search(jql, startAt, maxResults)));
+    }
+
+    /**
+     * Answer a request that just failed from cache if the failure took the site offline
+     */
+    private <T> CompletableFuture<T> fallBack(Throwable failure, String requestKey,
+                                              Supplier<T> cached, Supplier<CompletableFuture<?>> refresh) {
+        if (!isOffline()) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        return serveStale(requestKey, cached.get(), refresh);
+    }
+
+    private <T> CompletableFuture<T> serveStale(String requestKey, T cached, Supplier<CompletableFuture<?>> refresh) {
+        synchronized (refreshQueue) {
+            refreshQueue.putIfAbsent(requestKey, refresh);
+        }
+        return cached != null
+                ? CompletableFuture.completedFuture(cached)
+                : CompletableFuture.failedFuture(new SiteOfflineException(getDomain()));
+    }
+
+    /**
+     * Replay the refreshes queued while the site was offline; refreshes that find the
+     * site still offline queue themselves again
+     */
+    public CompletableFuture<Void> replayRefreshes() {
+        List<Supplier<CompletableFuture<?>>> refreshes;
+        synchronized (refreshQueue) {
+            refreshes = new ArrayList<>(refreshQueue.values());
+            refreshQueue.clear();
+        }
+        CompletableFuture<?>[] replayed = refreshes.stream()
+                .map(refresh -> refresh.get().handle((value, e) -> null))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(replayed);
+    }
+
+    public int getQueuedRefreshCount() {
+        synchronized (refreshQueue) {
+            return refreshQueue.size();
+        }
+    }
+
+    private JiraIssue peekIssue(String issueKey) {
+        synchronized (issueCache) {
+            return issueCache.get(issueKey);
+        }
+    }
+
+    /**
+     * Copy a cached search page, marked with when it was fetched
+     */
+    private JiraSearchResult staleSearch(String searchKey) {
+        CachedSearch cached;
+        synchronized (searchCache) {
+            cached = searchCache.get(searchKey);
+        }
+        if (cached == null) {
+            return null;
+        }
+        JiraSearchResult stale = new JiraSearchResult(new ArrayList<>(cached.result.getIssues()),
+                cached.result.getTotal(), cached.result.getStartAt(), cached.result.getMaxResults());
+        stale.setCachedAtMillis(cached.fetchedAtMillis);
+        return stale;
+    }
+
+    /**
+     * Get a cached issue, or null if it has not been fetched through this connection
+     */
+    public JiraIssue getCachedIssue(String issueKey) {
+        JiraIssue issue;
+        synchronized (issueCache) {
+            issue = issueCache.get(issueKey);
+        }
+        MetricsRegistry.getInstance().recordCacheAccess("issues", issue != null ? 1 : 0, issue != null ? 0 : 1);
+        return issue;
+    }
+
+    public int getCachedIssueCount() {
+        synchronized (issueCache) {
+            return issueCache.size();
+        }
+    }
+
+    /**
+     * Check whether issues of a project have been seen on this site
+     */
+    public boolean knowsProject(String projectKey) {
+        return projectKeys.contains(projectKey.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Release the connection's HTTP client
+     */
+    public void close() {
+        apiService.close();
+    }
+
+    /**
+     * Record a request's completion time and update the health from its outcome
+     */
+    private <T> CompletableFuture<T> track(CompletableFuture<T> request) {
+        return request.whenComplete((value, e) -> {
+            lastActivityNanos = System.nanoTime();
+            health = healthOf(e);
+        });
+    }
+
+    /**
+     * Classify a request failure; errors other than transport failures and rejected
+     * credentials, e.g. a missing issue, leave the connection healthy
+     */
+    static Health healthOf(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JiraApiException apiException && apiException.isUnauthorized()) {
+                return Health.UNAUTHORIZED;
+            }
+            if (cause instanceof IOException) {
+                return Health.UNREACHABLE;
+            }
+        }
+        return Health.HEALTHY;
+    }
+
+    private void cache(List<JiraIssue> issues) {
+        synchronized (issueCache) {
+            for (JiraIssue issue : issues) {
+                issueCache.put(issue.getKey(), issue);
+            }
+        }
+        for (JiraIssue issue : issues) {
+            String projectKey = projectKeyOf(issue.getKey());
+            if (projectKey != null) {
+                projectKeys.add(projectKey);
+            }
+        }
+    }
+
+    /**
+     * Get the project part of an issue key, e.g. "PROJ" for "PROJ-123"
+     */
+    static String projectKeyOf(String issueKey) {
+        int dash = issueKey != null ? issueKey.lastIndexOf('-') : -1;
+        return dash > 0 ? issueKey.substring(0, dash).toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static final class CachedSearch {
+        private final JiraSearchResult result;
+        private final long fetchedAtMillis;
+
+        private CachedSearch(JiraSearchResult result, long fetchedAtMillis) {
+            this.result = result;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JiraConnection{" +
+                "domain='" + getDomain() + '\'' +
+                ", account=" + (account != null ? account.getDisplayName() : null) +
+                ", health=" + health +
+                ", queuedRefreshes=" + getQueuedRefreshCount() +
+                ", cachedIssues=" + getCachedIssueCount() +
+                ", projects=" + projectKeys.size() +
+                '}';
+    }
+}
@@ -0,0 +1,197 @@
+package com.jirainsight.service;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkHttp interceptor that throttles requests per Jira domain and retries throttled ones.
+ * <p>
+ * Each host gets its own {@link RateLimiter}. Responses with 429 or 503 shrink the host's
+ * concurrency and pause it for the server's Retry-After, and X-RateLimit-* headers pause
+ * the host before its budget runs out. GETs and requests tagged {@link Retry#IDEMPOTENT}
+ * are retried with jittered exponential backoff.
+ * <p>
+ * As an application interceptor, it waits for the limiter and sleeps through backoff on
+ * the dispatcher thread running the call, so throttled requests hold dispatcher threads
+ * (and count against {@code maxRequests}) until they are sent or give up.
+ */
+public class RateLimitInterceptor implements Interceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    static final long BASE_BACKOFF_MILLIS = 500;
+    static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    /**
+     * Request tag marking a non-GET request as safe to retry, such as a JQL search POST
+     */
+    public enum Retry {
+        IDEMPOTENT
+    }
+
+    private final TransportProfile transportProfile;
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(TransportProfile transportProfile) {
+        this.transportProfile = transportProfile;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RateLimiter limiter = getLimiter(request.url().host());
+        boolean retryable = isRetryable(request);
+
+        for (int attempt = 0; ; attempt++) {
+            // A call cancelled while queued or backing off gives up before taking a permit
+            if (chain.call().isCanceled()) {
+                throw new IOException("Canceled");
+            }
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for rate limit");
+            }
+
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException | RuntimeException e) {
+                limiter.release(false);
+                throw e;
+            }
+
+            boolean throttled = isThrottled(response.code());
+            limiter.release(throttled);
+            applyRateLimitHeaders(limiter, response);
+
+            if (!throttled) {
+                return response;
+            }
+
+            long retryAfterMillis = parseRetryAfter(response.header("Retry-After"), System.currentTimeMillis());
+            if (retryAfterMillis > 0) {
+                limiter.pauseFor(retryAfterMillis);
+            }
+
+            if (!retryable || attempt >= transportProfile.getMaxRetries()) {
+                logger.warn("Request to {} throttled with {} after {} attempts",
+                        request.url().host(), response.code(), attempt + 1);
+                return response;
+            }
+
+            long delayMillis = Math.max(retryAfterMillis, backoffMillis(attempt));
+            logger.info("Request to {} throttled with {}, retrying in {} ms (concurrency limit {})",
+                    request.url().host(), response.code(), delayMillis, limiter.getConcurrencyLimit());
+            response.close();
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted during retry backoff");
+            }
+        }
+    }
+
+    /**
+     * Get the rate limiter for a host, creating it on first use
+     */
+    public RateLimiter getLimiter(String host) {
+        return limiters.computeIfAbsent(host, h -> new RateLimiter(
+                transportProfile.getRateLimitPerSecond(),
+                transportProfile.getRateLimitBurst(),
+                transportProfile.getMaxRequestsPerHost()));
+    }
+
+    private static boolean isRetryable(Request request) {
+        return "GET".equals(request.method()) || request.tag(Retry.class) == Retry.IDEMPOTENT;
+    }
+
+    private static boolean isThrottled(int code) {
+        return code == 429 || code == 503;
+    }
+
+    /**
+     * Pause the host when Jira reports its rate limit budget is exhausted
+     */
+    private static void applyRateLimitHeaders(RateLimiter limiter, Response response) {
+        String remaining = response.header("X-RateLimit-Remaining");
+        if (remaining == null) {
+            return;
+        }
+
+        try {
+            if (Long.parseLong(remaining.trim()) <= 0) {
+                long resetMillis = parseReset(response.header("X-RateLimit-Reset"), System.currentTimeMillis());
+                if (resetMillis > 0) {
+                    limiter.pauseFor(resetMillis);
+                }
+            }
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring malformed X-RateLimit-Remaining: {}", remaining);
+        }
+    }
+
+    /**
+     * Compute a jittered exponential backoff delay for an attempt, between half and all of the ceiling
+     */
+    static long backoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    /**
+     * Parse a Retry-After header given in seconds or as an HTTP date
+     *
+     * @return the delay in milliseconds, or 0 if the header is absent or unparseable
+     */
+    static long parseRetryAfter(String value, long nowMillis) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                long at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                return Math.max(0, at - nowMillis);
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Parse an X-RateLimit-Reset header given as an ISO-8601 instant
+     *
+     * @return the delay in milliseconds, or 0 if the header is absent or unparseable
+     */
+    static long parseReset(String value, long nowMillis) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+
+        try {
+            return Math.max(0, Instant.parse(value.trim()).toEpochMilli() - nowMillis);
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+}
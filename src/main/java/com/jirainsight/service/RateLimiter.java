@@ -0,0 +1,172 @@
+package com.jirainsight.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rate limiter for a single Jira domain.
+ * <p>
+ * Combines a token bucket that caps the request rate with an adaptive concurrency limit:
+ * each successful response raises the limit additively, each throttled response halves
+ * it (AIMD). A Retry-After or exhausted X-RateLimit budget pauses all requests to the
+ * domain until the server says it is safe to resume.
+ * <p>
+ * Waiting is a blocking sleep on the calling thread. Called from an OkHttp application
+ * interceptor, a throttled request keeps its dispatcher thread busy for the whole wait.
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final int maxConcurrency;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private double concurrencyLimit;
+    private int inFlight;
+    private long throttledCount;
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxConcurrency) {
+        this(permitsPerSecond, burst, maxConcurrency, System.nanoTime());
+    }
+
+    // Constructor with an explicit start time for deterministic tests
+    RateLimiter(double permitsPerSecond, int burst, int maxConcurrency, long nowNanos) {
+        if (!(permitsPerSecond > 0) || burst < 1 || maxConcurrency < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate, burst and concurrency: "
+                    + permitsPerSecond + "/s, burst " + burst + ", concurrency " + maxConcurrency);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxConcurrency = maxConcurrency;
+        this.tokens = burst;
+        this.lastRefillNanos = nowNanos;
+        this.concurrencyLimit = maxConcurrency;
+    }
+
+    /**
+     * Wait for a concurrency slot and a token, then mark the request in flight.
+     * Every successful call must be paired with {@link #release(boolean)}.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= Math.max(1, (int) concurrencyLimit)) {
+                slotAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+
+        long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                release(false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Take a token and return how long the caller must wait before sending.
+     * Tokens may go negative, which queues callers behind each other.
+     */
+    long reserve(long nowNanos) {
+        lock.lock();
+        try {
+            refill(nowNanos);
+            tokens -= 1;
+
+            long waitNanos = tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * 1_000_000_000L);
+            long pauseNanos = pausedUntilNanos - nowNanos;
+            return Math.max(waitNanos, pauseNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark a request finished, adapting the concurrency limit
+     *
+     * @param throttled whether the server throttled the request
+     */
+    public void release(boolean throttled) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (throttled) {
+                concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+                throttledCount++;
+            } else {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+            }
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pause all requests to this domain for the given time
+     */
+    public void pauseFor(long delayMillis) {
+        pauseUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    }
+
+    void pauseUntil(long untilNanos) {
+        lock.lock();
+        try {
+            pausedUntilNanos = Math.max(pausedUntilNanos, untilNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the current adaptive concurrency limit
+     */
+    public int getConcurrencyLimit() {
+        lock.lock();
+        try {
+            return Math.max(1, (int) concurrencyLimit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of throttled responses seen
+     */
+    public long getThrottledCount() {
+        lock.lock();
+        try {
+            return throttledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long nowNanos) {
+        if (nowNanos > lastRefillNanos) {
+            tokens = Math.min(burst, tokens + (nowNanos - lastRefillNanos) / 1_000_000_000.0 * permitsPerSecond);
+            lastRefillNanos = nowNanos;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter{" +
+                "permitsPerSecond=" + permitsPerSecond +
+                ", concurrencyLimit=" + getConcurrencyLimit() +
+                ", throttledCount=" + getThrottledCount() +
+                '}';
+    }
+}
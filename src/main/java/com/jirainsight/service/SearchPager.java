@@ -0,0 +1,98 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraSearchResult;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Pages through the full result of a JQL search on one site for bulk jobs.
+ * <p>
+ * Pages come straight from the site's API service, bypassing the connection caches,
+ * and the next page is requested before the current one is returned, so fetching
+ * overlaps with whatever the caller does with each page. At most two pages are held
+ * at once. Closing the pager cancels the page still in flight.
+ */
+class SearchPager implements AutoCloseable {
+
+    private final JiraConnection connection;
+    private final String jql;
+    private final int pageSize;
+    private final boolean expandChangelog;
+    private final String operation;
+
+    private CompletableFuture<JiraSearchResult> next;
+    private long total;
+
+    /**
+     * @param operation what the pages are for, e.g. "Export", to name failures
+     */
+    SearchPager(JiraConnection connection, String jql, int pageSize, boolean expandChangelog, String operation) {
+        this.connection = connection;
+        this.jql = jql;
+        this.pageSize = pageSize;
+        this.expandChangelog = expandChangelog;
+        this.operation = operation;
+        this.next = fetch(0);
+    }
+
+    /**
+     * Wait for the next page and request the one after it
+     *
+     * @return the page, or null once the whole result has been returned
+     * @throws IOException if the page could not be fetched
+     * @throws InterruptedException if the thread was interrupted; the page is cancelled
+     */
+    JiraSearchResult next() throws IOException, InterruptedException {
+        if (next == null) {
+            return null;
+        }
+        JiraSearchResult page = await(next, connection, operation);
+        int fetched = page.getIssues().size();
+        int nextStartAt = page.getStartAt() + fetched;
+        if (page.getStartAt() == 0) {
+            total = page.getTotal();
+        }
+
+        next = fetched > 0 && nextStartAt < page.getTotal() ? fetch(nextStartAt) : null;
+        return page;
+    }
+
+    /**
+     * Get the number of matching issues the site reported, once the first page is in
+     */
+    long getTotal() {
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (next != null) {
+            next.cancel(true);
+            next = null;
+        }
+    }
+
+    private CompletableFuture<JiraSearchResult> fetch(int startAt) {
+        return connection.getApiService().searchIssues(jql, startAt, pageSize, expandChangelog,
+                connection.getCredentials());
+    }
+
+    /**
+     * Wait for a request to a site, turning its failure into an IOException naming the site
+     * and cancelling it if the thread is interrupted
+     */
+    static <T> T await(CompletableFuture<T> future, JiraConnection connection, String operation)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IOException(operation + " failed on " + connection.getDomain() + ": " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.IssuePriority;
+import com.jirainsight.model.IssueProject;
+import com.jirainsight.model.IssueSprint;
+import com.jirainsight.model.IssueStatus;
+import com.jirainsight.model.IssueStatus.StatusCategory;
+import com.jirainsight.model.IssueType;
+import com.jirainsight.model.IssueUser;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.SessionSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the session snapshot as a compact binary file.
+ * <p>
+ * Layout: magic, version, a table of distinct strings, then the session and issue
+ * fields as indexes into that table, so repeated statuses, assignees and sprints are
+ * stored once. The file is written to a temporary file and moved into place, and is
+ * memory-mapped when read so startup can paint the previous results without parsing
+ * JSON. Only the fields needed for the list, facets and the details header are kept;
+ * descriptions, comments and subtasks come back with the revalidation, so issue bodies
+ * are not left in plaintext outside the encrypted storage. Lengths and counts read from
+ * the file are checked against the bytes left before anything is allocated, so a
+ * corrupt file reads as no snapshot.
+ */
+public class SessionSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionSnapshotStore.class);
+
+    private static final int MAGIC = 0x4A495353; // "JISS"
+    private static final short VERSION = 4;
+    private static final int NULL_REF = -1;
+
+    private final Path file;
+
+    public SessionSnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the store at the default location in the user's home directory
+     */
+    public static SessionSnapshotStore defaultStore() {
+        return new SessionSnapshotStore(Path.of(System.getProperty("user.home"), ".jirainsight", "session.bin"));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Write a snapshot, replacing any previous one
+     */
+    public void write(SessionSnapshot snapshot) throws IOException {
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+
+        out.writeLong(snapshot.getSavedAtMillis());
+        out.writeInt(snapshot.getDomains().size());
+        for (String domain : snapshot.getDomains()) {
+            out.writeInt(strings.ref(domain));
+        }
+        out.writeInt(strings.ref(snapshot.getEmail()));
+        out.writeInt(strings.ref(snapshot.getQuery()));
+        out.writeInt(strings.ref(snapshot.getJqlText()));
+        out.writeInt(strings.ref(snapshot.getQuickSearchText()));
+        out.writeInt(strings.ref(snapshot.getSummary()));
+        out.writeInt(strings.ref(snapshot.getSelectedKey()));
+
+        out.writeInt(snapshot.getIssues().size());
+        for (JiraIssue issue : snapshot.getIssues()) {
+            writeIssue(out, strings, issue);
+        }
+        out.flush();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp);
+             DataOutputStream fileOut = new DataOutputStream(new BufferedOutputStream(stream))) {
+            fileOut.writeInt(MAGIC);
+            fileOut.writeShort(VERSION);
+            strings.writeTo(fileOut);
+            body.writeTo(fileOut);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        logger.info("Saved session snapshot with {} issues ({} bytes)", snapshot.getIssues().size(), Files.size(file));
+    }
+
+    /**
+     * Read the snapshot
+     *
+     * @return the snapshot, or null if there is none or it cannot be read
+     */
+    public SessionSnapshot read() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable session snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Delete the snapshot, e.g. when the user disconnects
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete session snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    static SessionSnapshot decode(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("not a session snapshot");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalStateException("unsupported snapshot version " + version);
+        }
+
+        String[] strings = new String[readCount(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        SessionSnapshot snapshot = new SessionSnapshot();
+        snapshot.setSavedAtMillis(buffer.getLong());
+        int domainCount = readCount(buffer);
+        List<String> domains = new ArrayList<>(domainCount);
+        for (int i = 0; i < domainCount; i++) {
+            domains.add(string(buffer, strings));
+        }
+        snapshot.setDomains(domains);
+        snapshot.setEmail(string(buffer, strings));
+        snapshot.setQuery(string(buffer, strings));
+        snapshot.setJqlText(string(buffer, strings));
+        snapshot.setQuickSearchText(string(buffer, strings));
+        snapshot.setSummary(string(buffer, strings));
+        snapshot.setSelectedKey(string(buffer, strings));
+
+        int issueCount = readCount(buffer);
+        List<JiraIssue> issues = new ArrayList<>(issueCount);
+        for (int i = 0; i < issueCount; i++) {
+            issues.add(readIssue(buffer, strings));
+        }
+        snapshot.setIssues(issues);
+
+        return snapshot;
+    }
+
+    private static void writeIssue(DataOutputStream out, StringTable strings, JiraIssue issue) throws IOException {
+        out.writeInt(strings.ref(issue.getKey()));
+        out.writeInt(strings.ref(issue.getSite()));
+        out.writeInt(strings.ref(issue.getSummary()));
+        out.writeInt(strings.ref(issue.getCreated()));
+        out.writeInt(strings.ref(issue.getUpdated()));
+        out.writeInt(strings.ref(issue.getResolved()));
+
+        IssueStatus status = issue.getStatus();
+        out.writeInt(strings.ref(status != null ? status.getName() : null));
+        out.writeInt(strings.ref(status != null && status.getStatusCategory() != null
+                ? status.getStatusCategory().getKey() : null));
+        out.writeInt(strings.ref(issue.getPriority() != null ? issue.getPriority().getName() : null));
+        out.writeInt(strings.ref(issue.getIssueType() != null ? issue.getIssueType().getName() : null));
+
+        IssueProject project = issue.getProject();
+        out.writeInt(strings.ref(project != null ? project.getKey() : null));
+        out.writeInt(strings.ref(project != null ? project.getName() : null));
+
+        writeUser(out, strings, issue.getAssignee());
+        writeUser(out, strings, issue.getReporter());
+
+        List<IssueSprint> sprints = issue.getSprints();
+        out.writeInt(sprints != null ? sprints.size() : -1);
+        if (sprints != null) {
+            for (IssueSprint sprint : sprints) {
+                out.writeInt(strings.ref(sprint.getName()));
+            }
+        }
+    }
+
+    private static JiraIssue readIssue(ByteBuffer buffer, String[] strings) {
+        JiraIssue issue = new JiraIssue();
+        issue.setKey(string(buffer, strings));
+        issue.setSite(string(buffer, strings));
+        issue.setSummary(string(buffer, strings));
+        issue.setCreated(string(buffer, strings));
+        issue.setUpdated(string(buffer, strings));
+        issue.setResolved(string(buffer, strings));
+
+        String statusName = string(buffer, strings);
+        String categoryKey = string(buffer, strings);
+        if (statusName != null) {
+            issue.setStatus(new IssueStatus(statusName, new StatusCategory(categoryKey)));
+        }
+
+        String priorityName = string(buffer, strings);
+        if (priorityName != null) {
+            issue.setPriority(new IssuePriority(priorityName));
+        }
+        String issueTypeName = string(buffer, strings);
+        if (issueTypeName != null) {
+            issue.setIssueType(new IssueType(issueTypeName));
+        }
+
+        String projectKey = string(buffer, strings);
+        String projectName = string(buffer, strings);
+        if (projectKey != null) {
+            issue.setProject(new IssueProject(projectKey, projectName));
+        }
+
+        issue.setAssignee(readUser(buffer, strings));
+        issue.setReporter(readUser(buffer, strings));
+
+        int sprintCount = buffer.getInt();
+        if (sprintCount > buffer.remaining() / Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        if (sprintCount >= 0) {
+            List<IssueSprint> sprints = new ArrayList<>(sprintCount);
+            for (int i = 0; i < sprintCount; i++) {
+                sprints.add(new IssueSprint(string(buffer, strings)));
+            }
+            issue.setSprints(sprints);
+        }
+
+        return issue;
+    }
+
+    private static void writeUser(DataOutputStream out, StringTable strings, IssueUser user) throws IOException {
+        out.writeInt(strings.ref(user != null ? user.getDisplayName() : null));
+        out.writeInt(strings.ref(user != null ? user.getAccountId() : null));
+    }
+
+    private static IssueUser readUser(ByteBuffer buffer, String[] strings) {
+        String displayName = string(buffer, strings);
+        String accountId = string(buffer, strings);
+        return displayName != null || accountId != null ? new IssueUser(displayName, accountId) : null;
+    }
+
+    /**
+     * Read a count of entries of at least four bytes each, rejecting one the rest of the
+     * buffer cannot hold
+     */
+    private static int readCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static String string(ByteBuffer buffer, String[] strings) {
+        int ref = buffer.getInt();
+        return ref == NULL_REF ? null : strings[ref];
+    }
+
+    /**
+     * Interns strings to table indexes while encoding
+     */
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ref(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            return indexes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.jirainsight.service;
+
+import java.io.IOException;
+
+/**
+ * A request that was not sent because its site is offline and the result is not cached
+ */
+public class SiteOfflineException extends IOException {
+
+    public SiteOfflineException(String domain) {
+        super(domain + " is offline and the result is not cached");
+    }
+}
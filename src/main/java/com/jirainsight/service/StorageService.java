@@ -2,204 +2,138 @@ package com.jirainsight.service;
 
 import com.jirainsight.model.JiraCredentials;
 import com.jirainsight.model.User;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * In-memory storage service for managing users and credentials
- * In a production application, this would be replaced with a proper database
+ * Storage for users and their Jira credentials.
+ * <p>
+ * The application uses an encrypted H2 database in the user's home directory, so
+ * credentials saved with "remember credentials" survive a restart. Setting the system
+ * property {@code jirainsight.storage=memory} selects a purely in-memory store instead.
  */
-public class StorageService {
-    
-    private static final Logger logger = LoggerFactory.getLogger(StorageService.class);
-    
-    private final Map<String, User> users = new ConcurrentHashMap<>();
-    private final Map<String, JiraCredentials> credentials = new ConcurrentHashMap<>();
-    private final Map<String, String> userCredentialsMapping = new ConcurrentHashMap<>();
-    
-    private static StorageService instance;
-    
-    private StorageService() {}
-    
-    /**
-     * Get singleton instance
-     */
-    public static synchronized StorageService getInstance() {
-        if (instance == null) {
-            instance = new StorageService();
-        }
-        return instance;
+public interface StorageService {
+
+    /**
+     * System property selecting the storage backend: "file" (default) or "memory"
+     */
+    String BACKEND_PROPERTY = "jirainsight.storage";
+
+    /**
+     * Get the application's storage service, opening it on first use
+     */
+    static StorageService getInstance() {
+        return StorageServiceProvider.getInstance();
     }
-    
-    /**
-     * Create a new user
-     */
-    public User createUser(String username, String password) {
-        User user = new User(username, password);
-        user.setId(UUID.randomUUID().toString());
-        
-        users.put(user.getId(), user);
-        logger.info("Created user: {}", username);
-        
-        return user;
+
+    /**
+     * Close the application's storage service if it has been opened
+     */
+    static void shutdown() {
+        StorageServiceProvider.shutdown();
     }
-    
+
+    /**
+     * Create a user, or return the existing user with this username with its password updated
+     */
+    User createUser(String username, String password);
+
     /**
      * Get user by ID
      */
-    public User getUserById(String userId) {
-        return users.get(userId);
-    }
-    
+    User getUserById(String userId);
+
     /**
      * Get user by username
      */
-    public User getUserByUsername(String username) {
-        return users.values().stream()
-                .filter(user -> username.equals(user.getUsername()))
-                .findFirst()
-                .orElse(null);
-    }
-    
+    User getUserByUsername(String username);
+
     /**
-     * Save Jira credentials for a user
+     * Save Jira credentials for a user, replacing the user's credentials for the same site
      */
-    public JiraCredentials saveJiraCredentials(String userId, JiraCredentials jiraCredentials) {
-        // Validate user exists
-        User user = getUserById(userId);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found: " + userId);
-        }
-        
-        // Set IDs and user reference
-        jiraCredentials.setId(UUID.randomUUID().toString());
-        jiraCredentials.setUserId(userId);
-        
-        // Store credentials
-        credentials.put(jiraCredentials.getId(), jiraCredentials);
-        userCredentialsMapping.put(userId, jiraCredentials.getId());
-        
-        logger.info("Saved Jira credentials for user {} (domain: {})", userId, jiraCredentials.getDomain());
-        
-        return jiraCredentials;
-    }
-    
+    JiraCredentials saveJiraCredentials(String userId, JiraCredentials jiraCredentials);
+
     /**
-     * Get Jira credentials for a user
+     * Get the most recently created Jira credentials of a user
      */
-    public JiraCredentials getJiraCredentials(String userId) {
-        String credentialsId = userCredentialsMapping.get(userId);
-        if (credentialsId == null) {
-            return null;
-        }
-        
-        return credentials.get(credentialsId);
-    }
-    
+    JiraCredentials getJiraCredentials(String userId);
+
+    /**
+     * Get a user's Jira credentials for one site
+     */
+    JiraCredentials getJiraCredentials(String userId, String domain);
+
     /**
      * Update Jira credentials
      */
-    public JiraCredentials updateJiraCredentials(JiraCredentials updatedCredentials) {
-        if (updatedCredentials.getId() == null) {
-            throw new IllegalArgumentException("Credentials ID is required for update");
-        }
-        
-        JiraCredentials existing = credentials.get(updatedCredentials.getId());
-        if (existing == null) {
-            throw new IllegalArgumentException("Credentials not found: " + updatedCredentials.getId());
-        }
-        
-        // Update fields
-        existing.setDomain(updatedCredentials.getDomain());
-        existing.setEmail(updatedCredentials.getEmail());
-        existing.setApiToken(updatedCredentials.getApiToken());
-        existing.setActive(updatedCredentials.isActive());
-        existing.setRememberCredentials(updatedCredentials.isRememberCredentials());
-        
-        logger.info("Updated Jira credentials: {}", updatedCredentials.getId());
-        
-        return existing;
-    }
-    
+    JiraCredentials updateJiraCredentials(JiraCredentials updatedCredentials);
+
     /**
-     * Delete Jira credentials for a user
+     * Delete all Jira credentials for a user
      */
-    public boolean deleteJiraCredentials(String userId) {
-        String credentialsId = userCredentialsMapping.get(userId);
-        if (credentialsId == null) {
-            return false;
-        }
-        
-        credentials.remove(credentialsId);
-        userCredentialsMapping.remove(userId);
-        
-        logger.info("Deleted Jira credentials for user: {}", userId);
-        
-        return true;
-    }
-    
+    boolean deleteJiraCredentials(String userId);
+
+    /**
+     * Delete a user's Jira credentials for one site
+     */
+    boolean deleteJiraCredentials(String userId, String domain);
+
     /**
      * Check if user has Jira credentials
      */
-    public boolean hasJiraCredentials(String userId) {
-        return userCredentialsMapping.containsKey(userId);
-    }
-    
+    boolean hasJiraCredentials(String userId);
+
+    /**
+     * Get the active credentials the user asked to remember, oldest first
+     */
+    List<JiraCredentials> getRememberedCredentials();
+
     /**
      * Get all users (for admin purposes)
      */
-    public Map<String, User> getAllUsers() {
-        return new ConcurrentHashMap<>(users);
-    }
-    
+    Map<String, User> getAllUsers();
+
     /**
      * Get all credentials (for admin purposes)
      */
-    public Map<String, JiraCredentials> getAllCredentials() {
-        return new ConcurrentHashMap<>(credentials);
-    }
-    
+    Map<String, JiraCredentials> getAllCredentials();
+
     /**
      * Clear all data (for testing purposes)
      */
-    public void clearAll() {
-        users.clear();
-        credentials.clear();
-        userCredentialsMapping.clear();
-        logger.info("Cleared all storage data");
-    }
-    
+    void clearAll();
+
     /**
      * Get storage statistics
      */
-    public StorageStats getStats() {
-        return new StorageStats(users.size(), credentials.size());
-    }
-    
+    StorageStats getStats();
+
+    /**
+     * Release the underlying storage
+     */
+    void close();
+
     /**
      * Storage statistics
      */
-    public static class StorageStats {
+    class StorageStats {
         private final int userCount;
         private final int credentialsCount;
-        
+
         public StorageStats(int userCount, int credentialsCount) {
             this.userCount = userCount;
             this.credentialsCount = credentialsCount;
         }
-        
+
         public int getUserCount() {
             return userCount;
         }
-        
+
         public int getCredentialsCount() {
             return credentialsCount;
         }
-        
+
         @Override
         public String toString() {
             return "StorageStats{" +
@@ -0,0 +1,50 @@
+package com.jirainsight.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+/**
+ * Opens the application's storage service on first use
+ */
+final class StorageServiceProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageServiceProvider.class);
+
+    private static StorageService instance;
+
+    private StorageServiceProvider() {}
+
+    static synchronized StorageService getInstance() {
+        if (instance == null) {
+            instance = open();
+        }
+        return instance;
+    }
+
+    static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Open the configured backend, falling back to memory if the database cannot be
+     * opened, e.g. because another instance of the application holds it
+     */
+    private static StorageService open() {
+        if ("memory".equalsIgnoreCase(System.getProperty(StorageService.BACKEND_PROPERTY))) {
+            return new InMemoryStorageService();
+        }
+
+        Path directory = Path.of(System.getProperty("user.home"), ".jirainsight", "storage");
+        try {
+            return new H2StorageService(directory);
+        } catch (Exception e) {
+            logger.error("Failed to open storage in {}; credentials will not be remembered", directory, e);
+            return new InMemoryStorageService();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.jirainsight.service;
+
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Source;
+
+import java.io.IOException;
+
+/**
+ * Per-request byte counts, attached to a Request as a tag.
+ * Wire bytes are what came off the connection (compressed when the server gzips the
+ * response); decoded bytes are what the JSON parser consumed after decompression.
+ */
+public class TransferCounter {
+
+    private volatile long wireBytes;
+    private volatile long decodedBytes;
+
+    /**
+     * Record the body size read from the connection
+     */
+    void recordWireBytes(long byteCount) {
+        wireBytes += byteCount;
+    }
+
+    /**
+     * Wrap a decoded body source so every byte read through it is counted
+     */
+    Source countDecoded(Source source) {
+        return new ForwardingSource(source) {
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (read > 0) {
+                    decodedBytes += read;
+                }
+                return read;
+            }
+        };
+    }
+
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    /**
+     * Get decoded bytes per wire byte, or 1.0 if nothing was received
+     */
+    public double getCompressionRatio() {
+        return wireBytes > 0 ? (double) decodedBytes / wireBytes : 1.0;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferCounter{" +
+                "wireBytes=" + wireBytes +
+                ", decodedBytes=" + decodedBytes +
+                '}';
+    }
+}
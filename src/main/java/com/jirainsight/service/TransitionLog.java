@@ -0,0 +1,444 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.StatusChange;
+import com.jirainsight.util.JiraDateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Append-only log of issue status transitions, on disk and in primitive columns in memory.
+ * <p>
+ * A transition is stored as the issue's ordinal, the from and to status codes and the
+ * epoch millisecond it happened. Issue keys (qualified by site) and status names get
+ * ordinals the first time they are seen, written once as definition records ahead of
+ * the transitions that use them. Records are only ever appended and each append is
+ * forced to disk. When the log is opened, it is truncated at the first record that
+ * was cut short or is not valid, such as a zero-filled tail left by a power loss.
+ * Logging an issue again appends only the transitions newer than the latest one
+ * already logged for it.
+ * <p>
+ * Range queries use a time index, a permutation of the rows sorted by epoch that is
+ * extended by merging in the rows appended since the previous query.
+ */
+public class TransitionLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransitionLog.class);
+
+    private static final int MAGIC = 0x4A49544C; // "JITL"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 6;
+
+    private static final byte ISSUE_RECORD = 1;
+    private static final byte STATUS_RECORD = 2;
+    private static final byte TRANSITION_RECORD = 3;
+
+    /**
+     * Status code of a missing from or to status
+     */
+    public static final int NO_STATUS = -1;
+
+    /**
+     * Receives transitions from a range query, in time order
+     */
+    @FunctionalInterface
+    public interface TransitionVisitor {
+        void visit(int issueOrdinal, int fromStatus, int toStatus, long epochMillis);
+    }
+
+    private final Path file;
+
+    private final Map<String, Integer> issueOrdinals = new HashMap<>();
+    private final List<String> issueKeys = new ArrayList<>();
+    private final Map<String, Integer> statusCodes = new HashMap<>();
+    private final List<String> statusNames = new ArrayList<>();
+
+    // Per issue ordinal: earliest and latest logged transition
+    private long[] firstMillis = new long[64];
+    private long[] lastMillis = new long[64];
+
+    // Per transition row
+    private int size;
+    private int[] issue = new int[256];
+    private int[] from = new int[256];
+    private int[] to = new int[256];
+    private long[] epoch = new long[256];
+
+    // Rows sorted by epoch; covers rows [0, indexedCount)
+    private int[] byTime = new int[0];
+    private int indexedCount;
+
+    private TransitionLog(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the log at the default location in the user's home directory
+     */
+    public static TransitionLog openDefault() throws IOException {
+        return open(Path.of(System.getProperty("user.home"), ".jirainsight", "transitions.log"));
+    }
+
+    /**
+     * Open a log, creating it if it does not exist, and load it into memory
+     *
+     * @throws IOException if the file cannot be read or is not a transition log
+     */
+    public static TransitionLog open(Path file) throws IOException {
+        TransitionLog log = new TransitionLog(file);
+        if (!Files.exists(file)) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(channel, header);
+            }
+            return log;
+        }
+
+        long startNanos = System.nanoTime();
+        long validEnd;
+        long fileSize;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            fileSize = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            validEnd = log.load(buffer);
+        }
+
+        if (validEnd < fileSize) {
+            logger.warn("Dropping {} bytes of incomplete or invalid records at the end of {}", fileSize - validEnd, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+            }
+        }
+        logger.info("Loaded {} transitions of {} issues from {} in {} ms", log.size, log.issueKeys.size(), file,
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return log;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Append the status changes of issues, keyed by qualified issue key, in one write.
+     * Changes no newer than the latest transition already logged for an issue are skipped.
+     *
+     * @return the number of transitions appended
+     */
+    public synchronized int append(Map<String, List<StatusChange>> changesByIssue) throws IOException {
+        // New ordinals are only registered once the records are on disk
+        Map<String, Integer> newIssues = new LinkedHashMap<>();
+        Map<String, Integer> newStatuses = new LinkedHashMap<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        List<long[]> rows = new ArrayList<>();
+
+        for (Map.Entry<String, List<StatusChange>> entry : changesByIssue.entrySet()) {
+            Integer known = issueOrdinals.get(entry.getKey());
+            long after = known != null ? lastMillis[known] : Long.MIN_VALUE;
+            List<StatusChange> changes = new ArrayList<>(entry.getValue());
+            changes.sort(Comparator.comparingLong(StatusChange::getEpochMillis));
+
+            for (StatusChange change : changes) {
+                if (change.getEpochMillis() <= after) {
+                    continue;
+                }
+                int ordinal = known != null ? known
+                        : ordinal(entry.getKey(), issueOrdinals, issueKeys.size(), newIssues, ISSUE_RECORD, out);
+                int fromCode = statusCode(change.getFromStatus(), newStatuses, out);
+                int toCode = statusCode(change.getToStatus(), newStatuses, out);
+                out.writeByte(TRANSITION_RECORD);
+                out.writeInt(ordinal);
+                out.writeInt(fromCode);
+                out.writeInt(toCode);
+                out.writeLong(change.getEpochMillis());
+                rows.add(new long[] {ordinal, fromCode, toCode, change.getEpochMillis()});
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeFully(channel, ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(false);
+        }
+
+        newIssues.keySet().forEach(this::addIssue);
+        newStatuses.keySet().forEach(this::addStatus);
+        for (long[] row : rows) {
+            addTransition((int) row[0], (int) row[1], (int) row[2], row[3]);
+        }
+        return rows.size();
+    }
+
+    /**
+     * Get the number of logged transitions
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of issues with logged transitions
+     */
+    public synchronized int getIssueCount() {
+        return issueKeys.size();
+    }
+
+    /**
+     * Get the qualified key of an issue ordinal
+     */
+    public synchronized String getIssueKey(int issueOrdinal) {
+        return issueKeys.get(issueOrdinal);
+    }
+
+    /**
+     * Get the name of a status code, or null for {@link #NO_STATUS}
+     */
+    public synchronized String getStatusName(int statusCode) {
+        return statusCode == NO_STATUS ? null : statusNames.get(statusCode);
+    }
+
+    /**
+     * Get when an issue first changed status, or {@link JiraDateUtils#UNKNOWN} if none is logged
+     */
+    public synchronized long getFirstTransitionMillis(String qualifiedKey) {
+        Integer ordinal = issueOrdinals.get(qualifiedKey);
+        return ordinal != null ? firstMillis[ordinal] : JiraDateUtils.UNKNOWN;
+    }
+
+    /**
+     * Get when an issue last changed status, or {@link JiraDateUtils#UNKNOWN} if none is logged
+     */
+    public synchronized long getLastTransitionMillis(String qualifiedKey) {
+        Integer ordinal = issueOrdinals.get(qualifiedKey);
+        return ordinal != null ? lastMillis[ordinal] : JiraDateUtils.UNKNOWN;
+    }
+
+    /**
+     * Visit the transitions from {@code fromMillis} (inclusive) to {@code toMillis} (exclusive)
+     * in time order
+     */
+    public synchronized void forEachBetween(long fromMillis, long toMillis, TransitionVisitor visitor) {
+        updateIndex();
+        for (int i = lowerBound(fromMillis); i < size && epoch[byTime[i]] < toMillis; i++) {
+            int row = byTime[i];
+            visitor.visit(issue[row], from[row], to[row], epoch[row]);
+        }
+    }
+
+    /**
+     * Count the transitions from {@code fromMillis} (inclusive) to {@code toMillis} (exclusive)
+     */
+    public synchronized int countBetween(long fromMillis, long toMillis) {
+        updateIndex();
+        return Math.max(0, lowerBound(toMillis) - lowerBound(fromMillis));
+    }
+
+    /**
+     * Read the records of a mapped file into memory
+     *
+     * @return the position after the last complete record
+     */
+    private long load(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a transition log: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported transition log version " + version + ": " + file);
+        }
+
+        long validEnd = buffer.position();
+        try {
+            while (buffer.hasRemaining() && readRecord(buffer)) {
+                validEnd = buffer.position();
+            }
+        } catch (BufferUnderflowException e) {
+            // The last append was cut short; everything before it is intact
+        }
+        return validEnd;
+    }
+
+    /**
+     * Read one record into memory
+     *
+     * @return false if the record is not valid, e.g. a zero-filled tail left by a power
+     * loss, which ends the valid part of the log
+     */
+    private boolean readRecord(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case ISSUE_RECORD -> addIssue(readString(buffer));
+            case STATUS_RECORD -> addStatus(readString(buffer));
+            case TRANSITION_RECORD -> {
+                int ordinal = buffer.getInt();
+                int fromCode = buffer.getInt();
+                int toCode = buffer.getInt();
+                long epochMillis = buffer.getLong();
+                if (ordinal < 0 || ordinal >= issueKeys.size() || !isStatusCode(fromCode) || !isStatusCode(toCode)) {
+                    return false;
+                }
+                addTransition(ordinal, fromCode, toCode, epochMillis);
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isStatusCode(int code) {
+        return code == NO_STATUS || (code >= 0 && code < statusNames.size());
+    }
+
+    private int ordinal(String name, Map<String, Integer> known, int knownCount, Map<String, Integer> added,
+                        byte recordType, DataOutputStream out) throws IOException {
+        Integer ordinal = known.get(name);
+        if (ordinal == null) {
+            ordinal = added.get(name);
+        }
+        if (ordinal == null) {
+            ordinal = knownCount + added.size();
+            added.put(name, ordinal);
+            byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(recordType);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+        return ordinal;
+    }
+
+    private int statusCode(String status, Map<String, Integer> newStatuses, DataOutputStream out) throws IOException {
+        return status == null ? NO_STATUS
+                : ordinal(status, statusCodes, statusNames.size(), newStatuses, STATUS_RECORD, out);
+    }
+
+    private void addIssue(String qualifiedKey) {
+        int ordinal = issueKeys.size();
+        issueKeys.add(qualifiedKey);
+        issueOrdinals.put(qualifiedKey, ordinal);
+        if (ordinal == firstMillis.length) {
+            firstMillis = Arrays.copyOf(firstMillis, ordinal * 2);
+            lastMillis = Arrays.copyOf(lastMillis, ordinal * 2);
+        }
+        firstMillis[ordinal] = JiraDateUtils.UNKNOWN;
+        lastMillis[ordinal] = JiraDateUtils.UNKNOWN;
+    }
+
+    private void addStatus(String name) {
+        statusCodes.put(name, statusNames.size());
+        statusNames.add(name);
+    }
+
+    private void addTransition(int ordinal, int fromCode, int toCode, long epochMillis) {
+        if (size == issue.length) {
+            int capacity = size * 2;
+            issue = Arrays.copyOf(issue, capacity);
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            epoch = Arrays.copyOf(epoch, capacity);
+        }
+        issue[size] = ordinal;
+        from[size] = fromCode;
+        to[size] = toCode;
+        epoch[size] = epochMillis;
+        size++;
+
+        if (firstMillis[ordinal] == JiraDateUtils.UNKNOWN || epochMillis < firstMillis[ordinal]) {
+            firstMillis[ordinal] = epochMillis;
+        }
+        lastMillis[ordinal] = Math.max(lastMillis[ordinal], epochMillis);
+    }
+
+    /**
+     * Merge the rows appended since the last query into the time index
+     */
+    private void updateIndex() {
+        if (indexedCount == size) {
+            return;
+        }
+        int[] added = IntStream.range(indexedCount, size)
+                .boxed()
+                .sorted(Comparator.comparingLong(row -> epoch[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int[] merged = new int[size];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            // Ties keep the earlier appended row first
+            if (j == added.length || (i < indexedCount && epoch[byTime[i]] <= epoch[added[j]])) {
+                merged[k] = byTime[i++];
+            } else {
+                merged[k] = added[j++];
+            }
+        }
+        byTime = merged;
+        indexedCount = size;
+    }
+
+    /**
+     * Get the first index position whose epoch is at or after the given time
+     */
+    private int lowerBound(long epochMillis) {
+        int low = 0;
+        int high = indexedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epoch[byTime[mid]] < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TransitionLog{" +
+                "file=" + file +
+                ", transitions=" + size +
+                ", issues=" + issueKeys.size() +
+                ", statuses=" + statusNames.size() +
+                '}';
+    }
+}
@@ -0,0 +1,222 @@
+package com.jirainsight.service;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts connection reuse, new connections and TLS handshakes for an OkHttpClient.
+ * A call that acquires a connection without opening one reused a pooled or multiplexed
+ * HTTP/2 connection. Response body sizes are counted as read off the wire, before
+ * gzip decoding, and credited to the request's {@link TransferCounter} when it has one.
+ */
+public class TransportMetrics implements EventListener.Factory {
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+    private final AtomicLong connectionsAcquired = new AtomicLong();
+    private final AtomicLong connectionsReused = new AtomicLong();
+    private final AtomicLong http2Acquisitions = new AtomicLong();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+
+    @Override
+    public EventListener create(Call call) {
+        calls.incrementAndGet();
+        return new CallListener();
+    }
+
+    /**
+     * Add the decoded body bytes of a completed request to the totals
+     */
+    public void recordDecodedBytes(long byteCount) {
+        decodedBytes.addAndGet(byteCount);
+    }
+
+    /**
+     * Take a snapshot of the counters together with the dispatcher and pool state
+     */
+    public TransportStats snapshot(Dispatcher dispatcher, ConnectionPool connectionPool) {
+        return new TransportStats(
+                calls.get(),
+                failedCalls.get(),
+                connectionsOpened.get(),
+                tlsHandshakes.get(),
+                connectionsAcquired.get(),
+                connectionsReused.get(),
+                http2Acquisitions.get(),
+                wireBytes.get(),
+                decodedBytes.get(),
+                dispatcher.runningCallsCount(),
+                dispatcher.queuedCallsCount(),
+                connectionPool.connectionCount(),
+                connectionPool.idleConnectionCount());
+    }
+
+    /**
+     * Per-call listener tracking whether the call opened its own connection
+     */
+    private class CallListener extends EventListener {
+        private boolean connected;
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connected = true;
+            connectionsOpened.incrementAndGet();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsHandshakes.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            connectionsAcquired.incrementAndGet();
+            if (!connected) {
+                connectionsReused.incrementAndGet();
+            }
+            if (connection.protocol() == Protocol.HTTP_2) {
+                http2Acquisitions.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            wireBytes.addAndGet(byteCount);
+            TransferCounter counter = call.request().tag(TransferCounter.class);
+            if (counter != null) {
+                counter.recordWireBytes(byteCount);
+            }
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            failedCalls.incrementAndGet();
+        }
+    }
+
+    /**
+     * Point-in-time transport statistics
+     */
+    public static class TransportStats {
+        private final long calls;
+        private final long failedCalls;
+        private final long connectionsOpened;
+        private final long tlsHandshakes;
+        private final long connectionsAcquired;
+        private final long connectionsReused;
+        private final long http2Acquisitions;
+        private final long wireBytes;
+        private final long decodedBytes;
+        private final int runningCalls;
+        private final int queuedCalls;
+        private final int pooledConnections;
+        private final int idleConnections;
+
+        public TransportStats(long calls, long failedCalls, long connectionsOpened, long tlsHandshakes,
+                              long connectionsAcquired, long connectionsReused, long http2Acquisitions,
+                              long wireBytes, long decodedBytes, int runningCalls, int queuedCalls, int pooledConnections, int idleConnections) {
+            this.calls = calls;
+            this.failedCalls = failedCalls;
+            this.connectionsOpened = connectionsOpened;
+            this.tlsHandshakes = tlsHandshakes;
+            this.connectionsAcquired = connectionsAcquired;
+            this.connectionsReused = connectionsReused;
+            this.http2Acquisitions = http2Acquisitions;
+            this.wireBytes = wireBytes;
+            this.decodedBytes = decodedBytes;
+            this.runningCalls = runningCalls;
+            this.queuedCalls = queuedCalls;
+            this.pooledConnections = pooledConnections;
+            this.idleConnections = idleConnections;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailedCalls() {
+            return failedCalls;
+        }
+
+        public long getConnectionsOpened() {
+            return connectionsOpened;
+        }
+
+        public long getTlsHandshakes() {
+            return tlsHandshakes;
+        }
+
+        public long getConnectionsAcquired() {
+            return connectionsAcquired;
+        }
+
+        public long getConnectionsReused() {
+            return connectionsReused;
+        }
+
+        public long getHttp2Acquisitions() {
+            return http2Acquisitions;
+        }
+
+        public long getWireBytes() {
+            return wireBytes;
+        }
+
+        public long getDecodedBytes() {
+            return decodedBytes;
+        }
+
+        public int getRunningCalls() {
+            return runningCalls;
+        }
+
+        public int getQueuedCalls() {
+            return queuedCalls;
+        }
+
+        public int getPooledConnections() {
+            return pooledConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        /**
+         * Get the fraction of acquired connections that were reused
+         */
+        public double getReuseRatio() {
+            return connectionsAcquired > 0 ? (double) connectionsReused / connectionsAcquired : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return "TransportStats{" +
+                    "calls=" + calls +
+                    ", failedCalls=" + failedCalls +
+                    ", connectionsOpened=" + connectionsOpened +
+                    ", tlsHandshakes=" + tlsHandshakes +
+                    ", connectionsReused=" + connectionsReused + "/" + connectionsAcquired +
+                    ", http2Acquisitions=" + http2Acquisitions +
+                    ", wireBytes=" + wireBytes +
+                    ", decodedBytes=" + decodedBytes +
+                    ", runningCalls=" + runningCalls +
+                    ", queuedCalls=" + queuedCalls +
+                    ", pooledConnections=" + pooledConnections +
+                    ", idleConnections=" + idleConnections +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.jirainsight.service;
+
+import okhttp3.Protocol;
+
+import java.util.List;
+
+/**
+ * HTTP transport settings for JiraApiService: connection pool, dispatcher limits,
+ * protocols and timeouts. The defaults allow enough parallel requests per Jira host
+ * for bulk fetches and prefer HTTP/2 so requests multiplex over one TLS connection.
+ * The rate limit settings seed the per-domain {@link RateLimiter}. The health probe
+ * interval is kept below typical server idle timeouts so the connection stays warm;
+ * offline sites are probed on the shorter offline interval so they come back quickly.
+ */
+public class TransportProfile {
+
+    private int maxIdleConnections = 16;
+    private long keepAliveSeconds = 300;
+    private int maxRequests = 64;
+    private int maxRequestsPerHost = 16;
+    private boolean preferHttp2 = true;
+    private long connectTimeoutSeconds = 30;
+    private long readTimeoutSeconds = 60;
+    private long writeTimeoutSeconds = 30;
+    private double rateLimitPerSecond = 10;
+    private int rateLimitBurst = 20;
+    private int maxRetries = 4;
+    private long healthProbeSeconds = 45;
+    private long offlineProbeSeconds = 10;
+
+    // Default constructor
+    public TransportProfile() {}
+
+    /**
+     * Get the default profile
+     */
+    public static TransportProfile defaults() {
+        return new TransportProfile();
+    }
+
+    // Getters and Setters
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public long getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public void setKeepAliveSeconds(long keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public boolean isPreferHttp2() {
+        return preferHttp2;
+    }
+
+    public void setPreferHttp2(boolean preferHttp2) {
+        this.preferHttp2 = preferHttp2;
+    }
+
+    public long getConnectTimeoutSeconds() {
+        return connectTimeoutSeconds;
+    }
+
+    public void setConnectTimeoutSeconds(long connectTimeoutSeconds) {
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+    }
+
+    public long getReadTimeoutSeconds() {
+        return readTimeoutSeconds;
+    }
+
+    public void setReadTimeoutSeconds(long readTimeoutSeconds) {
+        this.readTimeoutSeconds = readTimeoutSeconds;
+    }
+
+    public long getWriteTimeoutSeconds() {
+        return writeTimeoutSeconds;
+    }
+
+    public void setWriteTimeoutSeconds(long writeTimeoutSeconds) {
+        this.writeTimeoutSeconds = writeTimeoutSeconds;
+    }
+
+    public double getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+
+    public void setRateLimitPerSecond(double rateLimitPerSecond) {
+        if (!(rateLimitPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate limit must be positive: " + rateLimitPerSecond);
+        }
+        this.rateLimitPerSecond = rateLimitPerSecond;
+    }
+
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(int rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Get the interval of the idle health probe in seconds; 0 disables it
+     */
+    public long getHealthProbeSeconds() {
+        return healthProbeSeconds;
+    }
+
+    public void setHealthProbeSeconds(long healthProbeSeconds) {
+        this.healthProbeSeconds = healthProbeSeconds;
+    }
+
+    /**
+     * Get how often an offline site is probed in seconds; 0 probes it on the health interval
+     */
+    public long getOfflineProbeSeconds() {
+        return offlineProbeSeconds;
+    }
+
+    public void setOfflineProbeSeconds(long offlineProbeSeconds) {
+        this.offlineProbeSeconds = offlineProbeSeconds;
+    }
+
+    /**
+     * Get the protocols to negotiate, in preference order
+     */
+    public List<Protocol> getProtocols() {
+        return preferHttp2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1);
+    }
+
+    @Override
+    public String toString() {
+        return "TransportProfile{" +
+                "maxIdleConnections=" + maxIdleConnections +
+                ", keepAliveSeconds=" + keepAliveSeconds +
+                ", maxRequests=" + maxRequests +
+                ", maxRequestsPerHost=" + maxRequestsPerHost +
+                ", preferHttp2=" + preferHttp2 +
+                ", rateLimitPerSecond=" + rateLimitPerSecond +
+                ", maxRetries=" + maxRetries +
+                ", healthProbeSeconds=" + healthProbeSeconds +
+                ", offlineProbeSeconds=" + offlineProbeSeconds +
+                '}';
+    }
+}
@@ -0,0 +1,271 @@
+package com.jirainsight.util;
+
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watchdog for stalls of the JavaFX application thread.
+ * <p>
+ * A daemon thread posts a heartbeat to the FX thread and measures how long it takes to
+ * run. While a heartbeat is overdue the watchdog samples the FX thread's stack, so a
+ * stall is recorded with the code that was running during it. Each stall is attributed
+ * to the innermost controller frame in the samples, and the worst stalls are kept for
+ * the diagnostics report.
+ */
+public class FxStallDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxStallDetector.class);
+
+    public static final long DEFAULT_THRESHOLD_MILLIS = 100;
+    static final int MAX_SAMPLES_PER_STALL = 20;
+    static final int MAX_RECORDED_STALLS = 20;
+
+    private static final String CONTROLLER_PACKAGE = "com.jirainsight.controller.";
+    private static final String APP_PACKAGE = "com.jirainsight.";
+
+    private final long thresholdNanos;
+    private final long checkIntervalMillis;
+    private final Histogram heartbeatLatency = MetricsRegistry.getInstance().timer("fx.heartbeatLatency");
+    private final PriorityQueue<Stall> worstStalls = new PriorityQueue<>(Comparator.comparingLong(Stall::getDurationNanos));
+
+    private ScheduledExecutorService watchdog;
+    private Thread fxThread;
+
+    // Heartbeat state, guarded by currentSamples
+    private boolean heartbeatPending;
+    private long heartbeatPostedNanos;
+    private final List<StackTraceElement[]> currentSamples = new ArrayList<>();
+
+    public FxStallDetector() {
+        this(DEFAULT_THRESHOLD_MILLIS);
+    }
+
+    public FxStallDetector(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.checkIntervalMillis = Math.max(10, thresholdMillis / 4);
+    }
+
+    /**
+     * Start watching; must be called on the JavaFX application thread
+     */
+    public synchronized void start() {
+        if (watchdog != null) {
+            return;
+        }
+
+        fxThread = Thread.currentThread();
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-stall-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("FX stall detector started with {} ms threshold", TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+    }
+
+    /**
+     * Stop watching
+     */
+    public synchronized void stop() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
+    }
+
+    /**
+     * Post a heartbeat, or sample the FX thread while the posted one is overdue
+     */
+    private void check() {
+        long now = System.nanoTime();
+
+        synchronized (currentSamples) {
+            if (!heartbeatPending) {
+                currentSamples.clear();
+                heartbeatPending = true;
+                heartbeatPostedNanos = now;
+                long posted = now;
+                Platform.runLater(() -> onHeartbeat(posted));
+            } else if (now - heartbeatPostedNanos > thresholdNanos && currentSamples.size() < MAX_SAMPLES_PER_STALL) {
+                currentSamples.add(fxThread.getStackTrace());
+            }
+        }
+    }
+
+    /**
+     * Runs on the FX thread once the event queue reaches the heartbeat
+     */
+    private void onHeartbeat(long postedNanos) {
+        long latency = System.nanoTime() - postedNanos;
+        heartbeatLatency.record(latency);
+
+        List<StackTraceElement[]> samples;
+        synchronized (currentSamples) {
+            samples = new ArrayList<>(currentSamples);
+            heartbeatPending = false;
+        }
+
+        if (latency > thresholdNanos) {
+            recordStall(latency, samples);
+        }
+    }
+
+    /**
+     * Record a stall, keeping only the worst ones
+     */
+    Stall recordStall(long durationNanos, List<StackTraceElement[]> samples) {
+        String attribution = attribute(samples);
+        StackTraceElement[] representative = samples.stream()
+                .filter(sample -> attribute(sample).equals(attribution))
+                .findFirst()
+                .orElse(new StackTraceElement[0]);
+        Stall stall = new Stall(LocalDateTime.now(), durationNanos, attribution, samples.size(), representative);
+
+        MetricsRegistry.getInstance().counter("fx.stalls").increment();
+        logger.warn("FX thread stalled for {} ms in {}", stall.getDurationMillis(), stall.getAttribution());
+
+        synchronized (worstStalls) {
+            worstStalls.add(stall);
+            if (worstStalls.size() > MAX_RECORDED_STALLS) {
+                worstStalls.poll();
+            }
+        }
+        return stall;
+    }
+
+    /**
+     * Attribute a set of stack samples to the most frequently seen handler
+     */
+    static String attribute(List<StackTraceElement[]> samples) {
+        Map<String, Integer> counts = new HashMap<>();
+        String best = null;
+        int bestCount = 0;
+
+        for (StackTraceElement[] sample : samples) {
+            String frame = attribute(sample);
+            int count = counts.merge(frame, 1, Integer::sum);
+            if (count > bestCount) {
+                best = frame;
+                bestCount = count;
+            }
+        }
+        return best != null ? best : "unknown (no samples)";
+    }
+
+    /**
+     * Attribute one stack sample to its innermost controller frame, falling back to
+     * the innermost application frame and then to the top of the stack
+     */
+    static String attribute(StackTraceElement[] sample) {
+        StackTraceElement appFrame = null;
+        for (StackTraceElement frame : sample) {
+            if (frame.getClassName().startsWith(CONTROLLER_PACKAGE)) {
+                return format(frame);
+            }
+            if (appFrame == null && frame.getClassName().startsWith(APP_PACKAGE)
+                    && !frame.getClassName().equals(FxStallDetector.class.getName())) {
+                appFrame = frame;
+            }
+        }
+
+        if (appFrame != null) {
+            return format(appFrame);
+        }
+        return sample.length > 0 ? format(sample[0]) : "unknown";
+    }
+
+    private static String format(StackTraceElement frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        return simpleName + "." + frame.getMethodName();
+    }
+
+    /**
+     * Get the recorded stalls, worst first
+     */
+    public List<Stall> getWorstStalls() {
+        List<Stall> stalls;
+        synchronized (worstStalls) {
+            stalls = new ArrayList<>(worstStalls);
+        }
+        stalls.sort(Comparator.comparingLong(Stall::getDurationNanos).reversed());
+        return stalls;
+    }
+
+    /**
+     * Render the worst stalls with a representative stack sample for each
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder("FX thread stalls (worst first)\n");
+        List<Stall> stalls = getWorstStalls();
+        if (stalls.isEmpty()) {
+            report.append("none recorded\n");
+        }
+
+        for (Stall stall : stalls) {
+            report.append(String.format("%s  %6d ms  %s  (%d samples)%n",
+                    stall.getTimestamp(), stall.getDurationMillis(), stall.getAttribution(), stall.getSampleCount()));
+            StackTraceElement[] stack = stall.getStackSample();
+            for (int i = 0; i < Math.min(stack.length, 12); i++) {
+                report.append("        at ").append(stack[i]).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * A recorded FX thread stall
+     */
+    public static class Stall {
+        private final LocalDateTime timestamp;
+        private final long durationNanos;
+        private final String attribution;
+        private final int sampleCount;
+        private final StackTraceElement[] stackSample;
+
+        public Stall(LocalDateTime timestamp, long durationNanos, String attribution, int sampleCount,
+                     StackTraceElement[] stackSample) {
+            this.timestamp = timestamp;
+            this.durationNanos = durationNanos;
+            this.attribution = attribution;
+            this.sampleCount = sampleCount;
+            this.stackSample = stackSample;
+        }
+
+        public LocalDateTime getTimestamp() {
+            return timestamp;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        public String getAttribution() {
+            return attribution;
+        }
+
+        public int getSampleCount() {
+            return sampleCount;
+        }
+
+        public StackTraceElement[] getStackSample() {
+            return stackSample;
+        }
+    }
+}
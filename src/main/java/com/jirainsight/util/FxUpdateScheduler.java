@@ -0,0 +1,166 @@
+package com.jirainsight.util;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalescing scheduler for UI updates on the JavaFX application thread.
+ * <p>
+ * Updates are queued per target; a newer update for the same target replaces the pending
+ * one, so a burst of status or result refreshes is applied once. Pending updates are run
+ * once per pulse from an {@link AnimationTimer} within a bounded time budget, and any
+ * remainder carries over to the next pulse instead of flooding the FX event queue.
+ * The time from first submission to execution is recorded as {@code fx.queueLatency}.
+ * An update that throws is logged and counted as {@code fx.updateErrors}; the rest of
+ * the queue still runs.
+ */
+public class FxUpdateScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxUpdateScheduler.class);
+
+    /**
+     * Default per-pulse budget, half of a 60 fps frame
+     */
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 8_000_000L;
+
+    private final Map<Object, PendingUpdate> pending = new LinkedHashMap<>();
+    private final Histogram queueLatency = MetricsRegistry.getInstance().timer("fx.queueLatency");
+    private final LongAdder updateErrors = MetricsRegistry.getInstance().counter("fx.updateErrors");
+    private final long frameBudgetNanos;
+    private final Runnable pulseStarter;
+
+    private AnimationTimer timer;
+    private boolean pulsesRequested;
+
+    public FxUpdateScheduler() {
+        this(DEFAULT_FRAME_BUDGET_NANOS);
+    }
+
+    public FxUpdateScheduler(long frameBudgetNanos) {
+        this.frameBudgetNanos = frameBudgetNanos;
+        this.pulseStarter = () -> Platform.runLater(this::startTimer);
+    }
+
+    // Constructor for driving the scheduler without the JavaFX toolkit
+    FxUpdateScheduler(long frameBudgetNanos, Runnable pulseStarter) {
+        this.frameBudgetNanos = frameBudgetNanos;
+        this.pulseStarter = pulseStarter;
+    }
+
+    /**
+     * Schedule an update for a target, replacing any update still pending for it
+     */
+    public void submit(Object target, Runnable update) {
+        boolean startPulses;
+        synchronized (pending) {
+            // Re-insert so the update runs after anything submitted before it, but keep the
+            // first submission time so the latency reflects how stale the target has been
+            PendingUpdate replaced = pending.remove(target);
+            long submittedNanos = replaced != null ? replaced.submittedNanos : System.nanoTime();
+            pending.put(target, new PendingUpdate(update, submittedNanos));
+            startPulses = !pulsesRequested;
+            pulsesRequested = true;
+        }
+
+        if (startPulses) {
+            pulseStarter.run();
+        }
+    }
+
+    /**
+     * Schedule an update that must not be coalesced with others, e.g. appending a page
+     */
+    public void submit(Runnable update) {
+        submit(new Object(), update);
+    }
+
+    /**
+     * Get the number of updates waiting for the next pulse
+     */
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Run pending updates in submission order until the budget is spent
+     *
+     * @return the number of updates applied
+     */
+    int drain(long budgetNanos) {
+        long start = System.nanoTime();
+        int applied = 0;
+
+        do {
+            PendingUpdate update;
+            synchronized (pending) {
+                Iterator<PendingUpdate> iterator = pending.values().iterator();
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                update = iterator.next();
+                iterator.remove();
+            }
+
+            queueLatency.recordSince(update.submittedNanos);
+            try {
+                update.update.run();
+            } catch (RuntimeException e) {
+                updateErrors.increment();
+                logger.error("UI update failed", e);
+            }
+            applied++;
+        } while (System.nanoTime() - start < budgetNanos);
+
+        return applied;
+    }
+
+    /**
+     * Stop pulsing once the queue is empty; returns true if updates remain
+     */
+    boolean finishPulse() {
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                pulsesRequested = false;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An update waiting for a pulse, with the time its target was first submitted
+     */
+    private static class PendingUpdate {
+        private final Runnable update;
+        private final long submittedNanos;
+
+        PendingUpdate(Runnable update, long submittedNanos) {
+            this.update = update;
+            this.submittedNanos = submittedNanos;
+        }
+    }
+
+    private void startTimer() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    drain(frameBudgetNanos);
+                    if (!finishPulse()) {
+                        stop();
+                    }
+                }
+            };
+        }
+        timer.start();
+    }
+}
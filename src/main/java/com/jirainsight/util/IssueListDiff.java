@@ -0,0 +1,214 @@
+package com.jirainsight.util;
+
+import com.jirainsight.model.JiraIssue;
+
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies a fresh result to an existing issue list with minimal set, add and remove
+ * operations. Issues are matched by site-qualified key; an issue is only replaced when its updated
+ * timestamp changed, so unchanged rows keep their cells and the list keeps its
+ * selection and scroll position.
+ * <p>
+ * Each step on an observable list is a change event through every list layered on it,
+ * so when rows are added or moved in more than a few places the merged list is built
+ * once and set in a single change instead.
+ */
+public class IssueListDiff {
+
+    // Rows added or moved one at a time at most; beyond this the list is set in one change
+    static final int MAX_STEPWISE_CHANGES = 32;
+
+    private int added;
+    private int removed;
+    private int replaced;
+    private int moved;
+
+    private IssueListDiff() {}
+
+    /**
+     * Update the target list in place so it equals the fresh list
+     */
+    public static IssueListDiff apply(List<JiraIssue> target, List<JiraIssue> fresh) {
+        IssueListDiff diff = new IssueListDiff();
+
+        // Qualified keys are built per call, so each row's key is built once here
+        List<String> targetKeys = keysOf(target);
+        List<String> freshKeys = keysOf(fresh);
+        Map<String, Integer> targetIndex = new HashMap<>(targetKeys.size() * 2);
+        for (int i = 0; i < targetKeys.size(); i++) {
+            targetIndex.putIfAbsent(targetKeys.get(i), i);
+        }
+
+        // Merge the fresh result with the rows that are still current, and count the changes
+        List<JiraIssue> merged = new ArrayList<>(fresh.size());
+        List<String> keptKeys = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            JiraIssue issue = fresh.get(i);
+            Integer existing = targetIndex.get(freshKeys.get(i));
+            if (existing == null) {
+                merged.add(issue);
+                diff.added++;
+                continue;
+            }
+            JiraIssue current = target.get(existing);
+            if (isSameRevision(current, issue)) {
+                merged.add(current);
+            } else {
+                merged.add(issue);
+                diff.replaced++;
+            }
+            keptKeys.add(freshKeys.get(i));
+        }
+        diff.removed = Math.max(0, target.size() - keptKeys.size());
+
+        // Kept rows that are not where the target's order would leave them have moved
+        Set<String> keptKeySet = new HashSet<>(keptKeys);
+        int kept = 0;
+        for (String key : targetKeys) {
+            if (keptKeySet.remove(key) && !key.equals(keptKeys.get(kept++))) {
+                diff.moved++;
+            }
+        }
+
+        if (!diff.hasChanges()) {
+            return diff;
+        }
+        int stepwiseChanges = diff.added + diff.moved;
+        if (stepwiseChanges > MAX_STEPWISE_CHANGES || stepwiseChanges * 4 > fresh.size()) {
+            setAll(target, merged);
+        } else {
+            applyStepwise(target, targetKeys, merged, freshKeys);
+        }
+        return diff;
+    }
+
+    /**
+     * Replace the target list's contents in one change, for a result that is not a
+     * refresh of the rows already shown
+     */
+    public static IssueListDiff replace(List<JiraIssue> target, List<JiraIssue> fresh) {
+        IssueListDiff diff = new IssueListDiff();
+        diff.removed = target.size();
+        diff.added = fresh.size();
+        setAll(target, fresh);
+        return diff;
+    }
+
+    /**
+     * Edit the target into the merged list row by row; only used for a few adds and moves,
+     * as each one scans the remaining keys
+     */
+    private static void applyStepwise(List<JiraIssue> target, List<String> targetKeys,
+                                      List<JiraIssue> merged, List<String> mergedKeys) {
+        // Remove issues that are no longer in the result, in contiguous ranges from the end
+        Set<String> mergedKeySet = new HashSet<>(mergedKeys);
+        int end = target.size();
+        while (end > 0) {
+            if (mergedKeySet.contains(targetKeys.get(end - 1))) {
+                end--;
+                continue;
+            }
+            int start = end - 1;
+            while (start > 0 && !mergedKeySet.contains(targetKeys.get(start - 1))) {
+                start--;
+            }
+            target.subList(start, end).clear();
+            targetKeys.subList(start, end).clear();
+            end = start;
+        }
+
+        // Walk the merged result in order, keeping, replacing, moving or inserting rows
+        for (int i = 0; i < merged.size(); i++) {
+            JiraIssue issue = merged.get(i);
+            String key = mergedKeys.get(i);
+
+            if (i < target.size() && key.equals(targetKeys.get(i))) {
+                if (target.get(i) != issue) {
+                    target.set(i, issue);
+                }
+                continue;
+            }
+
+            int existing = targetKeys.subList(i + 1, targetKeys.size()).indexOf(key);
+            if (existing >= 0) {
+                target.remove(i + 1 + existing);
+                targetKeys.remove(i + 1 + existing);
+            }
+            target.add(i, issue);
+            targetKeys.add(i, key);
+        }
+
+        // Only reachable if the target held duplicate keys
+        if (target.size() > merged.size()) {
+            target.subList(merged.size(), target.size()).clear();
+        }
+    }
+
+    /**
+     * Check whether two issues are the same key at the same updated timestamp
+     */
+    public static boolean isSameRevision(JiraIssue a, JiraIssue b) {
+        return Objects.equals(a.getQualifiedKey(), b.getQualifiedKey()) &&
+               a.getUpdatedMillis() == b.getUpdatedMillis() &&
+               Objects.equals(a.getUpdated(), b.getUpdated());
+    }
+
+    private static List<String> keysOf(List<JiraIssue> issues) {
+        List<String> keys = new ArrayList<>(issues.size());
+        for (JiraIssue issue : issues) {
+            keys.add(String.valueOf(issue.getQualifiedKey()));
+        }
+        return keys;
+    }
+
+    private static void setAll(List<JiraIssue> target, List<JiraIssue> issues) {
+        if (target instanceof ObservableList<JiraIssue> observable) {
+            observable.setAll(issues);
+        } else {
+            target.clear();
+            target.addAll(issues);
+        }
+    }
+
+    public int getAdded() {
+        return added;
+    }
+
+    public int getRemoved() {
+        return removed;
+    }
+
+    public int getReplaced() {
+        return replaced;
+    }
+
+    public int getMoved() {
+        return moved;
+    }
+
+    /**
+     * Check whether the target list was modified
+     */
+    public boolean hasChanges() {
+        return added + removed + replaced + moved > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "IssueListDiff{" +
+                "added=" + added +
+                ", removed=" + removed +
+                ", replaced=" + replaced +
+                ", moved=" + moved +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.jirainsight.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Locale;
+
+/**
+ * Utility class for parsing the timestamps returned by the Jira REST API
+ */
+public class JiraDateUtils {
+
+    /**
+     * Sentinel for a missing or unparseable timestamp; sorts before every real date
+     */
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    /**
+     * Jira timestamp format, e.g. 2024-01-15T10:30:00.000+0000. Also accepts ISO offsets
+     * such as +00:00 and Z, and omitted fractional seconds.
+     */
+    private static final DateTimeFormatter JIRA_TIMESTAMP = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd'T'HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .optionalStart()
+            .appendOffset("+HHMM", "Z")
+            .optionalEnd()
+            .optionalStart()
+            .appendOffset("+HH:MM", "Z")
+            .optionalEnd()
+            .toFormatter();
+
+    /**
+     * Shared display format for timestamps
+     */
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm", Locale.getDefault());
+
+    private JiraDateUtils() {}
+
+    /**
+     * Parse a Jira timestamp
+     *
+     * @return the timestamp, or null if it is missing or unparseable
+     */
+    public static OffsetDateTime parse(String timestamp) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return OffsetDateTime.parse(timestamp, JIRA_TIMESTAMP);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse a Jira timestamp into epoch milliseconds
+     *
+     * @return the epoch milliseconds, or {@link #UNKNOWN}
+     */
+    public static long parseEpochMillis(String timestamp) {
+        OffsetDateTime dateTime = parse(timestamp);
+        return dateTime != null ? dateTime.toInstant().toEpochMilli() : UNKNOWN;
+    }
+
+    /**
+     * Format a parsed timestamp for display in its original offset
+     *
+     * @param raw the timestamp as returned by Jira, shown as-is if it could not be parsed
+     */
+    public static String formatForDisplay(String raw, long epochMillis, int offsetSeconds) {
+        if (raw == null || raw.trim().isEmpty()) {
+            return "Unknown";
+        }
+        if (epochMillis == UNKNOWN) {
+            return raw;
+        }
+
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(offsetSeconds);
+        return DISPLAY_FORMAT.format(Instant.ofEpochMilli(epochMillis).atOffset(offset));
+    }
+}
@@ -0,0 +1,158 @@
+package com.jirainsight.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application-wide registry of timers, histograms and counters.
+ * <p>
+ * Metrics are created on first use by name and are safe to record from any thread.
+ * Names are dotted, e.g. {@code http.search.latency}; cache accesses are recorded as
+ * {@code cache.<name>.hit} and {@code cache.<name>.miss} counter pairs.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private static MetricsRegistry instance;
+
+    private MetricsRegistry() {}
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Get or create a timer recording durations in nanoseconds
+     */
+    public Histogram timer(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram(true));
+    }
+
+    /**
+     * Get or create a histogram of plain values such as byte counts
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram(false));
+    }
+
+    /**
+     * Get or create a counter
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Record cache hits and misses for a named cache
+     */
+    public void recordCacheAccess(String cache, long hits, long misses) {
+        if (hits > 0) {
+            counter("cache." + cache + ".hit").add(hits);
+        }
+        if (misses > 0) {
+            counter("cache." + cache + ".miss").add(misses);
+        }
+    }
+
+    /**
+     * Get the hit ratio of a named cache, or 0.0 if it has not been accessed
+     */
+    public double getCacheHitRatio(String cache) {
+        long hits = getCount("cache." + cache + ".hit");
+        long total = hits + getCount("cache." + cache + ".miss");
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    /**
+     * Get the current value of a counter, or 0 if it does not exist
+     */
+    public long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Render all metrics as a plain-text report
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("JiraInsight metrics since ").append(startedAt)
+                .append(" (generated ").append(LocalDateTime.now()).append(")\n\n");
+
+        report.append(String.format("%-36s %8s %10s %10s %10s %10s %10s%n",
+                "Timer / histogram", "count", "mean", "p50", "p95", "p99", "max"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            Histogram.Snapshot snapshot = histogram.snapshot();
+            boolean timer = histogram.isTimer();
+            report.append(String.format("%-36s %8d %10s %10s %10s %10s %10s%n",
+                    entry.getKey() + (timer ? " (ms)" : ""),
+                    snapshot.getCount(),
+                    format(snapshot.getMean(), timer),
+                    format(snapshot.getP50(), timer),
+                    format(snapshot.getP95(), timer),
+                    format(snapshot.getP99(), timer),
+                    format(snapshot.getMax(), timer)));
+        }
+
+        report.append(String.format("%n%-36s %12s%n", "Counter", "value"));
+        Map<String, LongAdder> sortedCounters = new TreeMap<>(counters);
+        for (Map.Entry<String, LongAdder> entry : sortedCounters.entrySet()) {
+            report.append(String.format("%-36s %12d%n", entry.getKey(), entry.getValue().sum()));
+        }
+
+        report.append(String.format("%n%-36s %12s%n", "Cache", "hit ratio"));
+        Set<String> caches = new TreeSet<>();
+        for (String name : sortedCounters.keySet()) {
+            if (name.startsWith("cache.")) {
+                caches.add(name.substring("cache.".length(), name.lastIndexOf('.')));
+            }
+        }
+        for (String cache : caches) {
+            report.append(String.format("%-36s %11.1f%%%n", cache, getCacheHitRatio(cache) * 100));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Write the report, followed by any extra sections, to a UTF-8 text file
+     */
+    public void exportTo(Path file, String... extraSections) throws IOException {
+        StringBuilder content = new StringBuilder(report());
+        for (String section : extraSections) {
+            content.append('\n').append(section).append('\n');
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Clear all metrics (for testing purposes)
+     */
+    public void clearAll() {
+        histograms.clear();
+        counters.clear();
+    }
+
+    private static String format(double value, boolean timer) {
+        return timer ? String.format("%.2f", value / 1_000_000.0) : String.format("%.0f", value);
+    }
+}
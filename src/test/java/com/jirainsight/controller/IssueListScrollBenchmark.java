@@ -0,0 +1,131 @@
+package com.jirainsight.controller;
+
+import com.jirainsight.model.IssuePriority;
+import com.jirainsight.model.IssueStatus;
+import com.jirainsight.model.IssueType;
+import com.jirainsight.model.IssueUser;
+import com.jirainsight.model.JiraIssue;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.stage.Stage;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Scroll benchmark for IssueListCell: scrolls a 50k-item list one step per pulse and
+ * reports frame times and bytes allocated per updateItem call.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:java
+ * -Dbenchmark.class=com.jirainsight.controller.IssueListScrollBenchmark}
+ */
+public class IssueListScrollBenchmark extends Application {
+
+    private static final int ITEM_COUNT = 50_000;
+    private static final int SCROLL_STEP = 37;
+    private static final int WARMUP_FRAMES = 120;
+    private static final int MEASURED_FRAMES = 1_200;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long updateCount;
+    private static long allocatedBytes;
+
+    /**
+     * IssueListCell that measures allocation inside updateItem
+     */
+    private static class MeasuredIssueListCell extends IssueListCell {
+        @Override
+        protected void updateItem(JiraIssue issue, boolean empty) {
+            long threadId = Thread.currentThread().getId();
+            long before = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+            super.updateItem(issue, empty);
+            allocatedBytes += THREAD_BEAN.getThreadAllocatedBytes(threadId) - before;
+            updateCount++;
+        }
+    }
+
+    @Override
+    public void start(Stage stage) {
+        ObservableList<JiraIssue> issues = FXCollections.observableArrayList();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            issues.add(createIssue(i));
+        }
+
+        ListView<JiraIssue> listView = new ListView<>(issues);
+        listView.setCellFactory(view -> new MeasuredIssueListCell());
+
+        Scene scene = new Scene(listView, 480, 900);
+        scene.getStylesheets().add(getClass().getResource("/css/application.css").toExternalForm());
+        stage.setScene(scene);
+        stage.show();
+
+        long[] frameNanos = new long[MEASURED_FRAMES];
+        new AnimationTimer() {
+            private int frame;
+            private int index;
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                if (frame == WARMUP_FRAMES) {
+                    updateCount = 0;
+                    allocatedBytes = 0;
+                } else if (frame > WARMUP_FRAMES) {
+                    frameNanos[frame - WARMUP_FRAMES - 1] = now - last;
+                }
+                last = now;
+
+                if (frame++ == WARMUP_FRAMES + MEASURED_FRAMES) {
+                    stop();
+                    report(frameNanos);
+                    Platform.exit();
+                    return;
+                }
+
+                index = (index + SCROLL_STEP) % ITEM_COUNT;
+                listView.scrollTo(index);
+            }
+        }.start();
+    }
+
+    private static void report(long[] frameNanos) {
+        long[] sorted = frameNanos.clone();
+        Arrays.sort(sorted);
+        double meanMillis = Arrays.stream(sorted).average().orElse(0) / 1_000_000.0;
+
+        System.out.printf("items=%d frames=%d updateItem calls=%d%n", ITEM_COUNT, sorted.length, updateCount);
+        System.out.printf("bytes allocated per updateItem: %.1f%n",
+                updateCount > 0 ? (double) allocatedBytes / updateCount : 0.0);
+        System.out.printf("frame ms: mean=%.2f p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                meanMillis,
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.95)] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000_000.0,
+                sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static JiraIssue createIssue(int i) {
+        String[] categories = {"new", "indeterminate", "done"};
+        String[] priorities = {"Highest", "High", "Medium", "Low", "Lowest"};
+
+        JiraIssue issue = new JiraIssue();
+        issue.setKey("BENCH-" + i);
+        issue.setSummary("Benchmark issue " + i + " with a summary long enough to wrap in the list cell");
+        issue.setStatus(new IssueStatus("Status " + (i % 7), new IssueStatus.StatusCategory(categories[i % 3])));
+        issue.setPriority(new IssuePriority(priorities[i % 5]));
+        issue.setIssueType(new IssueType("Story"));
+        issue.setAssignee(new IssueUser("User " + (i % 40), "account-" + (i % 40)));
+        return issue;
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,38 @@
+package com.jirainsight.controller;
+
+import com.jirainsight.model.JiraIssue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for IssueSortOrder
+ */
+public class IssueSortOrderTest {
+
+    @Test
+    public void testKeysSortByProjectThenNumber() {
+        List<JiraIssue> issues = new ArrayList<>();
+        for (String key : List.of("PROJ-10", "AB-2", "PROJ-9", "PRO-100", "PROJ-100", "AB-10")) {
+            JiraIssue issue = new JiraIssue();
+            issue.setKey(key);
+            issues.add(issue);
+        }
+
+        issues.sort(IssueSortOrder.KEY.getComparator(false));
+
+        assertEquals(List.of("AB-2", "AB-10", "PRO-100", "PROJ-9", "PROJ-10", "PROJ-100"),
+                issues.stream().map(JiraIssue::getKey).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testKeysWithoutNumbersCompareAsStrings() {
+        assertTrue(IssueSortOrder.compareKeys("PROJ-X", "PROJ-1") > 0);
+        assertTrue(IssueSortOrder.compareKeys("PROJ", "PROJ-1") < 0);
+        assertEquals(0, IssueSortOrder.compareKeys("PROJ-7", "PROJ-7"));
+    }
+}
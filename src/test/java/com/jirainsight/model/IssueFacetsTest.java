@@ -0,0 +1,80 @@
+package com.jirainsight.model;
+
+import com.jirainsight.model.IssueFacets.Facet;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for IssueFacets
+ */
+public class IssueFacetsTest {
+
+    private JiraIssue createIssue(String key, String status, String assignee, String priority, String sprint) {
+        JiraIssue issue = new JiraIssue();
+        issue.setKey(key);
+        issue.setStatus(new IssueStatus(status, new IssueStatus.StatusCategory("new")));
+        if (assignee != null) {
+            issue.setAssignee(new IssueUser(assignee, assignee.toLowerCase()));
+        }
+        issue.setPriority(new IssuePriority(priority));
+        issue.setIssueType(new IssueType("Story"));
+        if (sprint != null) {
+            issue.setSprints(List.of(new IssueSprint(sprint)));
+        }
+        return issue;
+    }
+
+    @Test
+    public void testCountsAllFacets() {
+        IssueFacets facets = IssueFacets.of(List.of(
+                createIssue("TEST-1", "Open", "Alice", "High", "Sprint 1"),
+                createIssue("TEST-2", "Open", null, "Low", "Sprint 1"),
+                createIssue("TEST-3", "Done", "Alice", "High", null)));
+
+        assertEquals(3, facets.getIssueCount());
+        assertEquals(2, facets.getCount(Facet.STATUS, "Open"));
+        assertEquals(2, facets.getCount(Facet.ASSIGNEE, "Alice"));
+        assertEquals(1, facets.getCount(Facet.ASSIGNEE, "Unassigned"));
+        assertEquals(2, facets.getCount(Facet.PRIORITY, "High"));
+        assertEquals(3, facets.getCount(Facet.ISSUE_TYPE, "Story"));
+        assertEquals(1, facets.getCount(Facet.SPRINT, "No sprint"));
+        assertEquals("Open", facets.getValues(Facet.STATUS).get(0).getValue());
+    }
+
+    @Test
+    public void testIncrementalPagesMatchSinglePass() {
+        List<JiraIssue> firstPage = List.of(
+                createIssue("TEST-1", "Open", "Alice", "High", "Sprint 1"),
+                createIssue("TEST-2", "Done", "Bob", "Low", "Sprint 2"));
+        List<JiraIssue> secondPage = List.of(
+                createIssue("TEST-3", "Open", "Bob", "High", "Sprint 2"));
+
+        IssueFacets incremental = IssueFacets.of(firstPage);
+        incremental.addAll(secondPage);
+
+        assertEquals(3, incremental.getIssueCount());
+        assertEquals(2, incremental.getCount(Facet.STATUS, "Open"));
+        assertEquals(2, incremental.getCount(Facet.ASSIGNEE, "Bob"));
+        assertEquals(2, incremental.getCount(Facet.SPRINT, "Sprint 2"));
+    }
+
+    @Test
+    public void testMatchesSelection() {
+        JiraIssue issue = createIssue("TEST-1", "Open", "Alice", "High", "Sprint 1");
+        Map<Facet, Set<String>> selection = new EnumMap<>(Facet.class);
+
+        assertTrue(IssueFacets.matches(issue, selection));
+
+        selection.put(Facet.STATUS, Set.of("Open", "Done"));
+        assertTrue(IssueFacets.matches(issue, selection));
+
+        selection.put(Facet.ASSIGNEE, Set.of("Bob"));
+        assertFalse(IssueFacets.matches(issue, selection));
+    }
+}
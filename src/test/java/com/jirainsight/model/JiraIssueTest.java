@@ -1,5 +1,6 @@
 package com.jirainsight.model;
 
+import com.jirainsight.util.JiraDateUtils;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,4 +44,43 @@ public class JiraIssueTest {
         issue.setSprints(java.util.List.of(sprint));
         assertEquals("Sprint 1", issue.getSprintName());
     }
+    
+    @Test
+    public void testTimestampSortKeys() {
+        JiraIssue issue = new JiraIssue();
+        
+        // Test with no timestamps
+        assertEquals(JiraDateUtils.UNKNOWN, issue.getCreatedMillis());
+        
+        // Test with Jira and ISO offsets
+        issue.setCreated("2024-01-15T10:30:00.000+0000");
+        issue.setUpdated("2024-01-15T12:30:00.000+02:00");
+        assertEquals(1705314600000L, issue.getCreatedMillis());
+        assertEquals(issue.getCreatedMillis(), issue.getUpdatedMillis());
+        assertEquals(7200, issue.getUpdatedOffsetSeconds());
+    }
+    
+    @Test
+    public void testTimestampDisplay() {
+        JiraIssue issue = new JiraIssue();
+        
+        // Test with no timestamp
+        assertEquals("Unknown", issue.getCreatedDisplay());
+        
+        // Test display keeps the reported offset
+        issue.setUpdated("2024-01-15T12:30:00.000+0200");
+        assertTrue(issue.getUpdatedDisplay().endsWith("2024 12:30"));
+        
+        // Test unparseable timestamps are shown as-is
+        issue.setUpdated("not a date");
+        assertEquals("not a date", issue.getUpdatedDisplay());
+    }
+    
+    @Test
+    public void testPriorityLevel() {
+        assertEquals(IssuePriority.PriorityLevel.HIGHEST, new IssuePriority("Highest").getPriorityLevel());
+        assertEquals(IssuePriority.PriorityLevel.LOW, new IssuePriority("Low").getPriorityLevel());
+        assertEquals(IssuePriority.PriorityLevel.LOWEST, new IssuePriority("Lowest").getPriorityLevel());
+        assertEquals(IssuePriority.PriorityLevel.NONE, new IssuePriority().getPriorityLevel());
+    }
 }
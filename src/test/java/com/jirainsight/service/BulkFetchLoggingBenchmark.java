@@ -0,0 +1,103 @@
+package com.jirainsight.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.model.JiraIssue;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bulk-fetch throughput benchmark with application logging off, at INFO and at DEBUG.
+ * <p>
+ * Issues are fetched through the full JiraApiService stack (dispatcher, auth and rate
+ * limit interceptors, streaming parse) with a canned-response interceptor in place of
+ * the network, so the difference between runs is the cost of logging.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:java
+ * -Dbenchmark.class=com.jirainsight.service.BulkFetchLoggingBenchmark}
+ */
+public class BulkFetchLoggingBenchmark {
+
+    private static final int ISSUE_COUNT = 20_000;
+    private static final int ROUNDS = 3;
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private static final String ISSUE_JSON = "{\"key\":\"BENCH-1\",\"fields\":{"
+            + "\"summary\":\"Benchmark issue\",\"description\":\"Body\","
+            + "\"created\":\"2024-01-15T10:30:00.000+0000\",\"updated\":\"2024-01-16T11:00:00.000+0000\","
+            + "\"status\":{\"name\":\"In Progress\",\"statusCategory\":{\"key\":\"indeterminate\"}},"
+            + "\"assignee\":{\"displayName\":\"Jane Doe\",\"accountId\":\"a1\"},"
+            + "\"reporter\":{\"displayName\":\"John Doe\",\"accountId\":\"a2\"},"
+            + "\"priority\":{\"name\":\"High\"},\"issuetype\":{\"name\":\"Story\"},"
+            + "\"project\":{\"key\":\"BENCH\",\"name\":\"Benchmark\"},"
+            + "\"comment\":{\"comments\":[{\"id\":\"1\",\"body\":\"First\",\"created\":\"2024-01-15T10:30:00.000+0000\","
+            + "\"author\":{\"displayName\":\"Jane Doe\",\"accountId\":\"a1\"}}]}}}";
+
+    /**
+     * Answers every request with the canned issue instead of going to the network
+     */
+    private static final Interceptor CANNED_RESPONSES = chain -> new Response.Builder()
+            .request(chain.request())
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .body(ResponseBody.create(ISSUE_JSON, JSON))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        TransportProfile profile = new TransportProfile();
+        profile.setRateLimitPerSecond(1_000_000_000);
+        profile.setRateLimitBurst(1_000_000);
+
+        JiraApiService service = new JiraApiService(profile, List.of(CANNED_RESPONSES));
+        JiraCredentials credentials = new JiraCredentials("bench.atlassian.net", "bench@example.com", "token");
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        ch.qos.logback.classic.Logger appLogger = context.getLogger("com.jirainsight");
+        Level configured = appLogger.getLevel();
+
+        // Warm up JIT and connection-free paths with logging off
+        appLogger.setLevel(Level.OFF);
+        fetchAll(service, credentials);
+
+        for (Level level : new Level[] {Level.OFF, Level.INFO, Level.DEBUG}) {
+            appLogger.setLevel(level);
+            double best = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                best = Math.max(best, fetchAll(service, credentials));
+            }
+            appLogger.setLevel(Level.OFF);
+            System.out.printf("logging %-5s: %,10.0f issues/s (best of %d, %d issues)%n",
+                    level, best, ROUNDS, ISSUE_COUNT);
+        }
+
+        appLogger.setLevel(configured);
+        context.stop();
+        System.exit(0);
+    }
+
+    /**
+     * Fetch ISSUE_COUNT issues concurrently and return the throughput in issues per second
+     */
+    private static double fetchAll(JiraApiService service, JiraCredentials credentials) {
+        long start = System.nanoTime();
+
+        List<CompletableFuture<JiraIssue>> futures = new ArrayList<>(ISSUE_COUNT);
+        for (int i = 0; i < ISSUE_COUNT; i++) {
+            futures.add(service.getIssueByKey("BENCH-" + i, credentials));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        return ISSUE_COUNT / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.jirainsight.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Helpers for tests that answer Jira requests from an interceptor instead of a site
+ */
+final class CannedJiraSite {
+
+    static final MediaType JSON = MediaType.get("application/json");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CannedJiraSite() {
+    }
+
+    /**
+     * Create a connection manager whose API services are answered by the interceptor,
+     * without background health probes
+     */
+    static ConnectionManager connectionManager(Interceptor site) {
+        return new ConnectionManager(credentials -> new JiraApiService(TransportProfile.defaults(), List.of(site)), 0, 0);
+    }
+
+    /**
+     * Build a JSON response to a request
+     */
+    static Response respond(Request request, int code, String body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message(code == 200 ? "OK" : "Error")
+                .body(ResponseBody.create(body, JSON))
+                .build();
+    }
+
+    /**
+     * Parse the JSON body of a request, such as a search
+     */
+    static JsonNode readBody(Request request) throws IOException {
+        Buffer body = new Buffer();
+        request.body().writeTo(body);
+        return MAPPER.readTree(body.readUtf8());
+    }
+}
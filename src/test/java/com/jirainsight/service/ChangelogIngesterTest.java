@@ -0,0 +1,154 @@
+package com.jirainsight.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.jirainsight.model.IssueChangelog;
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.util.JiraDateUtils;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jirainsight.service.CannedJiraSite.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for ChangelogIngester, with a site where one issue's history is too long to be
+ * embedded in the search result
+ */
+public class ChangelogIngesterTest {
+
+    private static final int LONG_HISTORY = 650;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger changelogsInFlight = new AtomicInteger();
+    private final AtomicInteger maxChangelogsInFlight = new AtomicInteger();
+
+    private final Interceptor cannedSite = chain -> {
+        Request request = chain.request();
+        HttpUrl url = request.url();
+        if (url.encodedPath().endsWith("/myself")) {
+            return respond(request, 200, "{\"accountId\":\"a1\"}");
+        }
+
+        if (url.encodedPath().endsWith("/issue/PROJ-2/changelog")) {
+            int startAt = Integer.parseInt(url.queryParameter("startAt"));
+            requests.add("changelog " + startAt);
+            maxChangelogsInFlight.accumulateAndGet(changelogsInFlight.incrementAndGet(), Math::max);
+            try {
+                // Long enough for requests in flight together to overlap
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                changelogsInFlight.decrementAndGet();
+            }
+            StringBuilder values = new StringBuilder();
+            int end = Math.min(LONG_HISTORY, startAt + JiraApiService.CHANGELOG_PAGE_SIZE);
+            for (int i = startAt; i < end; i++) {
+                values.append(i > startAt ? "," : "").append(history(i, "S" + i, "S" + (i + 1)));
+            }
+            return respond(request, 200, "{\"startAt\":" + startAt + ",\"total\":" + LONG_HISTORY
+                    + ",\"values\":[" + values + "]}");
+        }
+
+        JsonNode search = CannedJiraSite.readBody(request);
+        requests.add("search " + search.path("expand"));
+        return respond(request, 200, "{\"startAt\":0,\"maxResults\":50,\"total\":2,\"issues\":["
+                + "{\"key\":\"PROJ-1\",\"fields\":{\"summary\":\"Short\"},\"changelog\":{\"startAt\":0,\"total\":2,"
+                + "\"histories\":[" + history(1, "In Progress", "Done") + "," + history(0, "To Do", "In Progress") + "]}},"
+                + "{\"key\":\"PROJ-2\",\"fields\":{\"summary\":\"Long\"},\"changelog\":{\"startAt\":0,\"total\":"
+                + LONG_HISTORY + ",\"histories\":[" + history(LONG_HISTORY - 1, "S" + (LONG_HISTORY - 1), "S" + LONG_HISTORY) + "]}}]}");
+    };
+
+    private final ConnectionManager manager = CannedJiraSite.connectionManager(cannedSite);
+
+    @AfterEach
+    public void tearDown() {
+        manager.disconnectAll();
+    }
+
+    @Test
+    public void testLongHistoriesArePagedIntoTheLog() throws Exception {
+        assertNotNull(manager.connect(new JiraCredentials("test.atlassian.net", "test@example.com", "token")).get());
+        TransitionLog log = TransitionLog.open(tempDir.resolve("transitions.log"));
+        List<Long> progress = new CopyOnWriteArrayList<>();
+
+        long appended = new ChangelogIngester().ingest(manager.getConnections(), "project = PROJ", log,
+                (issues, total) -> progress.add(issues));
+
+        assertEquals(2 + LONG_HISTORY, appended);
+        assertEquals(List.of(2L), progress);
+        assertEquals("search [\"changelog\"]", requests.get(0));
+        assertTrue(requests.containsAll(List.of("changelog 0", "changelog 100", "changelog 600")));
+        assertEquals(1 + 7, requests.size());
+        assertTrue(maxChangelogsInFlight.get() <= ChangelogIngester.MAX_CHANGELOG_REQUESTS);
+
+        assertEquals(millis(0), log.getFirstTransitionMillis("test.atlassian.net/PROJ-1"));
+        assertEquals(millis(1), log.getLastTransitionMillis("test.atlassian.net/PROJ-1"));
+        assertEquals(millis(0), log.getFirstTransitionMillis("test.atlassian.net/PROJ-2"));
+        assertEquals(millis(LONG_HISTORY - 1), log.getLastTransitionMillis("test.atlassian.net/PROJ-2"));
+
+        // Loading again finds nothing new
+        assertEquals(0, new ChangelogIngester().ingest(manager.getConnections(), "project = PROJ", log,
+                (issues, total) -> {}));
+        assertEquals(2 + LONG_HISTORY, TransitionLog.open(log.getFile()).size());
+    }
+
+    @Test
+    public void testCancellingAChangelogPageCancelsItsCall() throws Exception {
+        CompletableFuture<Call> sent = new CompletableFuture<>();
+        CountDownLatch release = new CountDownLatch(1);
+        Interceptor hangingSite = chain -> {
+            sent.complete(chain.call());
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Canceled");
+        };
+        JiraApiService apiService = new JiraApiService(TransportProfile.defaults(), List.of(hangingSite));
+        try {
+            CompletableFuture<IssueChangelog> page = apiService.getChangelog("PROJ-2", 0,
+                    new JiraCredentials("test.atlassian.net", "test@example.com", "token"));
+            Call call = sent.get(10, TimeUnit.SECONDS);
+            assertFalse(call.isCanceled());
+
+            page.cancel(true);
+            assertTrue(call.isCanceled());
+        } finally {
+            release.countDown();
+            apiService.close();
+        }
+    }
+
+    private static String history(int minute, String from, String to) {
+        return "{\"created\":\"" + timestamp(minute) + "\",\"items\":["
+                + "{\"field\":\"assignee\",\"fromString\":\"Jane\",\"toString\":\"Bob\"},"
+                + "{\"field\":\"status\",\"fromString\":\"" + from + "\",\"toString\":\"" + to + "\"}]}";
+    }
+
+    private static String timestamp(int minute) {
+        return String.format("2024-01-01T%02d:%02d:00.000+0000", minute / 60, minute % 60);
+    }
+
+    private static long millis(int minute) {
+        return JiraDateUtils.parseEpochMillis(timestamp(minute));
+    }
+}
@@ -0,0 +1,102 @@
+package com.jirainsight.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.jirainsight.model.IssuePriority;
+import com.jirainsight.model.IssueStatus;
+import com.jirainsight.model.IssueStatus.StatusCategory;
+import com.jirainsight.model.IssueUser;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.service.ColumnarIssueFile.Column;
+import org.slf4j.LoggerFactory;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar export benchmark: writes 200k issues and scans the status and created
+ * columns of the mapped file, the access pattern of downstream analytics.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:java
+ * -Dbenchmark.class=com.jirainsight.service.ColumnarExportBenchmark}
+ */
+public class ColumnarExportBenchmark {
+
+    private static final int ISSUE_COUNT = 200_000;
+    private static final int ROUNDS = 5;
+    private static final int SCANS = 50;
+
+    private static final String[] STATUSES = {"To Do", "In Progress", "In Review", "Done"};
+
+    // Keeps the JIT from discarding scans whose result is unused
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.getLogger("com.jirainsight").setLevel(Level.OFF);
+
+        List<JiraIssue> issues = generateIssues();
+        Path file = Files.createTempFile("columnar-benchmark", "." + ColumnarIssueFile.EXTENSION);
+        try {
+            for (int round = 1; round <= ROUNDS; round++) {
+                long start = System.nanoTime();
+                ColumnarIssueFile.write(issues, file);
+                double writeMillis = (System.nanoTime() - start) / 1e6;
+
+                ColumnarIssueFile columns = ColumnarIssueFile.open(file);
+                start = System.nanoTime();
+                for (int i = 0; i < SCANS; i++) {
+                    scan(columns);
+                }
+                double scanSeconds = (System.nanoTime() - start) / 1e9;
+                long scannedBytes = (long) SCANS * columns.getRowCount() * (4 + 8);
+
+                System.out.printf("round %d: write %6.1f ms (%,d bytes), scan status+created %5.2f GB/s%n",
+                        round, writeMillis, Files.size(file), scannedBytes / scanSeconds / 1e9);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Count issues per status and find the newest created time
+     */
+    private static void scan(ColumnarIssueFile columns) {
+        IntBuffer status = columns.codes(Column.STATUS);
+        LongBuffer created = columns.timestamps(Column.CREATED);
+        int[] counts = new int[columns.dictionary(Column.STATUS).size()];
+        long newest = Long.MIN_VALUE;
+        for (int row = 0; row < columns.getRowCount(); row++) {
+            int code = status.get(row);
+            if (code >= 0) {
+                counts[code]++;
+            }
+            newest = Math.max(newest, created.get(row));
+        }
+        sink += counts[0] + newest;
+    }
+
+    private static List<JiraIssue> generateIssues() {
+        List<JiraIssue> issues = new ArrayList<>(ISSUE_COUNT);
+        for (int i = 0; i < ISSUE_COUNT; i++) {
+            JiraIssue issue = new JiraIssue();
+            issue.setKey("BENCH-" + (i + 1));
+            issue.setSite("bench.atlassian.net");
+            issue.setSummary("Benchmark issue number " + i);
+            String status = STATUSES[i % STATUSES.length];
+            issue.setStatus(new IssueStatus(status, new StatusCategory(status.equals("Done") ? "done" : "indeterminate")));
+            issue.setAssignee(new IssueUser("User " + (i % 50), "a" + (i % 50)));
+            issue.setPriority(new IssuePriority(i % 3 == 0 ? "High" : "Medium"));
+            issue.setCreated(String.format("2024-%02d-%02dT10:30:00.000+0000", 1 + i % 12, 1 + i % 28));
+            issue.setUpdated("2024-12-01T11:00:00.000+0000");
+            issues.add(issue);
+        }
+        return issues;
+    }
+}
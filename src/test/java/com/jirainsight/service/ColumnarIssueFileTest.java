@@ -0,0 +1,80 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.IssuePriority;
+import com.jirainsight.model.IssueStatus;
+import com.jirainsight.model.IssueStatus.StatusCategory;
+import com.jirainsight.model.IssueUser;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.service.ColumnarIssueFile.Column;
+import com.jirainsight.util.JiraDateUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for ColumnarIssueFile
+ */
+public class ColumnarIssueFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRoundTripWithDictionaries() throws IOException {
+        List<JiraIssue> issues = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            JiraIssue issue = new JiraIssue();
+            issue.setKey("TEST-" + (i + 1));
+            issue.setSite("test.atlassian.net");
+            issue.setSummary(i == 1 ? null : "Ünïcode summary " + i);
+            issue.setStatus(new IssueStatus(i == 2 ? "Done" : "In Progress",
+                    new StatusCategory(i == 2 ? "done" : "indeterminate")));
+            issue.setAssignee(i == 1 ? null : new IssueUser("Jane Doe", "a1"));
+            issue.setPriority(new IssuePriority("High"));
+            issue.setCreated(i == 2 ? null : "2024-01-15T10:30:00.000+0000");
+            issues.add(issue);
+        }
+
+        Path file = tempDir.resolve("issues." + ColumnarIssueFile.EXTENSION);
+        ColumnarIssueFile.write(issues, file);
+        ColumnarIssueFile columns = ColumnarIssueFile.open(file);
+
+        assertEquals(3, columns.getRowCount());
+        assertEquals(Column.values().length, columns.getColumnNames().size());
+        assertEquals("site", columns.getColumnNames().get(0));
+
+        assertEquals("TEST-2", columns.string(Column.KEY, 1));
+        assertEquals("Ünïcode summary 2", columns.string(Column.SUMMARY, 2));
+        assertNull(columns.string(Column.SUMMARY, 1));
+
+        List<String> statuses = columns.dictionary(Column.STATUS);
+        assertEquals(List.of("In Progress", "Done"), statuses);
+        IntBuffer statusCodes = columns.codes(Column.STATUS);
+        assertEquals(0, statusCodes.get(0));
+        assertEquals(1, statusCodes.get(2));
+
+        assertEquals(List.of("Jane Doe"), columns.dictionary(Column.ASSIGNEE));
+        assertEquals(-1, columns.codes(Column.ASSIGNEE).get(1));
+        assertEquals(List.of(), columns.dictionary(Column.SPRINT));
+
+        LongBuffer created = columns.timestamps(Column.CREATED);
+        assertEquals(issues.get(0).getCreatedMillis(), created.get(0));
+        assertEquals(JiraDateUtils.UNKNOWN, created.get(2));
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("other.jic");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> ColumnarIssueFile.open(file));
+    }
+}
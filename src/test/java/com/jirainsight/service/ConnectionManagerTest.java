@@ -0,0 +1,236 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.JiraSearchResult;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static com.jirainsight.service.CannedJiraSite.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for ConnectionManager, with each site answered by a canned-response interceptor
+ */
+public class ConnectionManagerTest {
+
+    // Host -> project key served by that site; a site without an entry fails every search
+    private final ConcurrentHashMap<String, String> projects = new ConcurrentHashMap<>();
+    private final List<String> requestedUrls = new CopyOnWriteArrayList<>();
+    // Hosts whose credentials have expired
+    private final Set<String> expired = ConcurrentHashMap.newKeySet();
+    // Hosts that cannot be reached
+    private final Set<String> down = ConcurrentHashMap.newKeySet();
+
+    private final Interceptor cannedSites = chain -> {
+        Request request = chain.request();
+        String host = request.url().host();
+        String path = request.url().encodedPath();
+        requestedUrls.add(host + path);
+        if (down.contains(host)) {
+            throw new ConnectException("Failed to connect to " + host);
+        }
+
+        String project = projects.get(host);
+        if (path.endsWith("/myself")) {
+            return expired.contains(host)
+                    ? respond(request, 401, "{}")
+                    : respond(request, 200, "{\"accountId\":\"a1\",\"displayName\":\"Jane Doe\",\"timeZone\":\"Europe/Berlin\"}");
+        }
+        if (project == null) {
+            return respond(request, 500, "{}");
+        }
+        if (path.endsWith("/search")) {
+            return respond(request, 200, "{\"startAt\":0,\"maxResults\":50,\"total\":2,\"issues\":["
+                    + issueJson(project + "-1") + "," + issueJson(project + "-2") + "]}");
+        }
+        String key = path.substring(path.lastIndexOf('/') + 1);
+        return key.startsWith(project + "-") ? respond(request, 200, issueJson(key)) : respond(request, 404, "{}");
+    };
+
+    private final ConnectionManager manager = CannedJiraSite.connectionManager(cannedSites);
+
+    @AfterEach
+    public void tearDown() {
+        manager.disconnectAll();
+    }
+
+    @Test
+    public void testSearchAllMergesSitesInConnectionOrder() throws Exception {
+        connect("alpha.atlassian.net", "ALPHA");
+        connect("beta.atlassian.net", "BETA");
+
+        JiraSearchResult result = manager.searchAll("order by updated", 50).get();
+
+        assertEquals(4, result.getIssueCount());
+        assertEquals(4, result.getTotal());
+        assertEquals("ALPHA-1", result.getIssues().get(0).getKey());
+        assertEquals("alpha.atlassian.net", result.getIssues().get(0).getSite());
+        assertEquals("BETA-2", result.getIssues().get(3).getKey());
+        assertEquals("beta.atlassian.net", result.getIssues().get(3).getSite());
+        assertTrue(result.getFailedSites().isEmpty());
+    }
+
+    @Test
+    public void testSearchAllReportsFailedSites() throws Exception {
+        connect("alpha.atlassian.net", "ALPHA");
+        connect("beta.atlassian.net", "BETA");
+        projects.remove("beta.atlassian.net");
+
+        JiraSearchResult result = manager.searchAll("order by updated", 50).get();
+
+        assertEquals(2, result.getIssueCount());
+        assertEquals(List.of("beta.atlassian.net"), result.getFailedSites());
+        assertTrue(result.getSummary().contains("beta.atlassian.net"));
+
+        projects.remove("alpha.atlassian.net");
+        assertThrows(ExecutionException.class, () -> manager.searchAll("order by updated", 50).get());
+    }
+
+    @Test
+    public void testFindIssueRoutesToSitesHostingTheProject() throws Exception {
+        connect("alpha.atlassian.net", "ALPHA");
+        connect("beta.atlassian.net", "BETA");
+
+        // Nothing is known about the sites yet, so the lookup goes to both
+        List<JiraIssue> found = manager.findIssue("BETA-7").get();
+        assertEquals(1, found.size());
+        assertEquals("beta.atlassian.net", found.get(0).getSite());
+        assertTrue(requestedUrls.contains("alpha.atlassian.net/rest/api/3/issue/BETA-7"));
+
+        // Once BETA issues have been seen on beta, lookups of BETA keys only go there
+        requestedUrls.clear();
+        manager.findIssue("BETA-8").get();
+        assertEquals(List.of("beta.atlassian.net/rest/api/3/issue/BETA-8"), requestedUrls);
+    }
+
+    @Test
+    public void testReconnectReplacesConnectionToSameDomain() throws Exception {
+        JiraConnection first = connect("alpha.atlassian.net", "ALPHA");
+        JiraConnection second = connect("ALPHA.atlassian.net", "ALPHA");
+
+        assertNotSame(first, second);
+        assertEquals(1, manager.size());
+        assertSame(second, manager.getConnection("alpha.atlassian.net"));
+
+        manager.disconnect("alpha.atlassian.net");
+        assertFalse(manager.isConnected());
+    }
+
+    @Test
+    public void testUnreachableSiteConnectsOfflineAndRejectedCredentialsDoNot() throws Exception {
+        List<JiraConnection.Health> changes = new CopyOnWriteArrayList<>();
+        manager.setHealthListener((changed, health) -> changes.add(health));
+
+        down.add("alpha.atlassian.net");
+        JiraConnection connection = connect("alpha.atlassian.net", "ALPHA");
+        assertEquals(JiraConnection.Health.UNREACHABLE, connection.getHealth());
+        assertNull(connection.getAccount());
+        assertEquals(List.of("alpha.atlassian.net"), manager.getOfflineDomains());
+
+        down.remove("alpha.atlassian.net");
+        manager.probeAll(60).get();
+        assertEquals(JiraConnection.Health.HEALTHY, connection.getHealth());
+        assertEquals("a1", connection.getAccount().getAccountId());
+        assertEquals(List.of(JiraConnection.Health.HEALTHY), changes);
+
+        expired.add("beta.atlassian.net");
+        assertNull(manager.connect(new JiraCredentials("beta.atlassian.net", "test@example.com", "token")).get());
+        assertEquals(List.of("alpha.atlassian.net"), manager.getDomains());
+    }
+
+    @Test
+    public void testProbeCachesAccountAndReportsExpiredCredentials() throws Exception {
+        JiraConnection connection = connect("alpha.atlassian.net", "ALPHA");
+        assertEquals("a1", connection.getAccount().getAccountId());
+        assertEquals("Europe/Berlin", connection.getAccount().getTimeZone());
+
+        List<JiraConnection.Health> changes = new CopyOnWriteArrayList<>();
+        manager.setHealthListener((changed, health) -> changes.add(health));
+
+        // A recently used connection is not probed
+        requestedUrls.clear();
+        manager.probeAll(60).get();
+        assertTrue(requestedUrls.isEmpty());
+
+        manager.probeAll(0).get();
+        assertEquals(List.of("alpha.atlassian.net/rest/api/3/myself"), requestedUrls);
+        assertEquals(JiraConnection.Health.HEALTHY, connection.getHealth());
+        assertTrue(changes.isEmpty());
+
+        expired.add("alpha.atlassian.net");
+        manager.probeAll(0).get();
+        assertEquals(JiraConnection.Health.UNAUTHORIZED, connection.getHealth());
+        assertEquals(List.of(JiraConnection.Health.UNAUTHORIZED), changes);
+        assertEquals("Jane Doe", connection.getAccount().getDisplayName());
+    }
+
+    @Test
+    public void testOnlyRejectedCredentialsMakeConnectionUnauthorized() {
+        assertEquals(JiraConnection.Health.UNAUTHORIZED,
+                JiraConnection.healthOf(new CompletionException(new JiraApiException(401, "Unauthorized"))));
+        // Forbidden is about the requested project or issue, not the credentials
+        assertEquals(JiraConnection.Health.HEALTHY,
+                JiraConnection.healthOf(new CompletionException(new JiraApiException(403, "Forbidden"))));
+        assertEquals(JiraConnection.Health.UNREACHABLE,
+                JiraConnection.healthOf(new CompletionException(new ConnectException("Failed to connect"))));
+    }
+
+    @Test
+    public void testOfflineSiteServesCacheAndReplaysRefreshes() throws Exception {
+        JiraConnection connection = connect("alpha.atlassian.net", "ALPHA");
+        JiraSearchResult live = connection.search("order by updated", 0, 50).get();
+        assertFalse(live.isStale());
+
+        List<JiraConnection.Health> changes = new CopyOnWriteArrayList<>();
+        manager.setHealthListener((changed, health) -> changes.add(health));
+
+        // The failing request takes the site offline and is answered from the cache
+        down.add("alpha.atlassian.net");
+        JiraSearchResult stale = connection.search("order by updated", 0, 50).get();
+        assertTrue(stale.isStale());
+        assertEquals(2, stale.getIssueCount());
+        assertTrue(connection.isOffline());
+        assertEquals(List.of("alpha.atlassian.net"), manager.getOfflineDomains());
+
+        // While offline, nothing goes to the network and uncached lookups fail fast
+        requestedUrls.clear();
+        assertEquals("ALPHA-1", connection.getIssue("ALPHA-1").get().getKey());
+        ExecutionException missing = assertThrows(ExecutionException.class, () -> connection.getIssue("ALPHA-9").get());
+        assertInstanceOf(SiteOfflineException.class, missing.getCause());
+        assertTrue(requestedUrls.isEmpty());
+        assertEquals(3, connection.getQueuedRefreshCount());
+
+        // An offline site is probed even though it was used recently
+        down.remove("alpha.atlassian.net");
+        manager.probeAll(60).get();
+        assertEquals(JiraConnection.Health.HEALTHY, connection.getHealth());
+        assertEquals(0, connection.getQueuedRefreshCount());
+        assertTrue(requestedUrls.contains("alpha.atlassian.net/rest/api/3/search"));
+        assertTrue(requestedUrls.contains("alpha.atlassian.net/rest/api/3/issue/ALPHA-9"));
+        assertEquals(List.of(JiraConnection.Health.HEALTHY), changes);
+        assertFalse(connection.search("order by updated", 0, 50).get().isStale());
+    }
+
+    private JiraConnection connect(String domain, String project) throws Exception {
+        projects.put(domain.toLowerCase(), project);
+        JiraConnection connection = manager.connect(new JiraCredentials(domain, "test@example.com", "token")).get();
+        assertNotNull(connection);
+        return connection;
+    }
+
+    private static String issueJson(String key) {
+        return "{\"key\":\"" + key + "\",\"fields\":{\"summary\":\"Issue " + key + "\","
+                + "\"updated\":\"2024-01-16T11:00:00.000+0000\"}}";
+    }
+}
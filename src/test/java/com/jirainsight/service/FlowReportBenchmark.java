@@ -0,0 +1,69 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.IssueSprint;
+import com.jirainsight.model.IssueStatus;
+import com.jirainsight.model.IssueStatus.StatusCategory;
+import com.jirainsight.model.IssueUser;
+import com.jirainsight.model.JiraIssue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flow report benchmark over 100k generated issues: encoding into primitive columns,
+ * then each report.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:java
+ * -Dbenchmark.class=com.jirainsight.service.FlowReportBenchmark}
+ */
+public class FlowReportBenchmark {
+
+    private static final int ISSUE_COUNT = 100_000;
+    private static final int ROUNDS = 10;
+
+    private static final String[][] STATUSES = {
+            {"To Do", "new"}, {"In Progress", "indeterminate"}, {"In Review", "indeterminate"}, {"Done", "done"}};
+
+    // Keeps the JIT from discarding reports whose result is unused
+    private static long sink;
+
+    public static void main(String[] args) {
+        List<JiraIssue> issues = generateIssues();
+        long now = System.currentTimeMillis();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            FlowReport report = FlowReport.of(issues);
+            long encoded = System.nanoTime();
+            sink += report.statusCountsBySprint().get(0, 0);
+            long bySprint = System.nanoTime();
+            sink += report.weeklyThroughput().getRows().size();
+            long throughput = System.nanoTime();
+            sink += report.agingWorkInProgress(now).getRows().size();
+            long aging = System.nanoTime();
+
+            System.out.printf("round %2d: encode %6.1f ms, by sprint %5.1f ms, throughput %5.1f ms, aging %5.1f ms, total %6.1f ms%n",
+                    round, (encoded - start) / 1e6, (bySprint - encoded) / 1e6, (throughput - bySprint) / 1e6,
+                    (aging - throughput) / 1e6, (aging - start) / 1e6);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static List<JiraIssue> generateIssues() {
+        List<JiraIssue> issues = new ArrayList<>(ISSUE_COUNT);
+        for (int i = 0; i < ISSUE_COUNT; i++) {
+            String[] status = STATUSES[i % STATUSES.length];
+            JiraIssue issue = new JiraIssue();
+            issue.setKey("BENCH-" + (i + 1));
+            issue.setStatus(new IssueStatus(status[0], new StatusCategory(status[1])));
+            issue.setSprints(List.of(new IssueSprint("Sprint " + (i % 40))));
+            issue.setAssignee(new IssueUser("User " + (i % 60), "a" + (i % 60)));
+            issue.setCreated(String.format("20%02d-%02d-%02dT10:30:00.000+0000", 22 + i % 3, 1 + i % 12, 1 + i % 28));
+            if (status[1].equals("done")) {
+                issue.setResolved(String.format("2024-%02d-%02dT10:30:00.000+0000", 1 + i % 12, 1 + i % 28));
+            }
+            issues.add(issue);
+        }
+        return issues;
+    }
+}
@@ -0,0 +1,134 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.IssueSprint;
+import com.jirainsight.model.IssueStatus;
+import com.jirainsight.model.IssueStatus.StatusCategory;
+import com.jirainsight.model.IssueUser;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.StatusChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for FlowReport
+ */
+public class FlowReportTest {
+
+    private static final long NOW = OffsetDateTime.parse("2024-02-01T00:00:00Z").toInstant().toEpochMilli();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testStatusCountsBySprint() {
+        List<JiraIssue> issues = new ArrayList<>();
+        issues.add(issue("In Progress", "Sprint 1", "Jane", "2024-01-01T10:00:00.000+0000", null));
+        issues.add(issue("Done", "Sprint 1", "Jane", "2024-01-02T10:00:00.000+0000", "2024-01-09T10:00:00.000+0000"));
+        issues.add(issue("Done", "Sprint 2", null, "2024-01-08T10:00:00.000+0000", "2024-01-10T10:00:00.000+0000"));
+        issues.add(issue("To Do", null, "Bob", "2024-01-15T10:00:00.000+0000", null));
+
+        FlowReport.Table table = FlowReport.of(issues).statusCountsBySprint();
+
+        assertEquals(List.of("Sprint 1", "Sprint 2", "No sprint"), table.getRows());
+        assertEquals(List.of("In Progress", "Done", "To Do"), table.getColumns());
+        assertEquals(1, table.get("Sprint 1", "In Progress"));
+        assertEquals(1, table.get("Sprint 1", "Done"));
+        assertEquals(1, table.get("Sprint 2", "Done"));
+        assertEquals(1, table.get("No sprint", "To Do"));
+        assertEquals(0, table.get("Sprint 2", "To Do"));
+    }
+
+    @Test
+    public void testWeeklyThroughputStartsOnMonday() {
+        List<JiraIssue> issues = new ArrayList<>();
+        // 2024-01-01 was a Monday
+        issues.add(issue("Done", null, null, "2024-01-01T10:00:00.000+0000", "2024-01-09T10:00:00.000+0000"));
+        issues.add(issue("Done", null, null, "2024-01-07T23:00:00.000+0000", "2024-01-10T10:00:00.000+0000"));
+        issues.add(issue("In Progress", null, null, "2024-01-22T10:00:00.000+0000", null));
+
+        FlowReport.Table table = FlowReport.of(issues).weeklyThroughput();
+
+        assertEquals(List.of("2024-01-01", "2024-01-08", "2024-01-15", "2024-01-22"), table.getRows());
+        assertEquals(2, table.get("2024-01-01", "Created"));
+        assertEquals(0, table.get("2024-01-01", "Resolved"));
+        assertEquals(2, table.get("2024-01-08", "Resolved"));
+        assertEquals(1, table.get("2024-01-22", "Created"));
+    }
+
+    @Test
+    public void testAgingWorkInProgressAcrossChunks() {
+        List<JiraIssue> issues = new ArrayList<>();
+        // Enough issues to be split into several chunks
+        for (int i = 0; i < FlowReport.CHUNK_SIZE * 3; i++) {
+            issues.add(issue("Done", null, "Jane", "2024-01-01T00:00:00.000+0000", "2024-01-02T00:00:00.000+0000"));
+        }
+        issues.add(issue("In Progress", null, "Jane", "2024-01-22T00:00:00.000+0000", null));
+        issues.add(issue("In Progress", null, "Jane", "2024-01-30T00:00:00.000+0000", null));
+        issues.add(issue("In Progress", null, "Bob", "2024-01-01T00:00:00.000+0000", null));
+
+        FlowReport report = FlowReport.of(issues);
+        FlowReport.Table table = report.agingWorkInProgress(NOW);
+
+        assertEquals(List.of("Bob", "Jane"), table.getRows());
+        assertEquals(1, table.get("Bob", "Issues"));
+        assertEquals(31, table.get("Bob", "Oldest days"));
+        assertEquals(2, table.get("Jane", "Issues"));
+        assertEquals(6, table.get("Jane", "Average days"));
+        assertEquals(10, table.get("Jane", "Oldest days"));
+
+        assertEquals(FlowReport.CHUNK_SIZE * 3 + 3, report.getIssueCount());
+        assertEquals(FlowReport.CHUNK_SIZE * 3, report.statusCountsBySprint().get("No sprint", "Done"));
+        assertTrue(table.format().startsWith("Aging work in progress\n"));
+    }
+
+    @Test
+    public void testWorkStartsAtFirstLoggedTransition() throws IOException {
+        JiraIssue waiting = issue("In Progress", "Sprint 1", "Jane", "2024-01-01T00:00:00.000+0000", null);
+        JiraIssue done = issue("Done", "Sprint 1", "Jane", "2024-01-01T00:00:00.000+0000", "2024-01-21T00:00:00.000+0000");
+        done.setKey("TEST-2");
+        List<JiraIssue> issues = List.of(waiting, done);
+
+        // Without a log work starts at creation
+        assertEquals(31, FlowReport.of(issues).agingWorkInProgress(NOW).get("Jane", "Oldest days"));
+        assertEquals(20, FlowReport.of(issues).cycleTimeBySprint().get("Sprint 1", "Longest days"));
+
+        TransitionLog log = TransitionLog.open(tempDir.resolve("transitions.log"));
+        log.append(Map.of(
+                "TEST-1", List.of(new StatusChange("To Do", "In Progress", millis("2024-01-25T00:00:00Z"))),
+                "TEST-2", List.of(
+                        new StatusChange("To Do", "In Progress", millis("2024-01-11T00:00:00Z")),
+                        new StatusChange("In Progress", "Done", millis("2024-01-21T00:00:00Z")))));
+        FlowReport report = FlowReport.of(issues, log);
+
+        assertEquals(7, report.agingWorkInProgress(NOW).get("Jane", "Oldest days"));
+        FlowReport.Table cycleTime = report.cycleTimeBySprint();
+        assertEquals(List.of("Sprint 1"), cycleTime.getRows());
+        assertEquals(1, cycleTime.get("Sprint 1", "Issues"));
+        assertEquals(10, cycleTime.get("Sprint 1", "Average days"));
+    }
+
+    private static long millis(String timestamp) {
+        return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+    }
+
+    private static JiraIssue issue(String status, String sprint, String assignee, String created, String resolved) {
+        JiraIssue issue = new JiraIssue();
+        issue.setKey("TEST-1");
+        issue.setStatus(new IssueStatus(status, new StatusCategory(
+                status.equals("Done") ? "done" : status.equals("To Do") ? "new" : "indeterminate")));
+        issue.setSprints(sprint != null ? List.of(new IssueSprint(sprint)) : null);
+        issue.setAssignee(assignee != null ? new IssueUser(assignee, assignee.toLowerCase()) : null);
+        issue.setCreated(created);
+        issue.setResolved(resolved);
+        return issue;
+    }
+}
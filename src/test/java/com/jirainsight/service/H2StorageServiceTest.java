@@ -0,0 +1,106 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraCredentials;
+import com.jirainsight.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for H2StorageService
+ */
+public class H2StorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRememberedCredentialsSurviveReopen() throws Exception {
+        H2StorageService storage = new H2StorageService(tempDir);
+        User remembering = storage.createUser("remember@example.com", "temp");
+        JiraCredentials remembered = new JiraCredentials("test.atlassian.net", "remember@example.com", "secret-token-1");
+        remembered.setRememberCredentials(true);
+        storage.saveJiraCredentials(remembering.getId(), remembered);
+
+        User forgetting = storage.createUser("forget@example.com", "temp");
+        storage.saveJiraCredentials(forgetting.getId(),
+                new JiraCredentials("other.atlassian.net", "forget@example.com", "secret-token-2"));
+        storage.close();
+
+        H2StorageService reopened = new H2StorageService(tempDir);
+        try {
+            assertEquals(2, reopened.getStats().getUserCount());
+            assertEquals(1, reopened.getStats().getCredentialsCount());
+            assertFalse(reopened.hasJiraCredentials(forgetting.getId()));
+
+            assertEquals(1, reopened.getRememberedCredentials().size());
+            JiraCredentials restored = reopened.getRememberedCredentials().get(0);
+            assertEquals(remembered.getId(), restored.getId());
+            assertEquals(remembering.getId(), restored.getUserId());
+            assertEquals("secret-token-1", restored.getApiToken());
+            assertTrue(restored.isRememberCredentials());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testDeletedCredentialsAreForgotten() throws Exception {
+        H2StorageService storage = new H2StorageService(tempDir);
+        User user = storage.createUser("test@example.com", "temp");
+        JiraCredentials credentials = new JiraCredentials("test.atlassian.net", "test@example.com", "token123");
+        credentials.setRememberCredentials(true);
+        storage.saveJiraCredentials(user.getId(), credentials);
+        assertTrue(storage.deleteJiraCredentials(user.getId()));
+        storage.close();
+
+        H2StorageService reopened = new H2StorageService(tempDir);
+        try {
+            assertTrue(reopened.getRememberedCredentials().isEmpty());
+            assertNotNull(reopened.getUserById(user.getId()));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testDatabaseFileIsEncrypted() throws Exception {
+        H2StorageService storage = new H2StorageService(tempDir);
+        User user = storage.createUser("test@example.com", "temp");
+        JiraCredentials credentials = new JiraCredentials("test.atlassian.net", "test@example.com", "plaintext-marker-token");
+        credentials.setRememberCredentials(true);
+        storage.saveJiraCredentials(user.getId(), credentials);
+        storage.close();
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".db")).toList()) {
+                String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+                assertFalse(content.contains("plaintext-marker-token"));
+                assertFalse(content.contains("test.atlassian.net"));
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyKeyFileIsReplacedOnlyWithoutDatabase() throws Exception {
+        Path keyFile = tempDir.resolve("storage.key");
+        Files.writeString(keyFile, "");
+
+        new H2StorageService(tempDir).close();
+        assertEquals(64, Files.readString(keyFile).trim().length());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().endsWith(".tmp")));
+        }
+
+        // Once a database exists an empty key cannot be replaced without losing it
+        Files.writeString(keyFile, "");
+        assertThrows(IOException.class, () -> new H2StorageService(tempDir));
+    }
+}
@@ -0,0 +1,124 @@
+package com.jirainsight.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jirainsight.model.JiraCredentials;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.jirainsight.service.CannedJiraSite.respond;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for IssueExporter, with a site that serves a fixed number of generated issues
+ */
+public class IssueExporterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int ISSUE_COUNT = 250;
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Integer> requestedStarts = new CopyOnWriteArrayList<>();
+
+    private final Interceptor cannedSite = chain -> {
+        Request request = chain.request();
+        if (request.url().encodedPath().endsWith("/myself")) {
+            return respond(request, 200, "{\"accountId\":\"a1\"}");
+        }
+
+        JsonNode search = CannedJiraSite.readBody(request);
+        int startAt = search.path("startAt").asInt();
+        int maxResults = search.path("maxResults").asInt();
+        requestedStarts.add(startAt);
+        if (search.path("jql").asText().contains("broken") && startAt > 0) {
+            return respond(request, 400, "{}");
+        }
+
+        StringBuilder json = new StringBuilder("{\"startAt\":" + startAt + ",\"maxResults\":" + maxResults
+                + ",\"total\":" + ISSUE_COUNT + ",\"issues\":[");
+        int end = Math.min(ISSUE_COUNT, startAt + maxResults);
+        for (int i = startAt; i < end; i++) {
+            if (i > startAt) {
+                json.append(',');
+            }
+            String summary = i == 0 ? "Fix \\\"quotes\\\", commas\\nand lines" : "Issue " + i;
+            json.append("{\"key\":\"PROJ-").append(i + 1).append("\",\"fields\":{\"summary\":\"").append(summary)
+                    .append("\",\"status\":{\"name\":\"Done\",\"statusCategory\":{\"key\":\"done\"}}}}");
+        }
+        return respond(request, 200, json.append("]}").toString());
+    };
+
+    private final ConnectionManager manager = CannedJiraSite.connectionManager(cannedSite);
+
+    @AfterEach
+    public void tearDown() {
+        manager.disconnectAll();
+    }
+
+    @Test
+    public void testCsvExportPagesThroughWholeResult() throws Exception {
+        connect();
+        Path target = tempDir.resolve("issues.csv");
+        List<Long> progress = new CopyOnWriteArrayList<>();
+
+        long exported = new IssueExporter().export(manager.getConnections(), "project = PROJ",
+                IssueExporter.Format.CSV, target, (done, total) -> progress.add(done));
+
+        assertEquals(ISSUE_COUNT, exported);
+        assertEquals(List.of(0, 100, 200), requestedStarts);
+        assertEquals(List.of(100L, 200L, 250L), progress);
+
+        String csv = Files.readString(target, StandardCharsets.UTF_8);
+        String[] lines = csv.split("\r\n");
+        assertEquals(String.join(",", IssueExporter.CSV_COLUMNS), lines[0]);
+        assertTrue(lines[1].startsWith("test.atlassian.net,PROJ-1,\"Fix \"\"quotes\"\", commas\nand lines\",Done,done,"));
+        assertEquals(ISSUE_COUNT + 1, lines.length);
+        assertFalse(Files.exists(tempDir.resolve("issues.csv.part")));
+    }
+
+    @Test
+    public void testJsonLinesExportWritesOneIssuePerLine() throws Exception {
+        connect();
+        Path target = tempDir.resolve("issues.jsonl");
+        assertEquals(IssueExporter.Format.JSONL, IssueExporter.Format.forFile(target));
+
+        new IssueExporter().export(manager.getConnections(), "project = PROJ",
+                IssueExporter.Format.JSONL, target, (done, total) -> {});
+
+        List<String> lines = Files.readAllLines(target, StandardCharsets.UTF_8);
+        assertEquals(ISSUE_COUNT, lines.size());
+        JsonNode first = MAPPER.readTree(lines.get(0));
+        assertEquals("PROJ-1", first.path("key").asText());
+        assertEquals("test.atlassian.net", first.path("site").asText());
+        assertEquals("PROJ-250", MAPPER.readTree(lines.get(ISSUE_COUNT - 1)).path("key").asText());
+    }
+
+    @Test
+    public void testFailedExportLeavesExistingFileUntouched() throws Exception {
+        connect();
+        Path target = tempDir.resolve("issues.csv");
+        Files.writeString(target, "previous export");
+
+        assertThrows(IOException.class, () -> new IssueExporter().export(manager.getConnections(), "broken",
+                IssueExporter.Format.CSV, target, (done, total) -> {}));
+
+        assertEquals("previous export", Files.readString(target));
+        assertFalse(Files.exists(tempDir.resolve("issues.csv.part")));
+    }
+
+    private void connect() throws Exception {
+        assertNotNull(manager.connect(new JiraCredentials("test.atlassian.net", "test@example.com", "token")).get());
+    }
+}
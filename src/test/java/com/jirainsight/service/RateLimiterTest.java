@@ -0,0 +1,120 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.JiraAccount;
+import com.jirainsight.model.JiraCredentials;
+import okhttp3.Interceptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for RateLimiter and the RateLimitInterceptor header handling and retries
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testTokenBucketQueuesBeyondBurst() {
+        RateLimiter limiter = new RateLimiter(10, 2, 4, 0);
+
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(SECOND / 10, limiter.reserve(0));
+        assertEquals(2 * SECOND / 10, limiter.reserve(0));
+
+        // One second refills the bucket up to the burst size only
+        assertEquals(0, limiter.reserve(2 * SECOND));
+        assertEquals(0, limiter.reserve(2 * SECOND));
+        assertTrue(limiter.reserve(2 * SECOND) > 0);
+    }
+
+    @Test
+    public void testPauseDelaysReservations() {
+        RateLimiter limiter = new RateLimiter(10, 5, 4, 0);
+        limiter.pauseUntil(3 * SECOND);
+
+        assertEquals(3 * SECOND - SECOND, limiter.reserve(SECOND));
+        assertEquals(0, limiter.reserve(4 * SECOND));
+    }
+
+    @Test
+    public void testConcurrencyAdaptsOnThrottling() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000, 100, 8, System.nanoTime());
+        assertEquals(8, limiter.getConcurrencyLimit());
+
+        limiter.acquire();
+        limiter.release(true);
+        assertEquals(4, limiter.getConcurrencyLimit());
+
+        limiter.acquire();
+        limiter.release(true);
+        assertEquals(2, limiter.getConcurrencyLimit());
+        assertEquals(2, limiter.getThrottledCount());
+
+        // Additive increase recovers slowly, by roughly one per limit-many successes
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+            limiter.release(false);
+        }
+        assertEquals(3, limiter.getConcurrencyLimit());
+    }
+
+    @Test
+    public void testRetryAfterParsing() {
+        assertEquals(0, RateLimitInterceptor.parseRetryAfter(null, 0));
+        assertEquals(0, RateLimitInterceptor.parseRetryAfter("soon", 0));
+        assertEquals(5000, RateLimitInterceptor.parseRetryAfter("5", 0));
+
+        long now = java.time.Instant.parse("2015-10-21T07:28:00Z").toEpochMilli();
+        assertEquals(2000, RateLimitInterceptor.parseRetryAfter("Wed, 21 Oct 2015 07:28:02 GMT", now));
+        assertEquals(1500, RateLimitInterceptor.parseReset("2015-10-21T07:28:01.500Z", now));
+    }
+
+    @Test
+    public void testBackoffGrowsAndIsCapped() {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            long ceiling = Math.min(RateLimitInterceptor.MAX_BACKOFF_MILLIS,
+                    RateLimitInterceptor.BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+            long delay = RateLimitInterceptor.backoffMillis(attempt);
+            assertTrue(delay >= ceiling / 2 && delay <= ceiling, "attempt " + attempt + " delay " + delay);
+        }
+    }
+
+    @Test
+    public void testNonPositiveRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(-1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(Double.NaN, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> TransportProfile.defaults().setRateLimitPerSecond(0));
+    }
+
+    @Test
+    public void testThrottledRequestIsRetriedAfterRetryAfter() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Interceptor throttleOnce = chain -> {
+            if (calls.incrementAndGet() == 1) {
+                return CannedJiraSite.respond(chain.request(), 429, "{}").newBuilder().header("Retry-After", "1").build();
+            }
+            return CannedJiraSite.respond(chain.request(), 200, "{\"accountId\":\"a1\"}");
+        };
+
+        JiraApiService service = new JiraApiService(TransportProfile.defaults(), List.of(throttleOnce));
+        JiraCredentials credentials = new JiraCredentials("test.atlassian.net", "test@example.com", "token");
+        try {
+            long start = System.nanoTime();
+            JiraAccount account = service.getMyself(credentials).get(10, TimeUnit.SECONDS);
+
+            assertEquals("a1", account.getAccountId());
+            assertEquals(2, calls.get());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+            assertEquals(1, service.getRateLimiter(credentials).getThrottledCount());
+        } finally {
+            service.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.IssueProject;
+import com.jirainsight.model.IssueSprint;
+import com.jirainsight.model.IssueStatus;
+import com.jirainsight.model.IssueStatus.StatusCategory;
+import com.jirainsight.model.IssueUser;
+import com.jirainsight.model.JiraIssue;
+import com.jirainsight.model.SessionSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for SessionSnapshotStore
+ */
+public class SessionSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<JiraIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            JiraIssue issue = new JiraIssue();
+            issue.setKey("TEST-" + i);
+            issue.setSite(i == 1 ? "other.atlassian.net" : "test.atlassian.net");
+            issue.setSummary("Issue " + i);
+            issue.setDescription("Body of issue " + i);
+            issue.setStatus(new IssueStatus("In Progress", new StatusCategory("indeterminate")));
+            issue.setProject(new IssueProject("TEST", "Test Project"));
+            issue.setAssignee(i == 2 ? null : new IssueUser("Jane Doe", "a1"));
+            issue.setSprints(i == 3 ? null : List.of(new IssueSprint("Sprint 1")));
+            issues.add(issue);
+        }
+
+        SessionSnapshot snapshot = new SessionSnapshot();
+        snapshot.setSavedAtMillis(1_700_000_000_000L);
+        snapshot.setDomains(List.of("test.atlassian.net", "other.atlassian.net"));
+        snapshot.setEmail("test@example.com");
+        snapshot.setQuery("jql:project = TEST");
+        snapshot.setJqlText("project = TEST");
+        snapshot.setSummary("Found 3 issues");
+        snapshot.setSelectedKey("test.atlassian.net/TEST-2");
+        snapshot.setIssues(issues);
+
+        SessionSnapshotStore store = new SessionSnapshotStore(tempDir.resolve("nested").resolve("session.bin"));
+        store.write(snapshot);
+        SessionSnapshot restored = store.read();
+
+        assertNotNull(restored);
+        assertEquals(1_700_000_000_000L, restored.getSavedAtMillis());
+        assertEquals(List.of("test.atlassian.net", "other.atlassian.net"), restored.getDomains());
+        assertEquals("jql:project = TEST", restored.getQuery());
+        assertNull(restored.getQuickSearchText());
+        assertEquals("test.atlassian.net/TEST-2", restored.getSelectedKey());
+        assertEquals(3, restored.getIssues().size());
+
+        JiraIssue first = restored.getIssues().get(0);
+        assertEquals("TEST-1", first.getKey());
+        assertEquals("other.atlassian.net", first.getSite());
+        assertEquals("In Progress", first.getStatus().getName());
+        assertEquals("indeterminate", first.getStatus().getStatusCategory().getKey());
+        assertEquals("Test Project", first.getProject().getName());
+        assertEquals("Jane Doe", first.getAssignee().getDisplayName());
+        assertEquals("Sprint 1", first.getSprints().get(0).getName());
+        // Issue bodies are not written to the unencrypted snapshot
+        assertNull(first.getDescription());
+        assertFalse(new String(Files.readAllBytes(store.getFile()), StandardCharsets.UTF_8).contains("Body of issue"));
+
+        assertNull(restored.getIssues().get(1).getAssignee());
+        assertNull(restored.getIssues().get(2).getSprints());
+    }
+
+    @Test
+    public void testMissingOrCorruptFileReadsAsNull() throws IOException {
+        SessionSnapshotStore store = new SessionSnapshotStore(tempDir.resolve("session.bin"));
+        assertNull(store.read());
+
+        Files.write(store.getFile(), new byte[] {1, 2, 3, 4, 5, 6, 7});
+        assertNull(store.read());
+
+        // A string table claiming more entries or bytes than the file holds is not allocated
+        ByteBuffer huge = ByteBuffer.allocate(14).putInt(0x4A495353).putShort((short) 4).putInt(Integer.MAX_VALUE);
+        Files.write(store.getFile(), huge.array());
+        assertNull(store.read());
+        ByteBuffer longString = ByteBuffer.allocate(18).putInt(0x4A495353).putShort((short) 4).putInt(1)
+                .putInt(Integer.MAX_VALUE).putInt(0);
+        Files.write(store.getFile(), longString.array());
+        assertNull(store.read());
+
+        store.delete();
+        assertFalse(Files.exists(store.getFile()));
+    }
+}
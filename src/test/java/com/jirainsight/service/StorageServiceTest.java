@@ -80,4 +80,51 @@ public class StorageServiceTest {
         assertTrue(deleted);
         assertFalse(storageService.hasJiraCredentials(user.getId()));
     }
+    
+    @Test
+    public void testUpdateJiraCredentialsRefreshesAuthorizationHeader() {
+        User user = storageService.createUser("testuser", "password");
+        JiraCredentials saved = storageService.saveJiraCredentials(user.getId(),
+                new JiraCredentials("test.atlassian.net", "tëst@example.com", "token123"));
+        
+        String header = saved.getAuthorizationHeader();
+        assertEquals("Basic " + java.util.Base64.getEncoder().encodeToString(
+                "tëst@example.com:token123".getBytes(java.nio.charset.StandardCharsets.UTF_8)), header);
+        assertSame(header, saved.getAuthorizationHeader());
+        
+        JiraCredentials update = new JiraCredentials("test.atlassian.net", "tëst@example.com", "token456");
+        update.setId(saved.getId());
+        storageService.updateJiraCredentials(update);
+        
+        assertNotEquals(header, saved.getAuthorizationHeader());
+        assertTrue(saved.getAuthorizationHeader().startsWith("Basic "));
+    }
+    
+    @Test
+    public void testCreateUserUpsertsByUsername() {
+        User first = storageService.createUser("testuser", "password");
+        User second = storageService.createUser("testuser", "changed");
+        
+        assertSame(first, second);
+        assertEquals("changed", second.getPassword());
+        assertEquals(1, storageService.getStats().getUserCount());
+        assertSame(first, storageService.getUserByUsername("testuser"));
+        assertNull(storageService.getUserByUsername("otheruser"));
+    }
+    
+    @Test
+    public void testCredentialsArePerSite() {
+        User user = storageService.createUser("testuser", "password");
+        storageService.saveJiraCredentials(user.getId(), new JiraCredentials("one.atlassian.net", "test@example.com", "token1"));
+        storageService.saveJiraCredentials(user.getId(), new JiraCredentials("two.atlassian.net", "test@example.com", "token2"));
+        storageService.saveJiraCredentials(user.getId(), new JiraCredentials("ONE.atlassian.net", "test@example.com", "token3"));
+        
+        assertEquals(2, storageService.getStats().getCredentialsCount());
+        assertEquals("token3", storageService.getJiraCredentials(user.getId(), "one.atlassian.net").getApiToken());
+        assertEquals("token2", storageService.getJiraCredentials(user.getId(), "two.atlassian.net").getApiToken());
+        
+        assertTrue(storageService.deleteJiraCredentials(user.getId(), "one.atlassian.net"));
+        assertNull(storageService.getJiraCredentials(user.getId(), "one.atlassian.net"));
+        assertTrue(storageService.hasJiraCredentials(user.getId()));
+    }
 }
@@ -0,0 +1,49 @@
+package com.jirainsight.service;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for TransferCounter
+ */
+public class TransferCounterTest {
+
+    @Test
+    public void testCountsDecodedBytes() throws IOException {
+        String json = "{\"issues\":[" + "{\"key\":\"TEST-1\"},".repeat(1000) + "{\"key\":\"TEST-2\"}]}";
+
+        Buffer compressed = new Buffer();
+        try (GzipSink gzip = new GzipSink(compressed)) {
+            Buffer plain = new Buffer().writeUtf8(json);
+            gzip.write(plain, plain.size());
+        }
+        long compressedSize = compressed.size();
+
+        TransferCounter counter = new TransferCounter();
+        counter.recordWireBytes(compressedSize);
+        try (BufferedSource source = Okio.buffer(counter.countDecoded(new GzipSource(compressed)))) {
+            assertEquals(json, source.readUtf8());
+        }
+
+        assertEquals(compressedSize, counter.getWireBytes());
+        assertEquals(json.length(), counter.getDecodedBytes());
+        assertTrue(counter.getCompressionRatio() > 10);
+    }
+
+    @Test
+    public void testEmptyCounter() {
+        TransferCounter counter = new TransferCounter();
+
+        assertEquals(0, counter.getWireBytes());
+        assertEquals(0, counter.getDecodedBytes());
+        assertEquals(1.0, counter.getCompressionRatio());
+    }
+}
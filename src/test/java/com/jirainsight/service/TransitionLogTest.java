@@ -0,0 +1,120 @@
+package com.jirainsight.service;
+
+import com.jirainsight.model.StatusChange;
+import com.jirainsight.util.JiraDateUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for TransitionLog
+ */
+public class TransitionLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testAppendReopenAndQueryByTime() throws IOException {
+        Path file = tempDir.resolve("nested").resolve("transitions.log");
+        TransitionLog log = TransitionLog.open(file);
+
+        Map<String, List<StatusChange>> changes = new LinkedHashMap<>();
+        changes.put("test.atlassian.net/TEST-1", List.of(
+                new StatusChange("In Progress", "Done", 300),
+                new StatusChange("To Do", "In Progress", 100)));
+        changes.put("test.atlassian.net/TEST-2", List.of(new StatusChange(null, "To Do", 200)));
+        assertEquals(3, log.append(changes));
+
+        TransitionLog reopened = TransitionLog.open(file);
+        assertEquals(3, reopened.size());
+        assertEquals(2, reopened.getIssueCount());
+        assertEquals(100, reopened.getFirstTransitionMillis("test.atlassian.net/TEST-1"));
+        assertEquals(300, reopened.getLastTransitionMillis("test.atlassian.net/TEST-1"));
+        assertEquals(JiraDateUtils.UNKNOWN, reopened.getFirstTransitionMillis("test.atlassian.net/TEST-3"));
+
+        // Appended out of time order, queried in time order
+        reopened.append(Map.of("other.atlassian.net/OTHER-1", List.of(new StatusChange("To Do", "Done", 150))));
+        List<String> visited = new ArrayList<>();
+        reopened.forEachBetween(100, 300, (issue, from, to, epochMillis) -> visited.add(
+                reopened.getIssueKey(issue) + " " + reopened.getStatusName(from) + ">" + reopened.getStatusName(to)
+                        + " @" + epochMillis));
+
+        assertEquals(List.of(
+                "test.atlassian.net/TEST-1 To Do>In Progress @100",
+                "other.atlassian.net/OTHER-1 To Do>Done @150",
+                "test.atlassian.net/TEST-2 null>To Do @200"), visited);
+        assertEquals(4, reopened.countBetween(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(0, reopened.countBetween(301, 1000));
+    }
+
+    @Test
+    public void testLoggingAnIssueAgainAppendsOnlyNewerTransitions() throws IOException {
+        TransitionLog log = TransitionLog.open(tempDir.resolve("transitions.log"));
+        List<StatusChange> history = new ArrayList<>(List.of(
+                new StatusChange("To Do", "In Progress", 100),
+                new StatusChange("In Progress", "In Review", 200)));
+        assertEquals(2, log.append(Map.of("TEST-1", history)));
+
+        history.add(new StatusChange("In Review", "Done", 300));
+        assertEquals(1, log.append(Map.of("TEST-1", history)));
+        assertEquals(0, log.append(Map.of("TEST-1", history)));
+
+        assertEquals(3, TransitionLog.open(log.getFile()).size());
+    }
+
+    @Test
+    public void testIncompleteRecordIsDroppedOnOpen() throws IOException {
+        Path file = tempDir.resolve("transitions.log");
+        TransitionLog log = TransitionLog.open(file);
+        log.append(Map.of("TEST-1", List.of(new StatusChange("To Do", "Done", 100))));
+        long intactSize = Files.size(file);
+
+        // A transition record cut short by a crash
+        Files.write(file, new byte[] {3, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        TransitionLog reopened = TransitionLog.open(file);
+        assertEquals(1, reopened.size());
+        assertEquals(intactSize, Files.size(file));
+
+        reopened.append(Map.of("TEST-2", List.of(new StatusChange("To Do", "Done", 200))));
+        assertEquals(2, TransitionLog.open(file).size());
+    }
+
+    @Test
+    public void testInvalidTailIsDroppedOnOpen() throws IOException {
+        Path file = tempDir.resolve("transitions.log");
+        TransitionLog log = TransitionLog.open(file);
+        log.append(Map.of("TEST-1", List.of(new StatusChange("To Do", "Done", 100))));
+        long intactSize = Files.size(file);
+
+        // A zero-filled tail left by a power loss
+        Files.write(file, new byte[64], StandardOpenOption.APPEND);
+        assertEquals(1, TransitionLog.open(file).size());
+        assertEquals(intactSize, Files.size(file));
+
+        // A transition naming an issue that was never defined
+        Files.write(file, new byte[] {3, 0, 0, 0, 9, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1},
+                StandardOpenOption.APPEND);
+        assertEquals(1, TransitionLog.open(file).size());
+        assertEquals(intactSize, Files.size(file));
+    }
+
+    @Test
+    public void testOtherFilesAreRejected() throws IOException {
+        Path file = tempDir.resolve("session.bin");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7});
+
+        assertThrows(IOException.class, () -> TransitionLog.open(file));
+    }
+}
@@ -0,0 +1,89 @@
+package com.jirainsight.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.jirainsight.model.User;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Username lookup benchmark for InMemoryStorageService.
+ * <p>
+ * Compares the username index against the linear scan it replaced at growing user
+ * counts. Index lookups should stay flat while the scan grows with the user count.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:java
+ * -Dbenchmark.class=com.jirainsight.service.UserLookupBenchmark}
+ */
+public class UserLookupBenchmark {
+
+    private static final int[] USER_COUNTS = {1_000, 10_000, 100_000};
+    private static final int INDEX_LOOKUPS = 2_000_000;
+    private static final int SCAN_LOOKUPS = 200;
+
+    // Keeps the JIT from discarding lookups whose result is unused
+    private static int sink;
+
+    public static void main(String[] args) {
+        // Creating 100k users would otherwise log 100k lines
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.getLogger("com.jirainsight").setLevel(Level.OFF);
+
+        for (int userCount : USER_COUNTS) {
+            InMemoryStorageService storage = new InMemoryStorageService();
+            for (int i = 0; i < userCount; i++) {
+                storage.createUser(username(i), "temp");
+            }
+
+            // Warm up both paths before measuring
+            indexLookups(storage, userCount, INDEX_LOOKUPS);
+            scanLookups(storage, userCount, SCAN_LOOKUPS / 10);
+
+            double indexNanos = indexLookups(storage, userCount, INDEX_LOOKUPS);
+            double scanNanos = scanLookups(storage, userCount, SCAN_LOOKUPS);
+            System.out.printf("%,8d users: index %8.1f ns/lookup, linear scan %,12.1f ns/lookup%n",
+                    userCount, indexNanos, scanNanos);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static double indexLookups(InMemoryStorageService storage, int userCount, int lookups) {
+        Random random = new Random(1);
+        String[] names = new String[1024];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = username(random.nextInt(userCount));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            User user = storage.getUserByUsername(names[i & (names.length - 1)]);
+            sink += user.getUsername().length();
+        }
+        return (System.nanoTime() - start) / (double) lookups;
+    }
+
+    /**
+     * The lookup as it was before the index: a stream over all users
+     */
+    private static double scanLookups(InMemoryStorageService storage, int userCount, int lookups) {
+        Random random = new Random(2);
+        Collection<User> users = storage.getAllUsers().values();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            String username = username(random.nextInt(userCount));
+            User user = users.stream()
+                    .filter(candidate -> username.equals(candidate.getUsername()))
+                    .findFirst()
+                    .orElse(null);
+            sink += user.getUsername().length();
+        }
+        return (System.nanoTime() - start) / (double) lookups;
+    }
+
+    private static String username(int i) {
+        return "user" + i + "@example.com";
+    }
+}
@@ -0,0 +1,61 @@
+package com.jirainsight.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for FxStallDetector
+ */
+public class FxStallDetectorTest {
+
+    private StackTraceElement frame(String className, String method) {
+        return new StackTraceElement(className, method, null, -1);
+    }
+
+    @Test
+    public void testAttributesInnermostControllerFrame() {
+        StackTraceElement[] sample = {
+                frame("com.sun.webkit.WebPage", "twkLoad"),
+                frame("javafx.scene.web.WebEngine", "loadContent"),
+                frame("com.jirainsight.controller.IssueDetailsController", "updateComments"),
+                frame("com.jirainsight.controller.IssueDetailsController", "displayIssue"),
+                frame("com.jirainsight.controller.MainController", "displayIssueDetails"),
+                frame("com.sun.glass.ui.InvokeLaterDispatcher$Future", "run")
+        };
+
+        assertEquals("IssueDetailsController.updateComments", FxStallDetector.attribute(sample));
+        assertEquals("WebPage.twkLoad", FxStallDetector.attribute(new StackTraceElement[] {
+                frame("com.sun.webkit.WebPage", "twkLoad")}));
+    }
+
+    @Test
+    public void testAttributesMostFrequentHandler() {
+        StackTraceElement[] details = {frame("com.jirainsight.controller.IssueDetailsController", "updateComments")};
+        StackTraceElement[] main = {frame("com.jirainsight.controller.MainController", "updateFacetPanel")};
+
+        assertEquals("IssueDetailsController.updateComments",
+                FxStallDetector.attribute(List.of(main, details, details)));
+        assertEquals("unknown (no samples)", FxStallDetector.attribute(new ArrayList<>()));
+    }
+
+    @Test
+    public void testKeepsWorstStalls() {
+        FxStallDetector detector = new FxStallDetector();
+        StackTraceElement[] sample = {frame("com.jirainsight.controller.MainController", "displaySearchResults")};
+
+        for (int i = 1; i <= FxStallDetector.MAX_RECORDED_STALLS + 5; i++) {
+            detector.recordStall(TimeUnit.MILLISECONDS.toNanos(100L * i), List.<StackTraceElement[]>of(sample));
+        }
+
+        List<FxStallDetector.Stall> stalls = detector.getWorstStalls();
+        assertEquals(FxStallDetector.MAX_RECORDED_STALLS, stalls.size());
+        assertEquals(100L * (FxStallDetector.MAX_RECORDED_STALLS + 5), stalls.get(0).getDurationMillis());
+        assertEquals(600, stalls.get(stalls.size() - 1).getDurationMillis());
+        assertTrue(detector.report().contains("MainController.displaySearchResults"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.jirainsight.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for FxUpdateScheduler
+ */
+public class FxUpdateSchedulerTest {
+
+    @Test
+    public void testUpdatesForSameTargetAreCoalesced() {
+        AtomicInteger pulseRequests = new AtomicInteger();
+        FxUpdateScheduler scheduler = new FxUpdateScheduler(Long.MAX_VALUE, pulseRequests::incrementAndGet);
+        List<String> applied = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            String status = "status " + i;
+            scheduler.submit("status", () -> applied.add(status));
+        }
+
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(1, pulseRequests.get());
+
+        scheduler.drain(Long.MAX_VALUE);
+        assertEquals(List.of("status 999"), applied);
+        assertFalse(scheduler.finishPulse());
+    }
+
+    @Test
+    public void testReplacedUpdateRunsAfterEarlierSubmissions() {
+        FxUpdateScheduler scheduler = new FxUpdateScheduler(Long.MAX_VALUE, () -> {});
+        List<String> applied = new ArrayList<>();
+
+        scheduler.submit("results", () -> applied.add("old results"));
+        scheduler.submit(() -> applied.add("page"));
+        scheduler.submit("results", () -> applied.add("new results"));
+
+        scheduler.drain(Long.MAX_VALUE);
+        assertEquals(List.of("page", "new results"), applied);
+    }
+
+    @Test
+    public void testBudgetCarriesRemainderToNextPulse() {
+        FxUpdateScheduler scheduler = new FxUpdateScheduler(0, () -> {});
+
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(() -> {});
+        }
+
+        assertEquals(1, scheduler.drain(0));
+        assertTrue(scheduler.finishPulse());
+        assertEquals(2, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testFailingUpdateDoesNotAbortTheQueue() {
+        FxUpdateScheduler scheduler = new FxUpdateScheduler(Long.MAX_VALUE, () -> {});
+        List<String> applied = new ArrayList<>();
+
+        scheduler.submit(() -> applied.add("before"));
+        scheduler.submit(() -> {
+            throw new IllegalStateException("A bound value cannot be set");
+        });
+        scheduler.submit(() -> applied.add("after"));
+
+        assertEquals(3, scheduler.drain(Long.MAX_VALUE));
+        assertEquals(List.of("before", "after"), applied);
+        assertFalse(scheduler.finishPulse());
+    }
+}
@@ -0,0 +1,141 @@
+package com.jirainsight.util;
+
+import com.jirainsight.model.JiraIssue;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for IssueListDiff
+ */
+public class IssueListDiffTest {
+
+    private JiraIssue createIssue(String key, String updated) {
+        JiraIssue issue = new JiraIssue();
+        issue.setKey(key);
+        issue.setUpdated(updated);
+        return issue;
+    }
+
+    private List<String> keys(List<JiraIssue> issues) {
+        List<String> keys = new ArrayList<>();
+        for (JiraIssue issue : issues) {
+            keys.add(issue.getKey());
+        }
+        return keys;
+    }
+
+    @Test
+    public void testUnchangedIssuesAreKept() {
+        JiraIssue first = createIssue("TEST-1", "2024-01-15T10:00:00.000+0000");
+        JiraIssue second = createIssue("TEST-2", "2024-01-15T10:00:00.000+0000");
+        List<JiraIssue> target = new ArrayList<>(List.of(first, second));
+
+        IssueListDiff diff = IssueListDiff.apply(target, List.of(
+                createIssue("TEST-1", "2024-01-15T10:00:00.000+0000"),
+                createIssue("TEST-2", "2024-01-15T10:00:00.000+0000")));
+
+        assertFalse(diff.hasChanges());
+        assertSame(first, target.get(0));
+        assertSame(second, target.get(1));
+    }
+
+    @Test
+    public void testOnlyUpdatedIssuesAreReplaced() {
+        JiraIssue first = createIssue("TEST-1", "2024-01-15T10:00:00.000+0000");
+        List<JiraIssue> target = new ArrayList<>(List.of(first, createIssue("TEST-2", "2024-01-15T10:00:00.000+0000")));
+        JiraIssue updated = createIssue("TEST-2", "2024-01-16T10:00:00.000+0000");
+
+        IssueListDiff diff = IssueListDiff.apply(target, List.of(
+                createIssue("TEST-1", "2024-01-15T10:00:00.000+0000"), updated));
+
+        assertEquals(1, diff.getReplaced());
+        assertSame(first, target.get(0));
+        assertSame(updated, target.get(1));
+    }
+
+    @Test
+    public void testAddsRemovesAndMoves() {
+        List<JiraIssue> target = new ArrayList<>(List.of(
+                createIssue("TEST-1", null), createIssue("TEST-2", null),
+                createIssue("TEST-3", null), createIssue("TEST-4", null)));
+
+        IssueListDiff diff = IssueListDiff.apply(target, List.of(
+                createIssue("TEST-4", null), createIssue("TEST-1", null),
+                createIssue("TEST-5", null), createIssue("TEST-3", null)));
+
+        assertEquals(List.of("TEST-4", "TEST-1", "TEST-5", "TEST-3"), keys(target));
+        assertEquals(1, diff.getRemoved());
+        assertEquals(1, diff.getAdded());
+        assertTrue(diff.getMoved() >= 1);
+    }
+
+    @Test
+    public void testReorderedResultIsSetInOneChange() {
+        List<JiraIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            issues.add(createIssue("TEST-" + i, "2024-01-15T10:00:00.000+0000"));
+        }
+        ObservableList<JiraIssue> target = FXCollections.observableArrayList(issues);
+        List<ListChangeListener.Change<? extends JiraIssue>> changes = new ArrayList<>();
+        target.addListener((ListChangeListener<JiraIssue>) changes::add);
+
+        List<JiraIssue> reversed = new ArrayList<>();
+        for (int i = 100; i >= 1; i--) {
+            reversed.add(createIssue("TEST-" + i, "2024-01-15T10:00:00.000+0000"));
+        }
+        IssueListDiff diff = IssueListDiff.apply(target, reversed);
+
+        assertEquals(1, changes.size());
+        assertEquals(0, diff.getAdded());
+        assertTrue(diff.getMoved() > IssueListDiff.MAX_STEPWISE_CHANGES);
+        assertEquals("TEST-100", target.get(0).getKey());
+        // Unchanged rows are kept even when the list is set in one change
+        assertSame(issues.get(0), target.get(99));
+    }
+
+    @Test
+    public void testFewChangesAreAppliedStepwise() {
+        List<JiraIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            issues.add(createIssue("TEST-" + i, null));
+        }
+        ObservableList<JiraIssue> target = FXCollections.observableArrayList(issues);
+        List<ListChangeListener.Change<? extends JiraIssue>> changes = new ArrayList<>();
+        target.addListener((ListChangeListener<JiraIssue>) changes::add);
+
+        List<JiraIssue> fresh = new ArrayList<>(issues);
+        fresh.remove(50);
+        fresh.add(0, createIssue("TEST-101", null));
+        fresh.add(20, fresh.remove(10));
+        IssueListDiff diff = IssueListDiff.apply(target, fresh);
+
+        assertEquals(1, diff.getAdded());
+        assertEquals(1, diff.getRemoved());
+        assertTrue(diff.getMoved() > 0);
+        assertTrue(changes.size() > 1);
+        assertEquals(keys(fresh), keys(target));
+    }
+
+    @Test
+    public void testReplaceSetsNewResultInOneChange() {
+        ObservableList<JiraIssue> target = FXCollections.observableArrayList(
+                createIssue("TEST-1", null), createIssue("TEST-2", null));
+        List<ListChangeListener.Change<? extends JiraIssue>> changes = new ArrayList<>();
+        target.addListener((ListChangeListener<JiraIssue>) changes::add);
+
+        IssueListDiff diff = IssueListDiff.replace(target, List.of(
+                createIssue("OTHER-1", null), createIssue("OTHER-2", null), createIssue("OTHER-3", null)));
+
+        assertEquals(1, changes.size());
+        assertEquals(3, diff.getAdded());
+        assertEquals(2, diff.getRemoved());
+        assertEquals(List.of("OTHER-1", "OTHER-2", "OTHER-3"), keys(target));
+    }
+}
@@ -0,0 +1,77 @@
+package com.jirainsight.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for MetricsRegistry and Histogram
+ */
+public class MetricsRegistryTest {
+
+    private MetricsRegistry metrics;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = MetricsRegistry.getInstance();
+        metrics.clearAll();
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        Histogram histogram = new Histogram(false);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500.5, snapshot.getMean(), 0.001);
+
+        // Buckets are a quarter of a power of two wide, so percentiles are within 25%
+        assertEquals(500, snapshot.getP50(), 125);
+        assertEquals(950, snapshot.getP95(), 240);
+        assertTrue(snapshot.getP99() <= 1000);
+    }
+
+    @Test
+    public void testBucketsCoverValues() {
+        for (long value : new long[] {0, 1, 3, 4, 7, 8, 1023, 1024, 123_456_789L, Long.MAX_VALUE}) {
+            int index = Histogram.bucketIndex(value);
+            assertTrue(Histogram.bucketUpperBound(index) >= value, "value " + value);
+            assertTrue(index == 0 || Histogram.bucketUpperBound(index - 1) < value, "value " + value);
+        }
+    }
+
+    @Test
+    public void testCacheHitRatioAndReport() throws IOException {
+        metrics.recordCacheAccess("rows", 3, 1);
+        metrics.timer("http.search.latency").record(2_000_000);
+        metrics.counter("http.search.errors").increment();
+
+        assertEquals(0.75, metrics.getCacheHitRatio("rows"), 0.0001);
+        assertEquals(0.0, metrics.getCacheHitRatio("unknown"));
+
+        String report = metrics.report();
+        assertTrue(report.contains("http.search.latency (ms)"));
+        assertTrue(report.contains("http.search.errors"));
+        assertTrue(report.contains("75.0%"));
+
+        Path file = Files.createTempFile("metrics", ".txt");
+        try {
+            metrics.exportTo(file, "Extra section");
+            String exported = Files.readString(file);
+            assertTrue(exported.contains("http.search.latency"));
+            assertTrue(exported.endsWith("Extra section\n"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}